@@ -7,17 +7,27 @@ import com.transifex.common.TranslationMapStorage;
 import com.transifex.common.TranslationsDownloader;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 
 import javax.naming.TimeLimitExceededException;
@@ -58,6 +68,7 @@ public class MainClass {
 
     static final String OUT_DIR_NAME = TranslationMapStorage.DEFAULT_TRANSLATIONS_DIR_NAME;
     static final String OUT_FILE_NAME = TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME;
+    static final String OUT_BINARY_FILE_NAME = TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME;
 
     @Mixin
     private ReusableAttributes reusable;
@@ -109,15 +120,24 @@ public class MainClass {
         StringSources stringSources;
 
         static class StringSources {
-            @Option(names = {"-m", "--module"},
-                    description = "The name of the module that contains the source strings.",
+            @Option(names = {"-m", "--module"}, arity = "1..",
+                    description = "The names of one or more modules that contain the source strings.",
                     paramLabel = "<module>")
-            String moduleName;
+            String[] moduleNames;
 
             @Option(names = {"-f", "--file"}, arity = "1..",
                     description = "One or more xml resource files containing source strings.",
                     paramLabel = "<file>")
             File[] files;
+
+            @Option(names = {"-g", "--glob"},
+                    description = "A glob pattern, relative to the current directory, that matches " +
+                            "the xml resource files containing source strings, for example " +
+                            "\"*/src/main/res/values/strings*.xml\". Hidden, \"build\" and " +
+                            "qualified \"values-*\" resource directories, which contain " +
+                            "translations, are skipped.",
+                    paramLabel = "<pattern>")
+            String glob;
         }
 
         @Option(names = {"-a", "--append-tags"}, arity = "0..",
@@ -135,23 +155,74 @@ public class MainClass {
                 description = "Do not push to CDS.")
         boolean dryRun;
 
+        @Option(names = {"--stream"},
+                description = "Parse the string files while pushing, one file at a time, and send " +
+                        "them using chunked transfer encoding, so that memory usage does not " +
+                        "depend on the number of strings.")
+        boolean stream;
+
+        @Option(names = {"--gzip"},
+                description = "Compress the pushed strings using gzip.")
+        boolean gzip;
+
+        @Option(names = {"--incremental"},
+                description = "Push only the strings that were added or changed since the last " +
+                        "successful push, as recorded in a manifest in the build directory. If " +
+                        "--purge is set, all strings are pushed.")
+        boolean incremental;
+
+        @Option(names = {"--manifest"},
+                description = "The manifest file used by --incremental. Defaults to " +
+                        "\"<module>/build/transifex/" + PushManifest.DEFAULT_FILENAME + "\" for a " +
+                        "single module or, otherwise, \"build/transifex/" + PushManifest.DEFAULT_FILENAME + "\".",
+                paramLabel = "<file>")
+        File manifestFile;
+
+        @Option(names = {"-c", "--concurrency"},
+                description = "The maximum number of string files to parse at the same time. " +
+                        "Default: the number of available processors.",
+                paramLabel = "<number>")
+        int parseConcurrency = Runtime.getRuntime().availableProcessors();
+
         @Option(names = {"-v", "--verbose"},
                 description = "Verbose output.")
         boolean verbose;
 
         @Override
         public Integer call() throws Exception {
+            if (parseConcurrency < 1) {
+                System.out.println("The concurrency should be at least 1");
+                return 1;
+            }
+
             // Get String file(s)
             Path currentPath = Paths.get(System.getProperty("user.dir"));
             ArrayList<File> files = new ArrayList<>();
 
-            if (stringSources.moduleName != null) {
-                File stringFile = getStringFileForModule(currentPath.toFile(), stringSources.moduleName);
-                if (!stringFile.isFile()) {
-                    System.out.println("Could not find \"strings.xml\" at: " + stringFile.getAbsolutePath());
+            if (stringSources.moduleNames != null) {
+                for (String moduleName : stringSources.moduleNames) {
+                    File stringFile = getStringFileForModule(currentPath.toFile(), moduleName);
+                    if (!stringFile.isFile()) {
+                        System.out.println("Could not find \"strings.xml\" at: " + stringFile.getAbsolutePath());
+                        return 1;
+                    }
+                    files.add(stringFile);
+                }
+            }
+            else if (stringSources.glob != null) {
+                try {
+                    files.addAll(findFiles(currentPath.toFile(), stringSources.glob));
+                } catch (IllegalArgumentException | IOException e) {
+                    System.out.println("Could not search for files: " + e.getMessage());
                     return 1;
                 }
-                files.add(stringFile);
+                if (files.isEmpty()) {
+                    System.out.println("No files match: " + stringSources.glob);
+                    return 1;
+                }
+                if (verbose) {
+                    System.out.println("Found " + files.size() + " string files");
+                }
             }
             else {
                 for (File file : stringSources.files) {
@@ -169,17 +240,36 @@ public class MainClass {
                 return 1;
             }
 
-            // Parse String file(s)
-            LinkedHashMap<String, LocaleData.StringInfo> sourceStringMap = new LinkedHashMap<>(40);
-            StringXMLConverter xmlConverter = new StringXMLConverter();
+            // Load the manifest of the previous pushes
+            PushManifest manifest = null;
+            File manifestFile = null;
+            if (incremental) {
+                manifestFile = getManifestFile(currentPath.toFile());
+                manifest = PushManifest.load(manifestFile, mainClass.hostURL, token);
+                if (purge) {
+                    // The pushed strings replace the existing content, so all of them are pushed
+                    manifest.clear();
+                }
+            }
 
-            for (File file : files) {
-                try {
-                    xmlConverter.process(file, sourceStringMap);
-                } catch (Exception e) {
-                    System.out.println("Error parsing string file: " + e.getMessage());
-                    return 1;
+            if (stream) {
+                return pushStreaming(files, manifest, manifestFile);
+            }
+
+            // Parse String file(s)
+            LinkedHashMap<String, LocaleData.StringInfo> sourceStringMap;
+            ForkJoinPool parsePool = new ForkJoinPool(Math.min(parseConcurrency, files.size()));
+            try {
+                StringFilesParser parser = new StringFilesParser(parsePool);
+                sourceStringMap = parser.parse(files);
+                for (StringFilesParser.Conflict conflict : parser.getConflicts()) {
+                    System.out.println("Warning: " + conflict);
                 }
+            } catch (StringFilesParser.ParseException e) {
+                System.out.println("Error parsing string file: " + e.getMessage());
+                return 1;
+            } finally {
+                parsePool.shutdown();
             }
 
             // Append custom tags
@@ -189,6 +279,21 @@ public class MainClass {
                 }
             }
 
+            // Keep only the strings that changed since the last push
+            if (manifest != null) {
+                Iterator<Map.Entry<String, LocaleData.StringInfo>> iterator = sourceStringMap.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, LocaleData.StringInfo> entry = iterator.next();
+                    if (!manifest.stage(entry.getKey(), entry.getValue())) {
+                        iterator.remove();
+                    }
+                }
+                if (sourceStringMap.isEmpty() && !purge) {
+                    System.out.println("Source strings are up to date");
+                    return 0;
+                }
+            }
+
             // Create payload
             LocaleData.TxPostData.Meta meta = new LocaleData.TxPostData.Meta();
             meta.purge = purge;
@@ -213,6 +318,7 @@ public class MainClass {
             // Push to CDS
             CDSHandler cdsHandler = new CDSHandler(null, token, secret,
                     mainClass.hostURL);
+            cdsHandler.setGzipEnabled(gzip);
             LocaleData.TxJobStatus jobStatus = null;
             try {
                 jobStatus = cdsHandler.pushSourceStrings(postData);
@@ -221,6 +327,112 @@ public class MainClass {
                 return 0;
             }
 
+            int exitCode = handleJobStatus(jobStatus);
+            if (manifest != null) {
+                updateManifest(manifest, manifestFile, jobStatus);
+            }
+            return exitCode;
+        }
+
+        /**
+         * Pushes the strings of the provided files, parsing them while they are sent to CDS.
+         *
+         * @param manifest If provided, only the strings that changed since the last push are
+         *                 pushed.
+         * @param manifestFile The file that the manifest is saved to after a successful push.
+         */
+        private int pushStreaming(@NonNull ArrayList<File> files, @Nullable PushManifest manifest,
+                                  @Nullable File manifestFile) {
+            LocaleData.TxPostData.Meta meta = new LocaleData.TxPostData.Meta();
+            meta.purge = purge;
+            StringFileProducer producer = new StringFileProducer(files, tags, manifest, verbose);
+
+            if (verbose) {
+                System.out.println();
+                System.out.println("The following meta will be pushed along the strings: " + meta.toString());
+                System.out.println("The following strings are about to be pushed:");
+            }
+
+            if (dryRun) {
+                try {
+                    producer.writeSourceStrings(new CDSHandler.SourceStringsWriter() {
+                        @Override
+                        public void write(@NonNull String key, @NonNull LocaleData.StringInfo stringInfo) {
+                        }
+                    });
+                } catch (IOException e) {
+                    System.out.println(e.getMessage());
+                    return 1;
+                }
+                return 0;
+            }
+
+            // Push to CDS
+            CDSHandler cdsHandler = new CDSHandler(null, token, secret,
+                    mainClass.hostURL);
+            cdsHandler.setChunkedStreamingEnabled(true);
+            cdsHandler.setGzipEnabled(gzip);
+            LocaleData.TxJobStatus jobStatus = null;
+            try {
+                jobStatus = cdsHandler.pushSourceStrings(producer, meta);
+            } catch (TimeLimitExceededException e) {
+                System.out.println("Strings are queued for processing");
+                return 0;
+            }
+
+            if (producer.getParseException() != null) {
+                System.out.println("Error parsing string file: " + producer.getParseException().getMessage());
+                return 1;
+            }
+
+            int exitCode = handleJobStatus(jobStatus);
+            if (manifest != null) {
+                updateManifest(manifest, manifestFile, jobStatus);
+            }
+            return exitCode;
+        }
+
+        /**
+         * Returns the manifest file used by incremental pushes.
+         */
+        private @NonNull File getManifestFile(@NonNull File projectDirectory) {
+            if (manifestFile != null) {
+                return manifestFile;
+            }
+            Path filePath;
+            if (stringSources.moduleNames != null && stringSources.moduleNames.length == 1) {
+                filePath = Paths.get(projectDirectory.getAbsolutePath(), stringSources.moduleNames[0],
+                        "build", "transifex", PushManifest.DEFAULT_FILENAME);
+            }
+            else {
+                filePath = Paths.get(projectDirectory.getAbsolutePath(), "build", "transifex",
+                        PushManifest.DEFAULT_FILENAME);
+            }
+            return filePath.toFile();
+        }
+
+        /**
+         * Commits the pushed strings to the manifest and saves it, if the push was successful.
+         * If some strings failed, the manifest is not updated, so that all changed strings are
+         * pushed again next time.
+         */
+        private void updateManifest(@NonNull PushManifest manifest, @NonNull File manifestFile,
+                                    @Nullable LocaleData.TxJobStatus jobStatus) {
+            if (jobStatus == null || !jobStatus.isCompleted() || jobStatus.hasErrors()) {
+                return;
+            }
+            manifest.commit();
+            try {
+                manifest.save(manifestFile);
+            } catch (IOException e) {
+                System.out.println("Could not save the push manifest: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Prints the result of a push and returns the exit code.
+         */
+        private int handleJobStatus(@Nullable LocaleData.TxJobStatus jobStatus) {
             if (jobStatus != null && jobStatus.isCompleted()) {
                 System.out.println("Source strings pushed successfully to CDS");
 
@@ -337,8 +549,24 @@ public class MainClass {
                 paramLabel = "<tag>")
         Set<String> tags;
 
+        @Option(names = {"-c", "--concurrency"},
+                description = "The maximum number of locales to download at the same time. " +
+                        "Default: ${DEFAULT-VALUE}.",
+                paramLabel = "<number>")
+        int maxConcurrentFetches = 1;
+
+        @Option(names = {"-b", "--binary"},
+                description = "If set, a binary translation file, which loads faster, is also " +
+                        "saved next to each JSON translation file.")
+        boolean binary;
+
         @Override
         public Integer call() throws Exception {
+            if (maxConcurrentFetches < 1) {
+                System.out.println("The concurrency should be at least 1");
+                return 1;
+            }
+
             // Create output directory
             Path currentPath = Paths.get(System.getProperty("user.dir"));
             File parentDir = null;
@@ -360,8 +588,23 @@ public class MainClass {
             // Pull from CDS
             CDSHandler cdsHandler = new CDSHandler(translatedLocales, token, null,
                     mainClass.hostURL);
+            cdsHandler.setMaxConcurrentFetches(maxConcurrentFetches);
             TranslationsDownloader downloader = new TranslationsDownloader(cdsHandler);
-            HashMap<String, File> downloadedFiles = downloader.downloadTranslations(null, tags, outDir, OUT_FILE_NAME);
+            // The binary files are converted concurrently after downloading
+            HashMap<String, File> downloadedFiles = downloader.downloadTranslations(null, tags,
+                    outDir, OUT_FILE_NAME, binary ? OUT_BINARY_FILE_NAME : null,
+                    ForkJoinPool.commonPool());
+
+            if (!binary) {
+                // Remove binary files of a previous pull, so that they don't shadow the new
+                // JSON files
+                for (File file : downloadedFiles.values()) {
+                    File binaryFile = new File(file.getParent() + File.separator + OUT_BINARY_FILE_NAME);
+                    if (binaryFile.exists() && !binaryFile.delete()) {
+                        System.out.println("Could not delete stale file: " + binaryFile.getAbsolutePath());
+                    }
+                }
+            }
 
             if (downloadedFiles.keySet().containsAll(Arrays.asList(translatedLocales))) {
                 System.out.println("Translations have been pulled successfully from CDS to: " +
@@ -395,6 +638,58 @@ public class MainClass {
         return filePath.toFile();
     }
 
+    /**
+     * Returns the files under the provided directory whose path, relative to the directory,
+     * matches the provided glob pattern. Hidden directories and "build" directories are skipped.
+     * Qualified "values-*" resource directories, such as "values-fr", are skipped too, so that
+     * translations are not mistaken for source strings.
+     *
+     * @param projectDirectory The root of the gradle project.
+     * @param glob             A glob pattern, as described in
+     *                         {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     *
+     * @return The matching files, sorted by path, so that the result does not depend on the file
+     * system.
+     *
+     * @throws IllegalArgumentException If the pattern is invalid.
+     * @throws IOException If the directory can't be searched.
+     */
+    static @NonNull
+    List<File> findFiles(@NonNull File projectDirectory, @NonNull String glob) throws IOException {
+        final Path rootPath = projectDirectory.getAbsoluteFile().toPath();
+        final PathMatcher matcher = rootPath.getFileSystem().getPathMatcher("glob:" + glob);
+        final ArrayList<Path> paths = new ArrayList<>();
+
+        Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(rootPath)) {
+                    String name = dir.getFileName().toString();
+                    if (name.startsWith(".") || name.equals("build") || name.startsWith("values-")) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relativePath = rootPath.relativize(file);
+                if (attrs.isRegularFile() && matcher.matches(relativePath)) {
+                    paths.add(relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        Collections.sort(paths);
+        ArrayList<File> files = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            files.add(rootPath.resolve(path).toFile());
+        }
+        return files;
+    }
+
     /**
      * Returns the assets directory for the provided gradle module under the main source
      * set.
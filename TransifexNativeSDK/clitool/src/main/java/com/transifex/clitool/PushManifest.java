@@ -0,0 +1,188 @@
+package com.transifex.clitool;
+
+import com.transifex.common.LocaleData;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A manifest of the source strings that previous runs pushed to CDS, so that only the strings
+ * that were added or changed since then are pushed.
+ * <p>
+ * Each string is identified by its key and a hash of its content: its text and its tags. Strings
+ * are first staged using {@link #stage(String, LocaleData.StringInfo)} and are committed to the
+ * manifest using {@link #commit()} after they have been pushed successfully.
+ * <p>
+ * The manifest is tied to the CDS host and token it was created for. The manifest of another
+ * project is ignored.
+ * <p>
+ * The manifest is stored as a UTF-8 text file. The first line contains a hash of the host and
+ * token. Each of the following lines contains the hash of a string and its key, separated by a
+ * space.
+ */
+class PushManifest {
+
+    static final String DEFAULT_FILENAME = "push-manifest.txt";
+
+    private final String mProjectHash;
+    private final HashMap<String, String> mHashes = new HashMap<>();
+    private final HashMap<String, String> mStagedHashes = new HashMap<>();
+
+    /**
+     * Creates an empty manifest for the provided project.
+     *
+     * @param hostURL The CDS host.
+     * @param token The Transifex token of the project.
+     */
+    PushManifest(@NonNull String hostURL, @NonNull String token) {
+        mProjectHash = hash(hostURL + "\n" + token);
+    }
+
+    /**
+     * Loads the manifest of the provided project from the provided file.
+     * <p>
+     * If the file does not exist, can't be read or belongs to another project, an empty manifest
+     * is returned.
+     */
+    static @NonNull PushManifest load(@NonNull File file, @NonNull String hostURL, @NonNull String token) {
+        PushManifest manifest = new PushManifest(hostURL, token);
+        if (!file.isFile()) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!manifest.mProjectHash.equals(reader.readLine())) {
+                return manifest;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separatorIndex = line.indexOf(' ');
+                if (separatorIndex <= 0) {
+                    // Corrupted file: push everything
+                    manifest.mHashes.clear();
+                    break;
+                }
+                manifest.mHashes.put(line.substring(separatorIndex + 1), line.substring(0, separatorIndex));
+            }
+        } catch (IOException e) {
+            manifest.mHashes.clear();
+        }
+
+        return manifest;
+    }
+
+    /**
+     * Stores the committed entries of the manifest to the provided file, creating any parent
+     * directories. The file is replaced atomically.
+     *
+     * @throws IOException If the file can't be written.
+     */
+    void save(@NonNull File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        // Sort the keys, so that the file does not change if the strings don't change
+        ArrayList<String> keys = new ArrayList<>(mHashes.keySet());
+        Collections.sort(keys);
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(mProjectHash);
+            writer.newLine();
+            for (String key : keys) {
+                writer.write(mHashes.get(key));
+                writer.write(' ');
+                writer.write(key);
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Stages the provided string, if it was added or changed since it was last committed.
+     *
+     * @return <code>true</code> if the string should be pushed, <code>false</code> if it has not
+     * changed.
+     */
+    boolean stage(@NonNull String key, @NonNull LocaleData.StringInfo stringInfo) {
+        String hash = hash(stringInfo);
+        if (hash.equals(mHashes.get(key))) {
+            return false;
+        }
+        mStagedHashes.put(key, hash);
+        return true;
+    }
+
+    /**
+     * Commits the staged strings to the manifest. Should be called after the staged strings have
+     * been pushed successfully.
+     */
+    void commit() {
+        mHashes.putAll(mStagedHashes);
+        mStagedHashes.clear();
+    }
+
+    /**
+     * Removes all committed strings, so that all strings are staged again. Should be called when
+     * the pushed strings replace the existing content of CDS.
+     */
+    void clear() {
+        mHashes.clear();
+    }
+
+    /**
+     * Returns the number of committed strings.
+     */
+    int size() {
+        return mHashes.size();
+    }
+
+    /**
+     * Returns a hash of the content of the provided string that CDS keeps: its text and its tags.
+     */
+    static @NonNull String hash(@NonNull LocaleData.StringInfo stringInfo) {
+        StringBuilder sb = new StringBuilder(stringInfo.string);
+        if (stringInfo.meta != null && stringInfo.meta.tags != null) {
+            // The order of the tags does not matter
+            ArrayList<String> tags = new ArrayList<>(stringInfo.meta.tags);
+            Collections.sort(tags);
+            for (String tag : tags) {
+                sb.append('\0').append(tag);
+            }
+        }
+        return hash(sb.toString());
+    }
+
+    private static @NonNull String hash(@NonNull String string) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(string.getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.transifex.clitool;
+
+import com.transifex.common.CDSHandler;
+import com.transifex.common.LocaleData;
+
+import org.jdom2.JDOMException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link CDSHandler.SourceStringsProducer} that parses Android XML resource files containing
+ * strings and writes their strings one file at a time, so that only the strings of a single file
+ * are held in memory.
+ * <p>
+ * If a key exists in more than one file, the value of the last file is written, as when the files
+ * are parsed into the same map using {@link StringXMLConverter}. To achieve this without holding
+ * all strings in memory, the files are processed in reverse order and a key is written only the
+ * first time it's encountered.
+ */
+class StringFileProducer implements CDSHandler.SourceStringsProducer {
+
+    private final List<File> mFiles;
+    private final Set<String> mTags;
+    private final PushManifest mManifest;
+    private final boolean mVerbose;
+
+    private Exception mParseException;
+
+    /**
+     * Creates a producer for the provided files.
+     *
+     * @param files The XML resource files containing the source strings.
+     * @param tags Optional tags to append to each source string.
+     * @param manifest An optional manifest of the previous pushes. If provided, only the strings
+     *                 that changed since the last push are written and they are staged to the
+     *                 manifest.
+     * @param verbose If <code>true</code>, each string is printed as it's written.
+     */
+    StringFileProducer(@NonNull List<File> files, @Nullable Set<String> tags,
+                       @Nullable PushManifest manifest, boolean verbose) {
+        mFiles = files;
+        mTags = tags;
+        mManifest = manifest;
+        mVerbose = verbose;
+    }
+
+    @Override
+    public void writeSourceStrings(@NonNull CDSHandler.SourceStringsWriter writer) throws IOException {
+        StringXMLConverter xmlConverter = new StringXMLConverter();
+        LinkedHashMap<String, LocaleData.StringInfo> fileStringMap = new LinkedHashMap<>(40);
+        HashSet<String> writtenKeys = new HashSet<>();
+
+        for (int i = mFiles.size() - 1; i >= 0; i--) {
+            fileStringMap.clear();
+            try {
+                xmlConverter.process(mFiles.get(i), fileStringMap);
+            } catch (JDOMException | IOException | StringXMLConverter.XMLConverterException e) {
+                mParseException = e;
+                throw new IOException("Error parsing string file: " + e.getMessage(), e);
+            }
+
+            for (Map.Entry<String, LocaleData.StringInfo> entry : fileStringMap.entrySet()) {
+                if (!writtenKeys.add(entry.getKey())) {
+                    // A later file has already provided the string
+                    continue;
+                }
+                LocaleData.StringInfo stringInfo = entry.getValue();
+                if (mTags != null && !mTags.isEmpty()) {
+                    stringInfo.appendTags(mTags);
+                }
+                if (mManifest != null && !mManifest.stage(entry.getKey(), stringInfo)) {
+                    // The string has not changed since the last push
+                    continue;
+                }
+                if (mVerbose) {
+                    System.out.println(entry.getKey() + " -> " + stringInfo.toString());
+                }
+                writer.write(entry.getKey(), stringInfo);
+            }
+        }
+    }
+
+    /**
+     * Returns the exception that occurred while parsing a file, if any.
+     */
+    @Nullable Exception getParseException() {
+        return mParseException;
+    }
+}
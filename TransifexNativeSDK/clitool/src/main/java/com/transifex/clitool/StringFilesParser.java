@@ -0,0 +1,178 @@
+package com.transifex.clitool;
+
+import com.transifex.common.LocaleData;
+
+import org.jdom2.JDOMException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A parser that parses many Android XML resource files containing strings concurrently, using a
+ * {@link ForkJoinPool}, and merges their strings into a single map.
+ * <p>
+ * The result does not depend on the order that the files are parsed in: the strings are merged in
+ * the order of the provided files, as if the files had been parsed one after another into the
+ * same map using {@link StringXMLConverter}. If a key exists in more than one file, the value of
+ * the last file is kept at the position where the key was first found. Keys that are defined with
+ * a different value in more than one file are reported as {@link Conflict conflicts}.
+ */
+class StringFilesParser {
+
+    /**
+     * A key that is defined with a different value in two files.
+     */
+    static class Conflict {
+
+        final String key;
+        final File file;
+        final File overridingFile;
+
+        Conflict(@NonNull String key, @NonNull File file, @NonNull File overridingFile) {
+            this.key = key;
+            this.file = file;
+            this.overridingFile = overridingFile;
+        }
+
+        @Override
+        @NonNull
+        public String toString() {
+            return "Key \"" + key + "\" of \"" + file.getPath() + "\" is overridden by \""
+                    + overridingFile.getPath() + "\"";
+        }
+    }
+
+    /**
+     * Thrown when a file can't be parsed.
+     */
+    static class ParseException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        final File file;
+
+        ParseException(@NonNull File file, @NonNull Throwable cause) {
+            super(file.getPath() + ": " + cause.getMessage(), cause);
+            this.file = file;
+        }
+    }
+
+    /**
+     * A task that parses a single file. Parsing errors are stored in the task, so that they are
+     * not wrapped by the pool.
+     */
+    private static class ParseTask extends RecursiveTask<LinkedHashMap<String, LocaleData.StringInfo>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File mFile;
+
+        Exception mException;
+
+        ParseTask(@NonNull File file) {
+            mFile = file;
+        }
+
+        @Override
+        protected LinkedHashMap<String, LocaleData.StringInfo> compute() {
+            LinkedHashMap<String, LocaleData.StringInfo> fileStringMap = new LinkedHashMap<>(40);
+            try {
+                // The converter is not thread-safe, so each task uses its own
+                new StringXMLConverter().process(mFile, fileStringMap);
+            } catch (JDOMException | IOException | StringXMLConverter.XMLConverterException e) {
+                mException = e;
+            }
+            return fileStringMap;
+        }
+    }
+
+    private final ForkJoinPool mPool;
+    private final ArrayList<Conflict> mConflicts = new ArrayList<>();
+
+    /**
+     * Creates a parser that parses the files using the provided pool.
+     */
+    StringFilesParser(@NonNull ForkJoinPool pool) {
+        mPool = pool;
+    }
+
+    /**
+     * Parses the provided files concurrently and merges their strings.
+     * <p>
+     * If a file can't be parsed, the files that have not been parsed yet are skipped.
+     *
+     * @param files The XML resource files containing the strings.
+     *
+     * @return A map of the strings of all files, in the order described in the class
+     * documentation.
+     *
+     * @throws ParseException If a file can't be parsed. If many files can't be parsed, the first
+     * one is reported.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    @NonNull LinkedHashMap<String, LocaleData.StringInfo> parse(@NonNull List<File> files)
+            throws ParseException, InterruptedException {
+        mConflicts.clear();
+
+        ArrayList<ParseTask> tasks = new ArrayList<>(files.size());
+        for (File file : files) {
+            ParseTask task = new ParseTask(file);
+            mPool.execute(task);
+            tasks.add(task);
+        }
+
+        LinkedHashMap<String, LocaleData.StringInfo> stringMap = new LinkedHashMap<>(40);
+        // The index of the file that provided the current value of each key
+        HashMap<String, Integer> keyFileIndices = new HashMap<>();
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                ParseTask task = tasks.get(i);
+                LinkedHashMap<String, LocaleData.StringInfo> fileStringMap;
+                try {
+                    fileStringMap = task.get();
+                } catch (ExecutionException e) {
+                    throw new ParseException(files.get(i), e.getCause());
+                }
+                if (task.mException != null) {
+                    throw new ParseException(files.get(i), task.mException);
+                }
+
+                for (Map.Entry<String, LocaleData.StringInfo> entry : fileStringMap.entrySet()) {
+                    LocaleData.StringInfo previousStringInfo = stringMap.put(entry.getKey(), entry.getValue());
+                    Integer previousFileIndex = keyFileIndices.put(entry.getKey(), i);
+                    if (previousStringInfo != null && !previousStringInfo.equals(entry.getValue())) {
+                        mConflicts.add(new Conflict(entry.getKey(), files.get(previousFileIndex),
+                                files.get(i)));
+                    }
+                }
+            }
+        } finally {
+            // Skip the files that are not needed after an error
+            for (ForkJoinTask<?> task : tasks) {
+                task.cancel(false);
+            }
+        }
+
+        return stringMap;
+    }
+
+    /**
+     * Returns the conflicts found by the last call of {@link #parse(List)}, in the order that the
+     * files were merged.
+     */
+    @NonNull List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(mConflicts);
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.transifex.common.CDSMockHelper;
 import com.transifex.common.LocaleData;
 import com.transifex.common.TempDirHelper;
+import com.transifex.common.TranslationBundle;
 import com.transifex.common.Utils;
 
 import org.junit.After;
@@ -13,7 +14,11 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import okhttp3.mockwebserver.RecordedRequest;
 
@@ -140,6 +145,306 @@ public class MainClassTest {
         assertThat(parsedPostData.data.get("tx_plural_test_key").string).isEqualTo("{cnt, plural, one {αυτοκίνητο} other {αυτοκίνητα}}");
     }
 
+    @Test
+    public void testPush_stream() {
+        // This test relies on having the following file:
+        // txsdk/src/test/res/values/strings.xml
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        String args = String.format("-u %s push -t token -s secret -f %s -a %s --stream", cdsMock.getBaseUrl(),
+                "../txsdk/src/test/res/values/strings.xml", "some_tag");
+        int returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+
+        String postBody = recordedRequest.getBody().readUtf8();
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(postBody, LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key").inOrder();
+        assertThat(parsedPostData.data.get("tx_test_key").string).isEqualTo("test");
+        assertThat(parsedPostData.data.get("tx_plural_test_key").string).isEqualTo("{cnt, plural, one {car} two {car 2} other {cars}}");
+        assertThat(parsedPostData.data.get("tx_test_key").meta.tags).containsExactly("some_tag");
+        assertThat(parsedPostData.meta.purge).isFalse();
+    }
+
+    @Test
+    public void testPush_streamMultipleFiles() {
+        // This test relies on having the following files:
+        // txsdk/src/test/res/values/strings.xml
+        // txsdk/src/test/res/values-el/strings.xml"
+
+        // As when not streaming, we expect to see the last file's value in the pushed strings.
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        String args = String.format("-u %s push -t token -s secret -f %s -f %s --stream", cdsMock.getBaseUrl(),
+                "../txsdk/src/test/res/values/strings.xml",
+                "../txsdk/src/test/res/values-el/strings.xml");
+        int returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(recordedRequest).isNotNull();
+
+        String postBody = recordedRequest.getBody().readUtf8();
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(postBody, LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key");
+        assertThat(parsedPostData.data.get("tx_test_key").string).isEqualTo("test ελ");
+        assertThat(parsedPostData.data.get("tx_plural_test_key").string).isEqualTo("{cnt, plural, one {αυτοκίνητο} other {αυτοκίνητα}}");
+    }
+
+    @Test
+    public void testPush_gzip() throws IOException {
+        // This test relies on having the following file:
+        // txsdk/src/test/res/values/strings.xml
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        String args = String.format("-u %s push -t token -s secret -f %s --gzip", cdsMock.getBaseUrl(),
+                "../txsdk/src/test/res/values/strings.xml");
+        int returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+        String postBody = Utils.readInputStream(new GZIPInputStream(recordedRequest.getBody().inputStream()));
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(postBody, LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key").inOrder();
+        assertThat(parsedPostData.data.get("tx_test_key").string).isEqualTo("test");
+    }
+
+    @Test
+    public void testPush_incremental() throws InterruptedException {
+        // This test relies on having the following files:
+        // txsdk/src/test/res/values/strings.xml
+        // txsdk/src/test/res/values-el/strings.xml"
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+        File manifestFile = new File(tempDirHelper.getFile(), "push-manifest.txt");
+        String args = String.format("-u %s push -t token -s secret --incremental --manifest %s -f %s",
+                cdsMock.getBaseUrl(), manifestFile.getPath(), "../txsdk/src/test/res/values/strings.xml");
+
+        // The first push sends all strings
+        assertThat(MainClass.testMain(args)).isEqualTo(0);
+        assertThat(manifestFile.isFile()).isTrue();
+        RecordedRequest recordedRequest = cdsMock.getServer().takeRequest();
+        assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(recordedRequest.getBody().readUtf8(),
+                LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key").inOrder();
+        int requestCount = cdsMock.getServer().getRequestCount();
+
+        // Nothing changed, so nothing is pushed
+        assertThat(MainClass.testMain(args)).isEqualTo(0);
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(requestCount);
+
+        // The second file changes the value of "tx_test_key" only
+        String changedArgs = String.format("-u %s push -t token -s secret --incremental --manifest %s -f %s -f %s",
+                cdsMock.getBaseUrl(), manifestFile.getPath(), "../txsdk/src/test/res/values/strings.xml",
+                "../txsdk/src/test/res/values-el/strings.xml");
+        assertThat(MainClass.testMain(changedArgs)).isEqualTo(0);
+        for (int i = 1; i < requestCount; i++) {
+            cdsMock.getServer().takeRequest();
+        }
+        recordedRequest = cdsMock.getServer().takeRequest();
+        assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+        parsedPostData = gson.fromJson(recordedRequest.getBody().readUtf8(), LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key");
+        assertThat(parsedPostData.data.get("tx_test_key").string).isEqualTo("test ελ");
+    }
+
+    @Test
+    public void testPush_incrementalWithPurge_pushAllStrings() throws InterruptedException {
+        // This test relies on having the following file:
+        // txsdk/src/test/res/values/strings.xml
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+        File manifestFile = new File(tempDirHelper.getFile(), "push-manifest.txt");
+        String args = String.format("-u %s push -t token -s secret --incremental --manifest %s -f %s",
+                cdsMock.getBaseUrl(), manifestFile.getPath(), "../txsdk/src/test/res/values/strings.xml");
+        assertThat(MainClass.testMain(args)).isEqualTo(0);
+        int requestCount = cdsMock.getServer().getRequestCount();
+        for (int i = 0; i < requestCount; i++) {
+            cdsMock.getServer().takeRequest();
+        }
+
+        // Purging replaces the existing content, so everything is pushed again
+        assertThat(MainClass.testMain(args + " --purge")).isEqualTo(0);
+        RecordedRequest recordedRequest = cdsMock.getServer().takeRequest();
+        assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+        LocaleData.TxPostData parsedPostData = new Gson().fromJson(recordedRequest.getBody().readUtf8(),
+                LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("tx_test_key", "tx_plural_test_key").inOrder();
+        assertThat(parsedPostData.meta.purge).isTrue();
+    }
+
+    @Test
+    public void testPush_incrementalStream() throws InterruptedException {
+        // This test relies on having the following file:
+        // txsdk/src/test/res/values/strings.xml
+
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+        File manifestFile = new File(tempDirHelper.getFile(), "push-manifest.txt");
+        String args = String.format("-u %s push -t token -s secret --incremental --manifest %s -f %s",
+                cdsMock.getBaseUrl(), manifestFile.getPath(), "../txsdk/src/test/res/values/strings.xml");
+        assertThat(MainClass.testMain(args)).isEqualTo(0);
+        int requestCount = cdsMock.getServer().getRequestCount();
+        for (int i = 0; i < requestCount; i++) {
+            cdsMock.getServer().takeRequest();
+        }
+
+        // The strings have not changed, so an empty payload is streamed
+        assertThat(MainClass.testMain(args + " --stream")).isEqualTo(0);
+        RecordedRequest recordedRequest = cdsMock.getServer().takeRequest();
+        assertThat(recordedRequest.getMethod()).isEqualTo("POST");
+        LocaleData.TxPostData parsedPostData = new Gson().fromJson(recordedRequest.getBody().readUtf8(),
+                LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data).isEmpty();
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Creates a project with the "app" and "feature" modules in the temp directory
+    private File createMultiModuleProject() throws IOException {
+        File projectDir = tempDirHelper.getFile().getAbsoluteFile();
+        writeFile(MainClass.getStringFileForModule(projectDir, "app"),
+                "<resources>\n" +
+                        "    <string name=\"app_key\">App</string>\n" +
+                        "    <string name=\"common_key\">Common</string>\n" +
+                        "</resources>");
+        writeFile(MainClass.getStringFileForModule(projectDir, "feature"),
+                "<resources>\n" +
+                        "    <string name=\"feature_key\">Feature</string>\n" +
+                        "    <string name=\"common_key\">Common 2</string>\n" +
+                        "</resources>");
+        writeFile(Paths.get(projectDir.getPath(), "feature", "src", "main", "res", "values",
+                "strings_extra.xml").toFile(),
+                "<resources>\n" +
+                        "    <string name=\"extra_key\">Extra</string>\n" +
+                        "</resources>");
+        writeFile(Paths.get(projectDir.getPath(), "feature", "src", "main", "res", "values",
+                "colors.xml").toFile(),
+                "<resources/>");
+        writeFile(Paths.get(projectDir.getPath(), "feature", "src", "main", "res", "values-fr",
+                "strings.xml").toFile(),
+                "<resources>\n" +
+                        "    <string name=\"feature_key\">Fonctionnalité</string>\n" +
+                        "</resources>");
+        writeFile(Paths.get(projectDir.getPath(), "feature", "build", "src", "main", "res", "values",
+                "strings.xml").toFile(),
+                "<resources/>");
+        return projectDir;
+    }
+
+    @Test
+    public void testFindFiles_skipQualifiedValuesDirectories() throws IOException {
+        File projectDir = createMultiModuleProject();
+
+        List<File> files = MainClass.findFiles(projectDir, "*/src/main/res/values*/strings*.xml");
+
+        // The translations in "values-fr" are skipped
+        assertThat(files).containsExactly(
+                MainClass.getStringFileForModule(projectDir, "app"),
+                MainClass.getStringFileForModule(projectDir, "feature"),
+                Paths.get(projectDir.getPath(), "feature", "src", "main", "res", "values",
+                        "strings_extra.xml").toFile()).inOrder();
+    }
+
+    @Test
+    public void testPush_multipleModules() throws Exception {
+        File projectDir = createMultiModuleProject();
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        String userDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", projectDir.getPath());
+        int returnValue;
+        try {
+            String args = String.format("-u %s push -t token -s secret -m app feature -c 2",
+                    cdsMock.getBaseUrl());
+            returnValue = MainClass.testMain(args);
+        } finally {
+            System.setProperty("user.dir", userDir);
+        }
+
+        assertThat(returnValue).isEqualTo(0);
+        RecordedRequest recordedRequest = cdsMock.getServer().takeRequest();
+        LocaleData.TxPostData parsedPostData = new Gson().fromJson(recordedRequest.getBody().readUtf8(),
+                LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("app_key", "common_key",
+                "feature_key").inOrder();
+        assertThat(parsedPostData.data.get("common_key").string).isEqualTo("Common 2");
+    }
+
+    @Test
+    public void testPush_glob() throws Exception {
+        File projectDir = createMultiModuleProject();
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        String userDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", projectDir.getPath());
+        int returnValue;
+        try {
+            String args = String.format("-u %s push -t token -s secret -g %s", cdsMock.getBaseUrl(),
+                    "*/src/main/res/values/strings*.xml");
+            returnValue = MainClass.testMain(args);
+        } finally {
+            System.setProperty("user.dir", userDir);
+        }
+
+        assertThat(returnValue).isEqualTo(0);
+        RecordedRequest recordedRequest = cdsMock.getServer().takeRequest();
+        LocaleData.TxPostData parsedPostData = new Gson().fromJson(recordedRequest.getBody().readUtf8(),
+                LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("app_key", "common_key",
+                "feature_key", "extra_key").inOrder();
+    }
+
+    @Test
+    public void testPush_globWithoutMatches() throws Exception {
+        File projectDir = createMultiModuleProject();
+
+        String userDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", projectDir.getPath());
+        int returnValue;
+        try {
+            String args = String.format("-u %s push -t token -s secret -g %s", cdsMock.getBaseUrl(),
+                    "*/src/main/res/values*/plurals.xml");
+            returnValue = MainClass.testMain(args);
+        } finally {
+            System.setProperty("user.dir", userDir);
+        }
+
+        assertThat(returnValue).isEqualTo(1);
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(0);
+    }
+
     @Test
     public void testClear() {
         cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
@@ -189,6 +494,51 @@ public class MainClassTest {
         assertThat(esString).isEqualTo(CDSMockHelper.esBody);
     }
 
+    @Test
+    public void testPull_concurrency() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsConcurrentDispatcher());
+
+        String args = String.format("-u %s pull -t token -l el es -c 2 -d %s", cdsMock.getBaseUrl(), tempDirHelper.getFile().getPath());
+        int returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+
+        File elFile = Paths.get(tempDirHelper.getFile().getPath(), MainClass.OUT_DIR_NAME, "el", MainClass.OUT_FILE_NAME).toFile();
+        String elString = null;
+        try {
+            elString = Utils.readInputStream(new FileInputStream(elFile));
+        } catch (IOException ignored) {}
+        assertThat(elString).isEqualTo(CDSMockHelper.elBody);
+
+        File esFile = Paths.get(tempDirHelper.getFile().getPath(), MainClass.OUT_DIR_NAME, "es", MainClass.OUT_FILE_NAME).toFile();
+        String esString = null;
+        try {
+            esString = Utils.readInputStream(new FileInputStream(esFile));
+        } catch (IOException ignored) {}
+        assertThat(esString).isEqualTo(CDSMockHelper.esBody);
+    }
+
+    @Test
+    public void testPull_binary() throws IOException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsDispatcher());
+
+        String args = String.format("-u %s pull -t token -l el es -b -d %s", cdsMock.getBaseUrl(), tempDirHelper.getFile().getPath());
+        int returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+
+        File elBinaryFile = Paths.get(tempDirHelper.getFile().getPath(), MainClass.OUT_DIR_NAME, "el", MainClass.OUT_BINARY_FILE_NAME).toFile();
+        LocaleData.LocaleStrings elStrings = TranslationBundle.read(new FileInputStream(elBinaryFile));
+        assertThat(elStrings.get("test_key")).isEqualTo("Καλημέρα");
+
+        // A pull without the binary option removes the binary files
+        args = String.format("-u %s pull -t token -l el es -d %s", cdsMock.getBaseUrl(), tempDirHelper.getFile().getPath());
+        returnValue = MainClass.testMain(args);
+
+        assertThat(returnValue).isEqualTo(0);
+        assertThat(elBinaryFile.exists()).isFalse();
+    }
+
     @Test
     public void testPull_consecutiveRuns() {
         cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsDispatcher());
@@ -0,0 +1,127 @@
+package com.transifex.clitool;
+
+import com.transifex.common.LocaleData;
+import com.transifex.common.TempDirHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PushManifestTest {
+
+    private static final String HOST = "https://cds.example.com";
+
+    TempDirHelper tempDirHelper = null;
+
+    @Before
+    public void setUp() {
+        tempDirHelper = new TempDirHelper();
+        tempDirHelper.setUp();
+    }
+
+    @After
+    public void Teardown() {
+        if (tempDirHelper != null) {
+            tempDirHelper.tearDown();
+        }
+    }
+
+    private static LocaleData.StringInfo getStringInfo(String string, String... tags) {
+        LocaleData.StringInfo stringInfo = new LocaleData.StringInfo(string);
+        if (tags.length > 0) {
+            stringInfo.appendTags(new HashSet<>(Arrays.asList(tags)));
+        }
+        return stringInfo;
+    }
+
+    @Test
+    public void testStage_newString_returnTrue() {
+        PushManifest manifest = new PushManifest(HOST, "token");
+
+        assertThat(manifest.stage("key1", getStringInfo("text"))).isTrue();
+        assertThat(manifest.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testStage_committedString_returnFalse() {
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text", "tag1", "tag2"));
+        manifest.commit();
+
+        assertThat(manifest.size()).isEqualTo(1);
+        assertThat(manifest.stage("key1", getStringInfo("text", "tag2", "tag1"))).isFalse();
+    }
+
+    @Test
+    public void testStage_changedString_returnTrue() {
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text"));
+        manifest.commit();
+
+        assertThat(manifest.stage("key1", getStringInfo("text 2"))).isTrue();
+        assertThat(manifest.stage("key1", getStringInfo("text", "tag1"))).isTrue();
+    }
+
+    @Test
+    public void testStage_uncommittedString_returnTrue() {
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text"));
+
+        assertThat(manifest.stage("key1", getStringInfo("text"))).isTrue();
+    }
+
+    @Test
+    public void testClear_committedString_stageAgain() {
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text"));
+        manifest.commit();
+        manifest.clear();
+
+        assertThat(manifest.size()).isEqualTo(0);
+        assertThat(manifest.stage("key1", getStringInfo("text"))).isTrue();
+    }
+
+    @Test
+    public void testSaveLoad_sameProject_keepCommittedStrings() throws IOException {
+        File file = new File(tempDirHelper.getFile(), "dir/manifest.txt");
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text"));
+        manifest.stage("key2", getStringInfo("text 2"));
+        manifest.commit();
+        manifest.stage("key3", getStringInfo("text 3"));
+        manifest.save(file);
+
+        PushManifest loadedManifest = PushManifest.load(file, HOST, "token");
+
+        assertThat(loadedManifest.size()).isEqualTo(2);
+        assertThat(loadedManifest.stage("key1", getStringInfo("text"))).isFalse();
+        assertThat(loadedManifest.stage("key2", getStringInfo("text 2"))).isFalse();
+        assertThat(loadedManifest.stage("key3", getStringInfo("text 3"))).isTrue();
+    }
+
+    @Test
+    public void testLoad_otherProject_returnEmptyManifest() throws IOException {
+        File file = new File(tempDirHelper.getFile(), "manifest.txt");
+        PushManifest manifest = new PushManifest(HOST, "token");
+        manifest.stage("key1", getStringInfo("text"));
+        manifest.commit();
+        manifest.save(file);
+
+        assertThat(PushManifest.load(file, HOST, "other_token").size()).isEqualTo(0);
+        assertThat(PushManifest.load(file, "https://other.example.com", "token").size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLoad_missingFile_returnEmptyManifest() {
+        File file = new File(tempDirHelper.getFile(), "manifest.txt");
+
+        assertThat(PushManifest.load(file, HOST, "token").size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.transifex.clitool;
+
+import com.transifex.common.LocaleData;
+import com.transifex.common.TempDirHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+public class StringFilesParserTest {
+
+    private static final String stringsXML1 =
+            "<resources>\n" +
+                    "    <string name=\"key1\">Some text</string>\n" +
+                    "    <string name=\"key2\">Some text 2</string>\n" +
+                    "</resources>";
+    private static final String stringsXML2 =
+            "<resources>\n" +
+                    "    <string name=\"key3\">Some text 3</string>\n" +
+                    "    <string name=\"key2\">Some text 2</string>\n" +
+                    "</resources>";
+    private static final String stringsXML3 =
+            "<resources>\n" +
+                    "    <string name=\"key1\">Other text</string>\n" +
+                    "    <string name=\"key4\">Some text 4</string>\n" +
+                    "</resources>";
+    private static final String stringsXMLInvalid =
+            "<resource>\n" +
+                    "    <string name=\"key1\">Some text</string>\n" +
+                    "</resource>";
+
+    TempDirHelper tempDirHelper = null;
+    ForkJoinPool pool = null;
+
+    @Before
+    public void setUp() {
+        tempDirHelper = new TempDirHelper();
+        tempDirHelper.setUp();
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void Teardown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        if (tempDirHelper != null) {
+            tempDirHelper.tearDown();
+        }
+    }
+
+    private File writeFile(String name, String content) throws IOException {
+        File file = new File(tempDirHelper.getFile(), name);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testParse_manyFiles_mergeInFileOrder() throws Exception {
+        List<File> files = Arrays.asList(writeFile("1.xml", stringsXML1),
+                writeFile("2.xml", stringsXML2), writeFile("3.xml", stringsXML3));
+        StringFilesParser parser = new StringFilesParser(pool);
+
+        LinkedHashMap<String, LocaleData.StringInfo> stringMap = parser.parse(files);
+
+        assertThat(stringMap.keySet()).containsExactly("key1", "key2", "key3", "key4").inOrder();
+        assertThat(stringMap.get("key1").string).isEqualTo("Other text");
+        assertThat(stringMap.get("key2").string).isEqualTo("Some text 2");
+    }
+
+    @Test
+    public void testParse_manyFiles_sameResultAsSequentialParsing() throws Exception {
+        ArrayList<File> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String content = i % 3 == 0 ? stringsXML1 : (i % 3 == 1 ? stringsXML2 : stringsXML3);
+            files.add(writeFile("module" + i + "/strings.xml", content));
+        }
+        LinkedHashMap<String, LocaleData.StringInfo> expectedStringMap = new LinkedHashMap<>();
+        StringXMLConverter converter = new StringXMLConverter();
+        for (File file : files) {
+            converter.process(file, expectedStringMap);
+        }
+        StringFilesParser parser = new StringFilesParser(pool);
+
+        LinkedHashMap<String, LocaleData.StringInfo> stringMap = parser.parse(files);
+
+        assertThat(stringMap).containsExactlyEntriesIn(expectedStringMap).inOrder();
+    }
+
+    @Test
+    public void testParse_duplicateKeyWithDifferentValue_reportConflict() throws Exception {
+        File file1 = writeFile("1.xml", stringsXML1);
+        File file2 = writeFile("2.xml", stringsXML2);
+        File file3 = writeFile("3.xml", stringsXML3);
+        StringFilesParser parser = new StringFilesParser(pool);
+
+        parser.parse(Arrays.asList(file1, file2, file3));
+
+        // "key2" has the same value in both files, so it's not a conflict
+        assertThat(parser.getConflicts()).hasSize(1);
+        StringFilesParser.Conflict conflict = parser.getConflicts().get(0);
+        assertThat(conflict.key).isEqualTo("key1");
+        assertThat(conflict.file).isEqualTo(file1);
+        assertThat(conflict.overridingFile).isEqualTo(file3);
+    }
+
+    @Test
+    public void testParse_invalidFile_throwException() throws Exception {
+        File invalidFile = writeFile("2.xml", stringsXMLInvalid);
+        final List<File> files = Arrays.asList(writeFile("1.xml", stringsXML1), invalidFile,
+                writeFile("3.xml", stringsXMLInvalid));
+        final StringFilesParser parser = new StringFilesParser(pool);
+
+        StringFilesParser.ParseException exception = assertThrows(StringFilesParser.ParseException.class,
+                new ThrowingRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        parser.parse(files);
+                    }
+                });
+
+        assertThat(exception.file).isEqualTo(invalidFile);
+        assertThat(exception).hasCauseThat().isInstanceOf(StringXMLConverter.XMLConverterException.class);
+    }
+
+    @Test
+    public void testParse_missingFile_throwException() throws Exception {
+        File missingFile = new File(tempDirHelper.getFile(), "missing.xml");
+        final List<File> files = Arrays.asList(writeFile("1.xml", stringsXML1), missingFile);
+        final StringFilesParser parser = new StringFilesParser(pool);
+
+        StringFilesParser.ParseException exception = assertThrows(StringFilesParser.ParseException.class,
+                new ThrowingRunnable() {
+                    @Override
+                    public void run() throws Throwable {
+                        parser.parse(files);
+                    }
+                });
+
+        assertThat(exception.file).isEqualTo(missingFile);
+    }
+}
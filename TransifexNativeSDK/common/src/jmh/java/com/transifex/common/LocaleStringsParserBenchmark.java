@@ -0,0 +1,72 @@
+package com.transifex.common;
+
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a locale's translations with Gson's reflection-based binding against
+ * {@link LocaleStringsParser}.
+ * <p>
+ * Run with <code>./gradlew :common:jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocaleStringsParserBenchmark {
+
+    @Param({"20000"})
+    public int keyCount;
+
+    private final Gson mGson = new Gson();
+    private String mJson;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(keyCount * 80);
+        sb.append("{\"data\":{");
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("\"key_").append(i).append("\":{\"string\":\"Translation of string number ")
+                    .append(i).append(" with \\\"escaped\\\" text\"}");
+        }
+        sb.append("}}");
+        mJson = sb.toString();
+    }
+
+    @Benchmark
+    public LocaleData.LocaleStrings gson() {
+        LocaleData.TxPullResponseData data = mGson.fromJson(new StringReader(mJson),
+                LocaleData.TxPullResponseData.class);
+        return new LocaleData.LocaleStrings(data.data);
+    }
+
+    @Benchmark
+    public LocaleData.LocaleStrings streaming() throws IOException {
+        return LocaleStringsParser.parse(new StringReader(mJson), 0, false);
+    }
+
+    @Benchmark
+    public LocaleData.LocaleStrings streamingWithSizeHint() throws IOException {
+        return LocaleStringsParser.parse(new StringReader(mJson), keyCount, false);
+    }
+}
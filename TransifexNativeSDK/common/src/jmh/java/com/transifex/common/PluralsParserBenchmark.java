@@ -0,0 +1,80 @@
+package com.transifex.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link Plurals#fromICUString(String)} against the regular expression based parser it
+ * replaced, over a corpus of plural strings as they are served by CDS.
+ * <p>
+ * Run with <code>./gradlew :common:jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PluralsParserBenchmark {
+
+    private static final Pattern PATTERN = Pattern.compile("(zero|one|two|few|many|other)\\s*\\{([^}]*)\\}");
+
+    private static final String[] CORPUS = {
+            // en
+            "{cnt, plural, one {%d new message} other {%d new messages}}",
+            "{cnt, plural, one {You have <b>%1$d</b> unread notification} other {You have <b>%1$d</b> unread notifications}}",
+            "{cnt, plural, one {%d minute ago} other {%d minutes ago}}",
+            // el
+            "{cnt, plural, one {%d νέο μήνυμα} other {%d νέα μηνύματα}}",
+            // ru
+            "{cnt, plural, one {%d файл} few {%d файла} many {%d файлов} other {%d файла}}",
+            // pl
+            "{cnt, plural, one {%d komentarz} few {%d komentarze} many {%d komentarzy} other {%d komentarza}}",
+            // ar
+            "{cnt, plural, zero {لا توجد عناصر} one {عنصر واحد} two {عنصران} few {%d عناصر} many {%d عنصرًا} other {%d عنصر}}",
+            // sl
+            "{cnt, plural, one {%d dan} two {%d dneva} few {%d dnevi} other {%d dni}}",
+    };
+
+    /**
+     * The parser used before {@link Plurals#fromICUString(String)} was rewritten.
+     */
+    private static Plurals fromICUStringRegex(String icuString) {
+        Matcher matcher = PATTERN.matcher(icuString);
+        Plurals.Builder sb = new Plurals.Builder();
+        while (matcher.find()) {
+            sb.setPlural(matcher.group(1), matcher.group(2));
+        }
+        try {
+            return sb.buildString();
+        } catch (Plurals.InvalidPluralsConfiguration e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        for (String icuString : CORPUS) {
+            blackhole.consume(fromICUStringRegex(icuString));
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String icuString : CORPUS) {
+            blackhole.consume(Plurals.fromICUString(icuString));
+        }
+    }
+}
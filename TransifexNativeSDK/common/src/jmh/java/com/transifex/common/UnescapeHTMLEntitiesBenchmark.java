@@ -0,0 +1,55 @@
+package com.transifex.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Utils#unescapeHTMLEntities(String)} against the chained
+ * <code>String.replace()</code> calls it replaced, for a typical translated string with and
+ * without entities.
+ * <p>
+ * Run with <code>./gradlew :common:jmh</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnescapeHTMLEntitiesBenchmark {
+
+    @Param({"false", "true"})
+    public boolean withEntities;
+
+    private String mString;
+
+    @Setup
+    public void setUp() {
+        mString = withEntities
+                ? "You have &lt;b&gt;3 new messages&lt;/b&gt; from Tom &amp; Jerry"
+                : "You have 3 new messages from Tom and Jerry, tap here to read them";
+    }
+
+    @Benchmark
+    public String chainedReplace() {
+        return mString.replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return Utils.unescapeHTMLEntities(mString);
+    }
+}
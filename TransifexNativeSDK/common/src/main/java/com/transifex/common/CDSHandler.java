@@ -2,15 +2,19 @@ package com.transifex.common;
 
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 
 import net.moznion.uribuildertiny.URIBuilderTiny;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
@@ -20,9 +24,30 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
 
 import javax.naming.TimeLimitExceededException;
 
@@ -36,10 +61,20 @@ public class CDSHandler {
 
     public static final String CDS_HOST = "https://cds.svc.transifex.net";
 
+    /**
+     * The default timeout in milliseconds for establishing a connection to CDS.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 15 * 1000;
+
+    /**
+     * The default timeout in milliseconds for reading data from CDS.
+     */
+    public static final int DEFAULT_READ_TIMEOUT_MILLIS = 30 * 1000;
+
     private static final String TAG = CDSHandler.class.getSimpleName();
-    private static final Logger LOGGER = Logger.getLogger(TAG);
 
-    private static final int MAX_RETRIES = 20;
+    private static final long FETCH_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final Logger LOGGER = Logger.getLogger(TAG);
 
     // A list of locale codes for the configured languages in the application
     private final String[] mLocaleCodes;
@@ -55,13 +90,34 @@ public class CDSHandler {
 
     private final Gson mGson;
 
+    // The maximum number of locales that are fetched at the same time
+    private volatile int mMaxConcurrentFetches = 1;
+
+    // The worker threads of concurrent fetches. Created on first use and reused by later fetches.
+    // Guarded by "this"
+    private ThreadPoolExecutor mFetchExecutor;
+
+    // Decides when requests whose result is not ready yet are retried
+    private volatile RetryPolicy mRetryPolicy = new ExponentialBackoffRetryPolicy();
+
+    // Whether push requests are sent using chunked transfer encoding
+    private volatile boolean mChunkedStreamingEnabled;
+
+    // Whether the payload of push requests is compressed using gzip
+    private volatile boolean mGzipEnabled;
+
+    private volatile int mConnectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private volatile int mReadTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+
     /**
-     * Class that contains the result of {@link #getConnectionForLocale(URI, String, Set)}
+     * Class that contains the result of {@link #getConnectionForLocale(URI, String, Set, String, FetchHandle)}
      */
     private static class ConnectionData {
         HttpURLConnection connection;
         InputStream inputStream;
         Exception exception;
+        String etag;
+        boolean notModified;
 
         public ConnectionData(HttpURLConnection connection, InputStream inputStream, Exception exception) {
             this.connection = connection;
@@ -70,8 +126,30 @@ public class CDSHandler {
         }
     }
 
+    /**
+     * Class that contains the downloaded response of a locale, when locales are fetched
+     * concurrently.
+     */
+    private static class FetchResult {
+        final String localeCode;
+        final InputStream inputStream;
+        final Exception exception;
+        String etag;
+        boolean notModified;
+
+        public FetchResult(@NonNull String localeCode, @Nullable InputStream inputStream, @Nullable Exception exception) {
+            this.localeCode = localeCode;
+            this.inputStream = inputStream;
+            this.exception = exception;
+        }
+    }
+
     /**
      * The callback to get the results of {@link #fetchTranslations(String, Set, FetchCallback)}
+     * <p>
+     * The callback methods are always called on the thread that called
+     * {@link #fetchTranslations(String, Set, FetchCallback)}, one at a time, even if the locales
+     * are fetched concurrently.
      */
     public interface FetchCallback {
 
@@ -97,6 +175,80 @@ public class CDSHandler {
         void onFailure(@NonNull Exception exception);
     }
 
+    /**
+     * Writes source strings to the payload of a push request.
+     *
+     * @see SourceStringsProducer
+     */
+    public interface SourceStringsWriter {
+
+        /**
+         * Writes a source string to the payload. Each key should be written once.
+         *
+         * @throws IOException If the string can't be written to the connection.
+         */
+        void write(@NonNull String key, @NonNull LocaleData.StringInfo stringInfo) throws IOException;
+    }
+
+    /**
+     * Produces the source strings of a push request, so that they can be streamed to CDS without
+     * holding all of them in memory.
+     *
+     * @see #pushSourceStrings(SourceStringsProducer, LocaleData.TxPostData.Meta)
+     */
+    public interface SourceStringsProducer {
+
+        /**
+         * Writes the source strings to the provided writer.
+         * <p>
+         * The method is called once, while the connection to CDS is open. If it throws an
+         * exception, the push is aborted.
+         *
+         * @throws IOException If the strings can't be produced or written.
+         */
+        void writeSourceStrings(@NonNull SourceStringsWriter writer) throws IOException;
+    }
+
+    /**
+     * A {@link FetchCallback} that supports conditional requests using ETags.
+     * <p>
+     * Before fetching a locale, {@link #getETag(String)} is called. If it returns an ETag, it's
+     * sent to CDS using the <code>If-None-Match</code> header. If the content has not changed,
+     * CDS responds with 304 and {@link #onTranslationNotModified(String)} is called instead of
+     * downloading the content again.
+     * <p>
+     * For locales that are downloaded,
+     * {@link #onTranslationFetched(InputStream, String, String, Exception)} is called instead of
+     * {@link FetchCallback#onTranslationFetched(InputStream, String, Exception)}.
+     */
+    public interface ConditionalFetchCallback extends FetchCallback {
+
+        /**
+         * Returns the ETag of the content that the implementation already has for the provided
+         * locale or <code>null</code> if there is no content.
+         */
+        @Nullable String getETag(@NonNull String localeCode);
+
+        /**
+         * Called for each locale when a connection with the CDS is established. The implementation
+         * should consume the provided input stream.
+         * <p>
+         * If an error occurs when establishing the connection, the <code>exception</code> will be
+         * supplied and the input stream will be <code>null</code>.
+         *
+         * @param etag The ETag of the fetched content or <code>null</code> if CDS did not
+         *             provide one.
+         */
+        void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode,
+                                  @Nullable String etag, @Nullable Exception exception);
+
+        /**
+         * Called for each locale whose content has not changed since the ETag returned by
+         * {@link #getETag(String)}.
+         */
+        void onTranslationNotModified(@NonNull String localeCode);
+    }
+
     /**
      * Creates a CDSHandler instance.
      *
@@ -116,6 +268,227 @@ public class CDSHandler {
         mGson = new Gson();
     }
 
+    /**
+     * Sets the maximum number of locales that can be fetched from CDS at the same time when
+     * {@link #fetchTranslations(String, Set, FetchCallback)} is called. By default, locales are
+     * fetched one after the other.
+     * <p>
+     * When more than one locale is fetched at the same time, each locale's response is downloaded
+     * in memory by a worker thread before being provided to the
+     * {@link FetchCallback#onTranslationFetched(InputStream, String, Exception)} callback in the
+     * order that the downloads complete.
+     *
+     * @param maxConcurrentFetches The maximum number of concurrent fetches. Set to <code>1</code>
+     *                             to fetch the locales sequentially.
+     *
+     * @throws IllegalArgumentException if <code>maxConcurrentFetches</code> is less than 1.
+     */
+    public void setMaxConcurrentFetches(int maxConcurrentFetches) {
+        if (maxConcurrentFetches < 1) {
+            throw new IllegalArgumentException("maxConcurrentFetches should be at least 1");
+        }
+        mMaxConcurrentFetches = maxConcurrentFetches;
+    }
+
+    /**
+     * Returns the maximum number of locales that can be fetched from CDS at the same time.
+     *
+     * @see #setMaxConcurrentFetches(int)
+     */
+    public int getMaxConcurrentFetches() {
+        return mMaxConcurrentFetches;
+    }
+
+    /**
+     * Sets the timeout for establishing a connection to CDS. By default,
+     * {@link #DEFAULT_CONNECT_TIMEOUT_MILLIS} is used.
+     *
+     * @param connectTimeoutMillis The timeout in milliseconds; 0 means no timeout.
+     *
+     * @throws IllegalArgumentException if the timeout is negative.
+     *
+     * @see HttpURLConnection#setConnectTimeout(int)
+     */
+    public void setConnectTimeout(int connectTimeoutMillis) {
+        if (connectTimeoutMillis < 0) {
+            throw new IllegalArgumentException("connectTimeoutMillis should not be negative");
+        }
+        mConnectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * Returns the timeout in milliseconds for establishing a connection to CDS.
+     *
+     * @see #setConnectTimeout(int)
+     */
+    public int getConnectTimeout() {
+        return mConnectTimeoutMillis;
+    }
+
+    /**
+     * Sets the timeout for reading data from CDS: a request fails if no data arrives for that
+     * long. By default, {@link #DEFAULT_READ_TIMEOUT_MILLIS} is used.
+     *
+     * @param readTimeoutMillis The timeout in milliseconds; 0 means no timeout.
+     *
+     * @throws IllegalArgumentException if the timeout is negative.
+     *
+     * @see HttpURLConnection#setReadTimeout(int)
+     */
+    public void setReadTimeout(int readTimeoutMillis) {
+        if (readTimeoutMillis < 0) {
+            throw new IllegalArgumentException("readTimeoutMillis should not be negative");
+        }
+        mReadTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Returns the timeout in milliseconds for reading data from CDS.
+     *
+     * @see #setReadTimeout(int)
+     */
+    public int getReadTimeout() {
+        return mReadTimeoutMillis;
+    }
+
+    /**
+     * Sets whether the payload of push requests is sent using chunked transfer encoding.
+     * <p>
+     * By default, the payload is buffered in memory, so that its length can be sent before it.
+     * When chunked transfer encoding is enabled, the payload is sent while it's being written,
+     * so that memory usage stays flat regardless of the number of source strings. In that case,
+     * if a {@link SourceStringsProducer} fails, part of the payload will have been sent. The
+     * payload is not valid JSON, so CDS rejects it.
+     *
+     * @param enabled <code>true</code> to use chunked transfer encoding.
+     */
+    public void setChunkedStreamingEnabled(boolean enabled) {
+        mChunkedStreamingEnabled = enabled;
+    }
+
+    /**
+     * Returns whether the payload of push requests is sent using chunked transfer encoding.
+     *
+     * @see #setChunkedStreamingEnabled(boolean)
+     */
+    public boolean isChunkedStreamingEnabled() {
+        return mChunkedStreamingEnabled;
+    }
+
+    /**
+     * Sets whether the payload of push requests is compressed using gzip. The compressed payload
+     * is sent with the <code>Content-Encoding: gzip</code> header.
+     * <p>
+     * Source strings compress well, so enabling compression reduces the upload time of large
+     * pushes on slow connections. The payload is compressed while it's being written, so
+     * compression can be combined with {@link #setChunkedStreamingEnabled(boolean) chunked
+     * streaming}.
+     *
+     * @param enabled <code>true</code> to compress the payload.
+     */
+    public void setGzipEnabled(boolean enabled) {
+        mGzipEnabled = enabled;
+    }
+
+    /**
+     * Returns whether the payload of push requests is compressed using gzip.
+     *
+     * @see #setGzipEnabled(boolean)
+     */
+    public boolean isGzipEnabled() {
+        return mGzipEnabled;
+    }
+
+    /**
+     * Sets the policy that decides whether and when to retry requests whose result is not ready
+     * yet: translation requests that CDS answers with <code>202 Accepted</code> while it prepares
+     * the content, and job status requests for pushed source strings that are still being
+     * processed.
+     * <p>
+     * By default, an {@link ExponentialBackoffRetryPolicy} with the default values is used.
+     *
+     * @param retryPolicy The retry policy.
+     */
+    public void setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+        mRetryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the retry policy.
+     *
+     * @see #setRetryPolicy(RetryPolicy)
+     */
+    public @NonNull RetryPolicy getRetryPolicy() {
+        return mRetryPolicy;
+    }
+
+    /**
+     * Waits before retrying a request, as decided by the retry policy.
+     *
+     * @param connection The connection of the last attempt. Its <code>Retry-After</code> header is
+     *                   passed to the retry policy.
+     * @param retryCount The number of retries made so far.
+     * @param startTimeMillis The time that the first attempt started, as returned by
+     *                        {@link System#nanoTime()} in milliseconds.
+     * @param handle An optional handle that cancels the wait.
+     *
+     * @return <code>true</code> if the request should be retried, <code>false</code> if the retry
+     * policy gave up, the operation was cancelled or the thread was interrupted while waiting.
+     */
+    private boolean waitForRetry(@NonNull HttpURLConnection connection, int retryCount,
+                                 long startTimeMillis, @Nullable FetchHandle handle) {
+        long nowMillis = System.nanoTime() / 1000000;
+        long retryAfterMillis = parseRetryAfter(connection.getHeaderField("Retry-After"),
+                System.currentTimeMillis());
+        long delayMillis = mRetryPolicy.getRetryDelayMillis(retryCount,
+                nowMillis - startTimeMillis, retryAfterMillis);
+        if (delayMillis == RetryPolicy.STOP) {
+            return false;
+        }
+        if (delayMillis > 0) {
+            try {
+                if (handle != null) {
+                    return handle.sleep(delayMillis);
+                }
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the value of a <code>Retry-After</code> header, which is either a number of seconds
+     * or an HTTP date.
+     *
+     * @param value The header value or <code>null</code> if the header is missing.
+     * @param nowMillis The current time, used to convert a date to a delay.
+     *
+     * @return The delay in milliseconds or -1 if the value is missing or invalid.
+     */
+    static long parseRetryAfter(@Nullable String value, long nowMillis) {
+        if (value == null) {
+            return -1;
+        }
+        value = value.trim();
+        try {
+            long seconds = Long.parseLong(value);
+            return (seconds >= 0 && seconds < Long.MAX_VALUE / 1000) ? seconds * 1000 : -1;
+        } catch (NumberFormatException ignored) {
+        }
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            Date date = dateFormat.parse(value);
+            return Math.max(0, date.getTime() - nowMillis);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
     /**
      * Establishes a connection to CDS for the specified locale and returns a
      * {@link ConnectionData} object containing the connection and its input stream.
@@ -125,13 +498,21 @@ public class CDSHandler {
      * <p>
      * If the connection fails, the  input stream will be <code>null</code> and the exception will
      * contain the reason. The connection may not be <code>null</code>.
+     * <p>
+     * If an <code>etag</code> is provided and the content has not changed, the input stream will
+     * be <code>null</code> and <code>notModified</code> will be set.
+     * <p>
+     * If a <code>handle</code> is provided, the returned connection is registered to it, so that
+     * it's aborted if the operation is cancelled. The caller should unregister it when done. If
+     * the operation is cancelled, the exception will be a {@link CancellationException}.
      *
      * @return A {@link ConnectionData} object containing the connection and it's input
      * stream.
      */
     private @NonNull
     ConnectionData getConnectionForLocale(@NonNull URI cdsContentURI, @NonNull String localeCode,
-                                          @Nullable Set<String> tags) {
+                                          @Nullable Set<String> tags, @Nullable String etag,
+                                          @Nullable FetchHandle handle) {
         URL url = null;
         try {
             URIBuilderTiny uriBuilder  = new URIBuilderTiny(cdsContentURI).appendPaths(localeCode);
@@ -160,15 +541,19 @@ public class CDSHandler {
         }
 
         HttpURLConnection connection = null;
+        long startTimeMillis = System.nanoTime() / 1000000;
 
-        for (int tries = 0; tries < MAX_RETRIES; tries++) {
+        for (int retries = 0; ; retries++) {
             try {
-                connection = (HttpURLConnection) url.openConnection();
+                connection = openConnection(url);
             } catch (IOException e) {
                 LOGGER.log(Level.SEVERE, "IOException when opening connection for locale " + localeCode + " : " + e);
                 return new ConnectionData(null, null, e);
             }
-            addHeaders(connection, false, null);
+            if (handle != null && !handle.addConnection(connection)) {
+                return getCancelledConnectionData(null, localeCode);
+            }
+            addHeaders(connection, false, etag);
 
             try {
                 connection.connect();
@@ -176,16 +561,42 @@ public class CDSHandler {
                 switch (code) {
                     case 200: {
                         InputStream inputStream = connection.getInputStream();
-                        return new ConnectionData(connection, inputStream, null);
+                        ConnectionData connectionData = new ConnectionData(connection, inputStream, null);
+                        connectionData.etag = connection.getHeaderField("ETag");
+                        return connectionData;
                     }
                     case 202:
-                        // try one more time
-                        continue;
+                        // The content is being prepared: try again later
+                        discardResponse(connection);
+                        if (handle != null) {
+                            handle.removeConnection(connection);
+                        }
+                        if (waitForRetry(connection, retries, startTimeMillis, handle)) {
+                            continue;
+                        }
+                        if (handle != null && handle.isCancelled()) {
+                            return getCancelledConnectionData(connection, localeCode);
+                        }
+                        // max tries reached
+                        return new ConnectionData(connection, null, new IOException("Max retries reached"));
+                    case 304:
+                        if (etag != null) {
+                            ConnectionData connectionData = new ConnectionData(connection, null, null);
+                            connectionData.notModified = true;
+                            return connectionData;
+                        }
+                        // Not expected without an ETag: handle it as an error
+                        LOGGER.log(Level.SEVERE, "Server responded with code 304 without a conditional request for locale " + localeCode);
+                        return new ConnectionData(connection, null, new IOException("Server responded with " + code));
                     default:
                         LOGGER.log(Level.SEVERE, "Server responded with code " + code + " for locale " + localeCode);
                         return new ConnectionData(connection, null, new IOException("Server responded with " + code));
                 }
             } catch (IOException e) {
+                if (handle != null && handle.isCancelled()) {
+                    // The connection was aborted
+                    return getCancelledConnectionData(connection, localeCode);
+                }
                 LOGGER.log(Level.SEVERE, "IOException for locale " + localeCode + " : " + e);
 
                 // https://docs.oracle.com/javase/6/docs/technotes/guides/net/http-keepalive.html
@@ -198,9 +609,25 @@ public class CDSHandler {
                 return new ConnectionData(connection, null, e);
             }
         }
+    }
+
+    private static @NonNull ConnectionData getCancelledConnectionData(
+            @Nullable HttpURLConnection connection, @NonNull String localeCode) {
+        LOGGER.log(Level.INFO, "Fetching cancelled for locale " + localeCode);
+        return new ConnectionData(connection, null, new CancellationException("Fetching cancelled"));
+    }
 
-        // max tries reached
-        return new ConnectionData(connection, null, new IOException("Max retries reached"));
+    /**
+     * Reads and closes the body of a response that is not needed, so that the connection can be
+     * reused.
+     */
+    private static void discardResponse(@NonNull HttpURLConnection connection) {
+        try {
+            InputStream inputStream = connection.getInputStream();
+            if (inputStream != null) {
+                Utils.readInputStream(inputStream);
+            }
+        } catch (IOException ignored) {}
     }
 
     /**
@@ -219,6 +646,28 @@ public class CDSHandler {
      */
     public void fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags,
                                   @NonNull FetchCallback callback) {
+        fetchTranslations(localeCode, tags, callback, null);
+    }
+
+    /**
+     * Fetches translations from CDS and supplies the raw input stream to the provided
+     * {@link FetchCallback}. The operation can be cancelled using the provided handle.
+     * <p>
+     * The method is synchronous and hence the callback is called during the method execution. The
+     * method should only run in a background thread.
+     *
+     * @param localeCode An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                   it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param handle An optional handle that can be used to cancel the operation from another
+     *               thread.
+     *
+     * @see FetchCallback
+     * @see FetchHandle
+     */
+    public void fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags,
+                                  @NonNull FetchCallback callback, @Nullable FetchHandle handle) {
         String[] fetchLocalCodes = (localeCode != null) ? new String[]{localeCode} : mLocaleCodes;
         if (fetchLocalCodes == null) {
             return;
@@ -238,13 +687,34 @@ public class CDSHandler {
 
         callback.onFetchingTranslations(fetchLocalCodes);
 
+        // Get the ETags of the existing content, if supported by the callback
+        String[] etags = new String[fetchLocalCodes.length];
+        if (callback instanceof ConditionalFetchCallback) {
+            for (int i = 0; i < fetchLocalCodes.length; i++) {
+                etags[i] = ((ConditionalFetchCallback) callback).getETag(fetchLocalCodes[i]);
+            }
+        }
+
+        int maxConcurrentFetches = Math.min(mMaxConcurrentFetches, fetchLocalCodes.length);
+        if (maxConcurrentFetches > 1) {
+            fetchTranslationsConcurrently(cdsContentURI, fetchLocalCodes, etags, tags, maxConcurrentFetches,
+                    callback, handle);
+            return;
+        }
+
         // For each locale
         HttpURLConnection lastConnection = null;
-        for (String fetchLocalCode : fetchLocalCodes) {
-            ConnectionData connectionData = getConnectionForLocale(cdsContentURI, fetchLocalCode, tags);
-            callback.onTranslationFetched(connectionData.inputStream, fetchLocalCode, connectionData.exception);
+        for (int i = 0; i < fetchLocalCodes.length; i++) {
+            String fetchLocalCode = fetchLocalCodes[i];
+            ConnectionData connectionData = getConnectionForLocale(cdsContentURI, fetchLocalCode, tags,
+                    etags[i], handle);
+            notifyCallback(callback, fetchLocalCode, connectionData.inputStream,
+                    connectionData.etag, connectionData.notModified, connectionData.exception);
 
             if (connectionData.connection != null) {
+                if (handle != null) {
+                    handle.removeConnection(connectionData.connection);
+                }
                 lastConnection = connectionData.connection;
             }
         }
@@ -255,39 +725,256 @@ public class CDSHandler {
         }
     }
 
+    /**
+     * Fetches the provided locales using up to <code>maxConcurrentFetches</code> worker threads.
+     * <p>
+     * Each worker downloads a locale's response in memory, so that the connection can be released.
+     * The callback is called on the current thread for each downloaded locale, in the order that
+     * the downloads complete.
+     */
+    private void fetchTranslationsConcurrently(@NonNull final URI cdsContentURI,
+                                               @NonNull String[] localeCodes,
+                                               @NonNull String[] etags,
+                                               @Nullable final Set<String> tags,
+                                               int maxConcurrentFetches,
+                                               @NonNull FetchCallback callback,
+                                               @Nullable final FetchHandle handle) {
+        final BlockingQueue<FetchResult> results = new LinkedBlockingQueue<>();
+        ExecutorService executor = getFetchExecutor(maxConcurrentFetches);
+        ArrayList<Future<?>> futures = new ArrayList<>(localeCodes.length);
+        // The locales whose result has not been provided to the callback yet
+        LinkedHashSet<String> pendingLocaleCodes = new LinkedHashSet<>(Arrays.asList(localeCodes));
+
+        try {
+            for (int i = 0; i < localeCodes.length; i++) {
+                final String localeCode = localeCodes[i];
+                final String etag = etags[i];
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        FetchResult result;
+                        try {
+                            result = downloadLocale(cdsContentURI, localeCode, tags, etag, handle);
+                        } catch (Throwable t) {
+                            // Always provide a result, so that the calling thread does not wait
+                            // forever
+                            LOGGER.log(Level.SEVERE, "Error when fetching locale " + localeCode + " : " + t);
+                            result = new FetchResult(localeCode, null, new ExecutionException(t));
+                        }
+                        results.add(result);
+                    }
+                }));
+            }
+
+            for (int i = 0; i < localeCodes.length; i++) {
+                FetchResult result = results.take();
+                pendingLocaleCodes.remove(result.localeCode);
+                notifyCallback(callback, result.localeCode, result.inputStream, result.etag,
+                        result.notModified, result.exception);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.SEVERE, "Interrupted while fetching translations");
+            // Report the locales that will not be fetched, as when the fetch is cancelled
+            for (String localeCode : pendingLocaleCodes) {
+                notifyCallback(callback, localeCode, null, null, false,
+                        new CancellationException("Fetching interrupted"));
+            }
+            Thread.currentThread().interrupt();
+        } finally {
+            // Stop the downloads whose result is no longer needed
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the executor that runs concurrent fetches, creating it or adjusting its size to the
+     * provided number of threads.
+     * <p>
+     * Idle threads are terminated after a while, so the executor does not need to be shut down.
+     */
+    private synchronized @NonNull ExecutorService getFetchExecutor(int threadCount) {
+        if (mFetchExecutor == null) {
+            mFetchExecutor = new ThreadPoolExecutor(threadCount, threadCount,
+                    FETCH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger mThreadCount = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(@NonNull Runnable runnable) {
+                            Thread thread = new Thread(runnable,
+                                    TAG + "-fetch-" + mThreadCount.incrementAndGet());
+                            // Don't keep the JVM alive for idle fetch threads
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            mFetchExecutor.allowCoreThreadTimeOut(true);
+        }
+        else if (threadCount > mFetchExecutor.getMaximumPoolSize()) {
+            mFetchExecutor.setMaximumPoolSize(threadCount);
+            mFetchExecutor.setCorePoolSize(threadCount);
+        }
+        else if (threadCount < mFetchExecutor.getMaximumPoolSize()) {
+            mFetchExecutor.setCorePoolSize(threadCount);
+            mFetchExecutor.setMaximumPoolSize(threadCount);
+        }
+        return mFetchExecutor;
+    }
+
+    /**
+     * Establishes a connection to CDS for the specified locale and downloads the response in
+     * memory.
+     *
+     * @return A {@link FetchResult} object containing an input stream of the downloaded response
+     * or the exception that occurred.
+     */
+    private @NonNull
+    FetchResult downloadLocale(@NonNull URI cdsContentURI, @NonNull String localeCode,
+                               @Nullable Set<String> tags, @Nullable String etag,
+                               @Nullable FetchHandle handle) {
+        ConnectionData connectionData = getConnectionForLocale(cdsContentURI, localeCode, tags, etag, handle);
+        try {
+            if (connectionData.inputStream == null) {
+                FetchResult result = new FetchResult(localeCode, null, connectionData.exception);
+                result.notModified = connectionData.notModified;
+                return result;
+            }
+
+            try {
+                byte[] response = Utils.readInputStreamToBytes(connectionData.inputStream);
+                FetchResult result = new FetchResult(localeCode, new ByteArrayInputStream(response), null);
+                result.etag = connectionData.etag;
+                return result;
+            } catch (IOException e) {
+                if (handle != null && handle.isCancelled()) {
+                    // The connection was aborted
+                    return new FetchResult(localeCode, null,
+                            getCancelledConnectionData(null, localeCode).exception);
+                }
+                LOGGER.log(Level.SEVERE, "IOException when reading response for locale " + localeCode + " : " + e);
+                return new FetchResult(localeCode, null, e);
+            }
+        } finally {
+            if (connectionData.connection != null) {
+                if (handle != null) {
+                    handle.removeConnection(connectionData.connection);
+                }
+                connectionData.connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Calls the appropriate method of the provided callback for a locale's result.
+     */
+    private static void notifyCallback(@NonNull FetchCallback callback, @NonNull String localeCode,
+                                       @Nullable InputStream inputStream, @Nullable String etag,
+                                       boolean notModified, @Nullable Exception exception) {
+        if (callback instanceof ConditionalFetchCallback) {
+            ConditionalFetchCallback conditionalCallback = (ConditionalFetchCallback) callback;
+            if (notModified) {
+                conditionalCallback.onTranslationNotModified(localeCode);
+            }
+            else {
+                conditionalCallback.onTranslationFetched(inputStream, localeCode, etag, exception);
+            }
+        }
+        else {
+            callback.onTranslationFetched(inputStream, localeCode, exception);
+        }
+    }
+
     /**
      * An {@link FetchCallback} implementation that parses the provided input streams to
-     * {@link LocaleData.TxPostResponseData} objects.
+     * {@link LocaleData.LocaleStrings} objects using {@link LocaleStringsParser}.
      * <p>
      * Each parsed object populates a {@link LocaleData.TranslationMap}, which will contain the
      * translations for all parsed locales.
+     * <p>
+     * If existing translations or ETags are provided, the ETags are used to make conditional
+     * requests. The locales that have not changed are added to {@link #notModifiedLocales}. If
+     * existing translations are provided, the existing {@link LocaleData.LocaleStrings} object of
+     * such a locale is also added to the resulting map as is.
      */
-    private class ParseFetchedTranslationsCallback implements FetchCallback {
+    private class ParseFetchedTranslationsCallback implements ConditionalFetchCallback {
+
+        final LocaleData.TranslationMap existingTranslations;
+        final Map<String, String> existingETags;
 
         LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(0);
+        final Set<String> notModifiedLocales = new HashSet<>();
+
+        ParseFetchedTranslationsCallback(@Nullable LocaleData.TranslationMap existingTranslations) {
+            this.existingTranslations = existingTranslations;
+            this.existingETags = null;
+        }
+
+        ParseFetchedTranslationsCallback(@NonNull Map<String, String> existingETags) {
+            this.existingTranslations = null;
+            this.existingETags = existingETags;
+        }
 
         @Override
         public void onFetchingTranslations(@NonNull String[] localeCodes) {
             translationMap = new LocaleData.TranslationMap(localeCodes.length);
         }
 
+        @Nullable
+        @Override
+        public String getETag(@NonNull String localeCode) {
+            if (existingETags != null) {
+                return existingETags.get(localeCode);
+            }
+            if (existingTranslations == null) {
+                return null;
+            }
+            LocaleData.LocaleStrings localeStrings = existingTranslations.get(localeCode);
+            return (localeStrings != null) ? localeStrings.getETag() : null;
+        }
+
+        @Override
+        public void onTranslationNotModified(@NonNull String localeCode) {
+            notModifiedLocales.add(localeCode);
+            if (existingTranslations == null) {
+                return;
+            }
+            LocaleData.LocaleStrings localeStrings = existingTranslations.get(localeCode);
+            if (localeStrings != null) {
+                translationMap.put(localeCode, localeStrings);
+            }
+        }
+
         @Override
         public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode,
                                          @Nullable Exception exception) {
+            onTranslationFetched(inputStream, localeCode, null, exception);
+        }
+
+        @Override
+        public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode,
+                                         @Nullable String etag, @Nullable Exception exception) {
             if (inputStream == null) {
                 return;
             }
 
-            // Parse input stream with Gson
-            LocaleData.TxPullResponseData responseData = null;
+            // Parse input stream
+            LocaleData.LocaleStrings localeStrings = null;
             Reader reader = null;
             try {
                 reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
-                responseData = mGson.fromJson(reader, LocaleData.TxPullResponseData.class);
+                // Use the size of the existing strings as a hint
+                LocaleData.LocaleStrings existingStrings = (existingTranslations != null)
+                        ? existingTranslations.get(localeCode) : null;
+                int expectedSize = (existingStrings != null) ? existingStrings.getMap().size() : 0;
+                localeStrings = LocaleStringsParser.parse(reader, expectedSize, false);
             } catch (JsonSyntaxException e) {
                 LOGGER.log(Level.SEVERE, "Could not parse JSON response to object for locale " + localeCode);
             } catch (UnsupportedEncodingException e) {
                 LOGGER.log(Level.SEVERE, "Server responded with unsupported encoding for locale " + localeCode);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "IOException when reading response for locale " + localeCode + " : " + e);
             } finally {
                 try {
                     if (reader != null) {
@@ -299,11 +986,12 @@ public class CDSHandler {
                 } catch (IOException ignored) {}
             }
 
-            if (responseData == null) {
+            if (localeStrings == null) {
                 return;
             }
 
-            translationMap.put(localeCode, new LocaleData.LocaleStrings(responseData.data));
+            localeStrings.setETag(etag);
+            translationMap.put(localeCode, localeStrings);
         }
 
         @Override
@@ -325,12 +1013,107 @@ public class CDSHandler {
      */
     @NonNull
     public LocaleData.TranslationMap fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags) {
-        ParseFetchedTranslationsCallback fetchTranslationsCallback = new ParseFetchedTranslationsCallback();
-        fetchTranslations(localeCode, tags, fetchTranslationsCallback);
+        return fetchTranslations(localeCode, tags, (LocaleData.TranslationMap) null);
+    }
+
+    /**
+     * Fetches translations from CDS, skipping the download of locales that have not changed.
+     * <p>
+     * For each locale of <code>existingTranslations</code> that has an
+     * {@link LocaleData.LocaleStrings#getETag() ETag}, a conditional request is made. If the
+     * content has not changed, the existing {@link LocaleData.LocaleStrings} object is added to
+     * the returned map, without downloading or parsing it again.
+     * <p>
+     * The method is synchronous and should only run in a background thread.
+     *
+     * @param localeCode  An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                    it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param existingTranslations The translations that are already available, if any. The object
+     *                             is not altered.
+     *
+     * @return A {@link LocaleData.TranslationMap} object that contains the translations for each
+     * locale. If an error occurs, some or all locales will be missing from the translation map.
+     */
+    @NonNull
+    public LocaleData.TranslationMap fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags,
+                                                       @Nullable LocaleData.TranslationMap existingTranslations) {
+        return fetchTranslations(localeCode, tags, existingTranslations, null);
+    }
+
+    /**
+     * Fetches translations from CDS, skipping the download of locales that have not changed. The
+     * operation can be cancelled using the provided handle.
+     * <p>
+     * The method is synchronous and should only run in a background thread.
+     *
+     * @param localeCode  An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                    it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param existingTranslations The translations that are already available, if any. The object
+     *                             is not altered.
+     * @param handle An optional handle that can be used to cancel the operation from another
+     *               thread.
+     *
+     * @return A {@link LocaleData.TranslationMap} object that contains the translations for each
+     * locale. If an error occurs or the operation is cancelled, some or all locales will be missing
+     * from the translation map.
+     *
+     * @see #fetchTranslations(String, Set, LocaleData.TranslationMap)
+     */
+    @NonNull
+    public LocaleData.TranslationMap fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags,
+                                                       @Nullable LocaleData.TranslationMap existingTranslations,
+                                                       @Nullable FetchHandle handle) {
+        ParseFetchedTranslationsCallback fetchTranslationsCallback =
+                new ParseFetchedTranslationsCallback(existingTranslations);
+        fetchTranslations(localeCode, tags, fetchTranslationsCallback, handle);
 
         return fetchTranslationsCallback.translationMap;
     }
 
+    /**
+     * Fetches translations from CDS, downloading only the locales that have changed since the
+     * provided ETags. The operation can be cancelled using the provided handle.
+     * <p>
+     * Unlike {@link #fetchTranslations(String, Set, LocaleData.TranslationMap, FetchHandle)}, only
+     * the ETags of the existing translations are needed, so they don't have to be loaded in
+     * memory. For each locale that has an ETag, a conditional request is made. The locales that
+     * have not changed are not included in the returned map. Instead, their codes are added to the
+     * provided set.
+     * <p>
+     * The method is synchronous and should only run in a background thread.
+     *
+     * @param localeCode  An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                    it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param existingETags The ETags of the translations that are already available, mapped by
+     *                      locale code. The object is not altered.
+     * @param notModifiedLocales A set where the codes of the locales that have not changed are
+     *                           added.
+     * @param handle An optional handle that can be used to cancel the operation from another
+     *               thread.
+     *
+     * @return A {@link LocaleData.TranslationMap} object that contains the translations of each
+     * locale that has changed. If an error occurs or the operation is cancelled, some or all
+     * locales will be missing from both the translation map and the set of unchanged locales.
+     */
+    @NonNull
+    public LocaleData.TranslationMap fetchChangedTranslations(@Nullable String localeCode, @Nullable Set<String> tags,
+                                                              @NonNull Map<String, String> existingETags,
+                                                              @NonNull Set<String> notModifiedLocales,
+                                                              @Nullable FetchHandle handle) {
+        ParseFetchedTranslationsCallback fetchTranslationsCallback =
+                new ParseFetchedTranslationsCallback(existingETags);
+        fetchTranslations(localeCode, tags, fetchTranslationsCallback, handle);
+
+        notModifiedLocales.addAll(fetchTranslationsCallback.notModifiedLocales);
+        return fetchTranslationsCallback.translationMap;
+    }
+
     /**
      * Pushes the provided source strings to CDS and waits until the server completes the processing
      * of the pushed strings.
@@ -345,12 +1128,49 @@ public class CDSHandler {
      * The job status can be either <code>"completed"</code> or <code>"failed"</code>.
      * If everything fails, <code>null</code> is returned.
      *
-     * @throws TimeLimitExceededException When the server takes longer than 20 seconds to complete
-     * processing the job.
+     * @throws TimeLimitExceededException When the server is still processing the job after the
+     * retries allowed by the {@link #setRetryPolicy(RetryPolicy) retry policy}.
      */
     public @Nullable
-    LocaleData.TxJobStatus pushSourceStrings(@NonNull LocaleData.TxPostData postData) throws TimeLimitExceededException {
-        LocaleData.TxPostResponseData response = pushSourceStringsInternal(postData);
+    LocaleData.TxJobStatus pushSourceStrings(@NonNull final LocaleData.TxPostData postData) throws TimeLimitExceededException {
+        return pushSourceStrings(new SourceStringsProducer() {
+            @Override
+            public void writeSourceStrings(@NonNull SourceStringsWriter writer) throws IOException {
+                if (postData.data == null) {
+                    return;
+                }
+                for (Map.Entry<String, LocaleData.StringInfo> entry : postData.data.entrySet()) {
+                    writer.write(entry.getKey(), entry.getValue());
+                }
+            }
+        }, postData.meta);
+    }
+
+    /**
+     * Pushes the source strings written by the provided producer to CDS and waits until the
+     * server completes the processing of the pushed strings.
+     * <p>
+     * The strings are serialized as they are written by the producer, so they don't need to be
+     * held in memory. Enable {@link #setChunkedStreamingEnabled(boolean) chunked streaming} to
+     * avoid buffering the serialized payload as well.
+     * <p>
+     * The method is synchronous.
+     *
+     * @param producer The producer of the source strings.
+     * @param meta The meta of the push request.
+     *
+     * @return A {@link LocaleData.TxJobStatus} object containing the server's response. If
+     * everything fails or the producer throws an exception, <code>null</code> is returned.
+     *
+     * @throws TimeLimitExceededException When the server is still processing the job after the
+     * retries allowed by the {@link #setRetryPolicy(RetryPolicy) retry policy}.
+     *
+     * @see #pushSourceStrings(LocaleData.TxPostData)
+     */
+    public @Nullable
+    LocaleData.TxJobStatus pushSourceStrings(@NonNull SourceStringsProducer producer,
+                                             @Nullable LocaleData.TxPostData.Meta meta) throws TimeLimitExceededException {
+        LocaleData.TxPostResponseData response = pushSourceStringsInternal(producer, meta);
         if (response == null) {
             return null;
         }
@@ -358,11 +1178,12 @@ public class CDSHandler {
     }
 
     /**
-     * Pushes the provided source strings to CDS.
+     * Pushes the source strings written by the provided producer to CDS.
      * <p>
      * The method is synchronous.
      *
-     * @param postData The data structure containing the source strings and the purge value.
+     * @param producer The producer of the source strings.
+     * @param meta The meta of the push request.
      *
      * @return A {@link LocaleData.TxPostResponseData} object containing the job id that handles
      * the pushed strings. You can query the job status using
@@ -371,7 +1192,8 @@ public class CDSHandler {
      * @see <a href="https://github.com/transifex/transifex-delivery/#push-content">
      *     https://github.com/transifex/transifex-delivery/#push-content</a>
      */
-    private @Nullable LocaleData.TxPostResponseData pushSourceStringsInternal(@NonNull LocaleData.TxPostData postData) {
+    private @Nullable LocaleData.TxPostResponseData pushSourceStringsInternal(@NonNull SourceStringsProducer producer,
+                                                                              @Nullable LocaleData.TxPostData.Meta meta) {
         // Check URL
         URL url = null;
         try {
@@ -387,7 +1209,7 @@ public class CDSHandler {
         LocaleData.TxPostResponseData responseData = null;
         HttpURLConnection connection = null;
         try {
-            connection = (HttpURLConnection) url.openConnection();
+            connection = openConnection(url);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "IOException when opening connection: " + e);
             return null;
@@ -398,10 +1220,22 @@ public class CDSHandler {
         try {
             connection.setDoOutput(true);
             connection.setRequestMethod("POST");
+            if (mChunkedStreamingEnabled) {
+                connection.setChunkedStreamingMode(0);
+            }
+            boolean gzipEnabled = mGzipEnabled;
+            if (gzipEnabled) {
+                connection.addRequestProperty("Content-Encoding", "gzip");
+            }
 
-            Writer writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), "UTF-8"));
-            mGson.toJson(postData, writer);
-            writer.close();
+            OutputStream outputStream = connection.getOutputStream();
+            if (gzipEnabled) {
+                outputStream = new GZIPOutputStream(outputStream, 8192);
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+            JsonWriter jsonWriter = mGson.newJsonWriter(writer);
+            writePostData(jsonWriter, producer, meta);
+            jsonWriter.close();
 
             int code = connection.getResponseCode();
 
@@ -444,6 +1278,10 @@ public class CDSHandler {
         } catch(JsonSyntaxException e) {
             LOGGER.log(Level.SEVERE, "Error parsing server response: " + e);
 
+            return null;
+        } catch (JsonIOException e) {
+            LOGGER.log(Level.SEVERE, "IOException: " + e.getCause());
+
             return null;
         } finally {
             connection.disconnect();
@@ -451,19 +1289,49 @@ public class CDSHandler {
     }
 
     /**
-     * Queries the job status after a call to {@link #pushSourceStringsInternal(LocaleData.TxPostData)}
-     * and waits until the job is completed.
+     * Writes the payload of a push request, as defined by {@link LocaleData.TxPostData}, to the
+     * provided JSON writer. The source strings are serialized one at a time, as the producer
+     * writes them.
+     */
+    private void writePostData(@NonNull final JsonWriter jsonWriter,
+                               @NonNull SourceStringsProducer producer,
+                               @Nullable LocaleData.TxPostData.Meta meta) throws IOException {
+        jsonWriter.beginObject();
+        if (meta != null) {
+            jsonWriter.name("meta");
+            mGson.toJson(meta, LocaleData.TxPostData.Meta.class, jsonWriter);
+        }
+
+        jsonWriter.name("data");
+        jsonWriter.beginObject();
+        producer.writeSourceStrings(new SourceStringsWriter() {
+            @Override
+            public void write(@NonNull String key, @NonNull LocaleData.StringInfo stringInfo)
+                    throws IOException {
+                jsonWriter.name(key);
+                mGson.toJson(stringInfo, LocaleData.StringInfo.class, jsonWriter);
+            }
+        });
+        jsonWriter.endObject();
+
+        jsonWriter.endObject();
+    }
+
+    /**
+     * Queries the job status after a call to
+     * {@link #pushSourceStringsInternal(SourceStringsProducer, LocaleData.TxPostData.Meta)} and
+     * waits until the job is completed.
      * <p>
      * The method is synchronous.
      *
      * @param responseData The server's response after a call to
-     * {@link #pushSourceStringsInternal(LocaleData.TxPostData)}.
+     * {@link #pushSourceStringsInternal(SourceStringsProducer, LocaleData.TxPostData.Meta)}.
      *
      * @return The job status object or <code>null</code> if everything failed. The job status can
      * be either <code>"completed"</code> or <code>"failed"</code>.
      *
-     * @throws TimeLimitExceededException When the server takes longer than 20 seconds to complete
-     * processing the job.
+     * @throws TimeLimitExceededException When the server is still processing the job after the
+     * retries allowed by the {@link #setRetryPolicy(RetryPolicy) retry policy}.
      *
      * @see <a href="https://github.com/transifex/transifex-delivery/#job-status">
      *     https://github.com/transifex/transifex-delivery/#job-status</a>
@@ -480,10 +1348,11 @@ public class CDSHandler {
         }
 
         HttpURLConnection connection = null;
+        long startTimeMillis = System.nanoTime() / 1000000;
 
-        for (int tries = 0; tries < MAX_RETRIES; tries++) {
+        for (int retries = 0; ; retries++) {
             try {
-                connection = (HttpURLConnection) url.openConnection();
+                connection = openConnection(url);
             } catch (IOException e) {
                 LOGGER.log(Level.SEVERE, "IOException when opening connection: " + e);
                 return null;
@@ -500,12 +1369,10 @@ public class CDSHandler {
                         LocaleData.TxJobStatus jobStatus = mGson.fromJson(result, LocaleData.TxJobStatus.class);
                         if (jobStatus.data.status.equals("pending")
                                 || jobStatus.data.status.equals("processing")) {
-                            if (tries > 0) {
-                                try {
-                                    Thread.sleep(1000);
-                                } catch (InterruptedException ignore) {}
+                            if (waitForRetry(connection, retries, startTimeMillis, null)) {
+                                continue;
                             }
-                            continue;
+                            throw new TimeLimitExceededException("Server is still processing the pushed strings");
                         }
 
                         return jobStatus;
@@ -530,8 +1397,16 @@ public class CDSHandler {
                 connection.disconnect();
             }
         }
+    }
 
-        throw new TimeLimitExceededException("Server is still processing the pushed strings");
+    /**
+     * Opens a connection to the provided URL using the configured timeouts.
+     */
+    private @NonNull HttpURLConnection openConnection(@NonNull URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(mConnectTimeoutMillis);
+        connection.setReadTimeout(mReadTimeoutMillis);
+        return connection;
     }
 
     /**
@@ -0,0 +1,98 @@
+package com.transifex.common;
+
+import java.util.Random;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link RetryPolicy} that doubles the delay after each retry, up to a maximum delay, and
+ * randomizes it, so that clients waiting for the same content don't retry at the same time.
+ * <p>
+ * The delay before retry <code>n</code> is chosen uniformly between half and all of
+ * <code>min(maxDelay, initialDelay * 2^n)</code>. If the server provides a
+ * <code>Retry-After</code> delay, the policy waits at least that long.
+ * <p>
+ * Retrying stops after <code>maxRetries</code> retries or when the next attempt would start later
+ * than <code>maxElapsedMillis</code> after the first one.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 500;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 5000;
+    public static final int DEFAULT_MAX_RETRIES = 20;
+    public static final long DEFAULT_MAX_ELAPSED_MILLIS = 60 * 1000;
+
+    private final long mInitialDelayMillis;
+    private final long mMaxDelayMillis;
+    private final int mMaxRetries;
+    private final long mMaxElapsedMillis;
+    private final Random mRandom;
+
+    /**
+     * Creates a policy using the default values.
+     */
+    public ExponentialBackoffRetryPolicy() {
+        this(DEFAULT_INITIAL_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_MAX_RETRIES,
+                DEFAULT_MAX_ELAPSED_MILLIS);
+    }
+
+    /**
+     * Creates a policy using the provided values.
+     *
+     * @param initialDelayMillis The delay before the first retry, before randomization.
+     * @param maxDelayMillis The maximum delay between two attempts, before randomization. A
+     *                       <code>Retry-After</code> delay can exceed it.
+     * @param maxRetries The maximum number of retries.
+     * @param maxElapsedMillis The maximum time between the first attempt and the last one.
+     */
+    public ExponentialBackoffRetryPolicy(long initialDelayMillis, long maxDelayMillis,
+                                         int maxRetries, long maxElapsedMillis) {
+        this(initialDelayMillis, maxDelayMillis, maxRetries, maxElapsedMillis, new Random());
+    }
+
+    ExponentialBackoffRetryPolicy(long initialDelayMillis, long maxDelayMillis,
+                                  int maxRetries, long maxElapsedMillis, @NonNull Random random) {
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid delays: " + initialDelayMillis + ", "
+                    + maxDelayMillis);
+        }
+        mInitialDelayMillis = initialDelayMillis;
+        mMaxDelayMillis = maxDelayMillis;
+        mMaxRetries = maxRetries;
+        mMaxElapsedMillis = maxElapsedMillis;
+        mRandom = random;
+    }
+
+    @Override
+    public long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis) {
+        if (retryCount >= mMaxRetries) {
+            return STOP;
+        }
+
+        long delay = mInitialDelayMillis;
+        for (int i = 0; i < retryCount && delay < mMaxDelayMillis; i++) {
+            delay *= 2;
+        }
+        if (delay > mMaxDelayMillis) {
+            delay = mMaxDelayMillis;
+        }
+        long halfDelay = delay / 2;
+        delay = halfDelay + nextLong(delay - halfDelay + 1);
+
+        if (retryAfterMillis > delay) {
+            delay = retryAfterMillis;
+        }
+        if (elapsedMillis + delay > mMaxElapsedMillis) {
+            return STOP;
+        }
+        return delay;
+    }
+
+    /**
+     * Returns a random value from 0 (inclusive) to the provided bound (exclusive).
+     */
+    private long nextLong(long bound) {
+        // Random is thread-safe
+        return (long) (mRandom.nextDouble() * bound);
+    }
+}
@@ -0,0 +1,91 @@
+package com.transifex.common;
+
+import java.net.HttpURLConnection;
+import java.util.HashSet;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A handle that can be used to cancel a fetch operation of {@link CDSHandler}.
+ * <p>
+ * Cancelling aborts the connections that are in progress, stops waiting to retry and skips the
+ * locales that have not been fetched yet. The skipped locales are reported to the
+ * {@link CDSHandler.FetchCallback} with a {@link java.util.concurrent.CancellationException}.
+ * <p>
+ * The class is thread-safe.
+ */
+public class FetchHandle {
+
+    // Guarded by "this"
+    private final HashSet<HttpURLConnection> mConnections = new HashSet<>();
+    // Guarded by "this"
+    private boolean mCancelled;
+
+    /**
+     * Cancels the fetch operation. Calling the method more than once has no effect.
+     */
+    public void cancel() {
+        HttpURLConnection[] connections;
+        synchronized (this) {
+            if (mCancelled) {
+                return;
+            }
+            mCancelled = true;
+            connections = mConnections.toArray(new HttpURLConnection[0]);
+            mConnections.clear();
+            // Wake up any thread that is waiting to retry
+            notifyAll();
+        }
+
+        // Disconnecting may block, so it happens outside the lock
+        for (HttpURLConnection connection : connections) {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #cancel()} has been called.
+     */
+    public synchronized boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * Registers a connection, so that it's aborted if the operation is cancelled.
+     *
+     * @return <code>false</code> if the operation has already been cancelled, in which case the
+     * connection is not registered.
+     */
+    synchronized boolean addConnection(@NonNull HttpURLConnection connection) {
+        if (mCancelled) {
+            return false;
+        }
+        mConnections.add(connection);
+        return true;
+    }
+
+    /**
+     * Unregisters a connection that is no longer in use.
+     */
+    synchronized void removeConnection(@NonNull HttpURLConnection connection) {
+        mConnections.remove(connection);
+    }
+
+    /**
+     * Waits for the provided time or until the operation is cancelled.
+     *
+     * @return <code>true</code> if the time elapsed, <code>false</code> if the operation was
+     * cancelled.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    synchronized boolean sleep(long millis) throws InterruptedException {
+        long deadline = System.nanoTime() / 1000000 + millis;
+        long remaining = millis;
+        while (!mCancelled && remaining > 0) {
+            wait(remaining);
+            remaining = deadline - System.nanoTime() / 1000000;
+        }
+        return !mCancelled;
+    }
+}
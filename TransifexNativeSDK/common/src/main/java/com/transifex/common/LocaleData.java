@@ -262,6 +262,9 @@ public class LocaleData {
         @SerializedName("map")
         private final HashMap<String, StringInfo> mHashMap;
 
+        // The CDS validator of the content, if known
+        private transient String mETag;
+
         /**
          * Creates a LocaleStrings object which uses the provided {@link HashMap}.
          * <p>
@@ -285,6 +288,7 @@ public class LocaleData {
         public LocaleStrings(@NonNull LocaleStrings localeStrings) {
             // Just copy the mapping. No need to copy StringInfo objects since they are read-only.
             mHashMap = new HashMap<>(localeStrings.mHashMap);
+            mETag = localeStrings.mETag;
         }
 
         /**
@@ -325,6 +329,26 @@ public class LocaleData {
             return mHashMap;
         }
 
+        /**
+         * Returns the ETag that CDS provided for this content, or <code>null</code> if it's not
+         * known.
+         * <p>
+         * The ETag is not taken into account by {@link #equals(Object)}.
+         */
+        public @Nullable String getETag() {
+            return mETag;
+        }
+
+        /**
+         * Sets the ETag that CDS provided for this content.
+         * <p>
+         * The ETag is sent to CDS when fetching translations, so that the content is not
+         * downloaded again if it hasn't changed.
+         */
+        public void setETag(@Nullable String etag) {
+            mETag = etag;
+        }
+
         @Override
         @NonNull
         public String toString() {
@@ -429,6 +453,21 @@ public class LocaleData {
             return mHashMap.isEmpty();
         }
 
+        /**
+         * Returns the {@link LocaleStrings#getETag() ETags} of the locales, mapped by locale code.
+         * Locales without an ETag are not included.
+         */
+        @NonNull public HashMap<String, String> getETags() {
+            HashMap<String, String> etags = new HashMap<>(mHashMap.size());
+            for (Map.Entry<String, LocaleStrings> entry : mHashMap.entrySet()) {
+                String etag = (entry.getValue() != null) ? entry.getValue().getETag() : null;
+                if (etag != null) {
+                    etags.put(entry.getKey(), etag);
+                }
+            }
+            return etags;
+        }
+
         @Override
         @NonNull
         public String toString() {
@@ -0,0 +1,162 @@
+package com.transifex.common;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A streaming parser that reads a locale's translations, encoded in JSON using the
+ * {@link LocaleData.TxPullResponseData} structure, directly into a {@link LocaleData.LocaleStrings}
+ * object.
+ * <p>
+ * Unlike binding the JSON to a {@link LocaleData.TxPullResponseData} object with Gson, no
+ * reflection is used and no intermediate objects are created. The <code>meta</code> objects of
+ * the strings are skipped, unless requested.
+ */
+public class LocaleStringsParser {
+
+    private LocaleStringsParser() {}
+
+    /**
+     * Parses the provided JSON into a {@link LocaleData.LocaleStrings} object.
+     * <p>
+     * The reader is not closed.
+     *
+     * @param reader The reader providing the JSON.
+     * @param expectedSize The expected number of strings or <code>0</code> if it's not known.
+     * @param includeMeta If <code>true</code>, the <code>meta</code> object of each string is
+     *                    parsed. Otherwise, it's skipped.
+     *
+     * @return The parsed strings or <code>null</code> if the JSON is empty or does not contain
+     * a <code>data</code> object.
+     *
+     * @throws JsonSyntaxException if the JSON does not have the expected format.
+     * @throws IOException if the reader fails.
+     */
+    public static @Nullable LocaleData.LocaleStrings parse(@NonNull Reader reader, int expectedSize,
+                                                           boolean includeMeta) throws IOException {
+        JsonReader jsonReader = new JsonReader(reader);
+        // Be as lenient as Gson#fromJson()
+        jsonReader.setLenient(true);
+
+        try {
+            JsonToken token;
+            try {
+                token = jsonReader.peek();
+            } catch (EOFException e) {
+                // Empty document
+                return null;
+            }
+            if (token == JsonToken.NULL) {
+                jsonReader.nextNull();
+                return null;
+            }
+
+            LocaleData.LocaleStrings localeStrings = null;
+
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if (name.equals("data") && jsonReader.peek() != JsonToken.NULL) {
+                    localeStrings = readData(jsonReader, expectedSize, includeMeta);
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+
+            if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            }
+
+            return localeStrings;
+        } catch (IllegalStateException | MalformedJsonException | EOFException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static @NonNull LocaleData.LocaleStrings readData(@NonNull JsonReader jsonReader,
+                                                              int expectedSize,
+                                                              boolean includeMeta) throws IOException {
+        // Avoid rehashing when the expected size is reached
+        HashMap<String, LocaleData.StringInfo> map =
+                new HashMap<>(Math.max((int) (expectedSize / .75f) + 1, 16));
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String key = jsonReader.nextName();
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.nextNull();
+                map.put(key, null);
+                continue;
+            }
+            map.put(key, readStringInfo(jsonReader, includeMeta));
+        }
+        jsonReader.endObject();
+
+        return new LocaleData.LocaleStrings(map);
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    private static @NonNull LocaleData.StringInfo readStringInfo(@NonNull JsonReader jsonReader,
+                                                                 boolean includeMeta) throws IOException {
+        String string = null;
+        LocaleData.StringInfo.Meta meta = null;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.nextNull();
+            } else if (name.equals("string")) {
+                // Like Gson, accept booleans and numbers as strings
+                string = (jsonReader.peek() == JsonToken.BOOLEAN)
+                        ? Boolean.toString(jsonReader.nextBoolean()) : jsonReader.nextString();
+            } else if (includeMeta && name.equals("meta")) {
+                meta = readMeta(jsonReader);
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return new LocaleData.StringInfo(string, meta);
+    }
+
+    private static @NonNull LocaleData.StringInfo.Meta readMeta(@NonNull JsonReader jsonReader) throws IOException {
+        LocaleData.StringInfo.Meta meta = new LocaleData.StringInfo.Meta();
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (name.equals("tags") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                meta.tags = new LinkedHashSet<>();
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    if (jsonReader.peek() == JsonToken.NULL) {
+                        jsonReader.nextNull();
+                        meta.tags.add(null);
+                    } else {
+                        meta.tags.add(jsonReader.nextString());
+                    }
+                }
+                jsonReader.endArray();
+            } else {
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+
+        return meta;
+    }
+}
@@ -0,0 +1,164 @@
+package com.transifex.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A read-only view of a binary translation file, encoded using {@link TranslationBundle}, that is
+ * memory-mapped instead of being loaded on the heap.
+ * <p>
+ * Keys are looked up using the file's hash slot table and a string is decoded only when it's
+ * requested, so heap usage is proportional to the strings that are actually accessed. The pages
+ * of the file are loaded by the OS on demand.
+ * <p>
+ * The class is thread-safe.
+ */
+public class MappedTranslationBundle {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Only absolute get methods are used on the buffer, so it can be shared across threads
+    private final ByteBuffer mBuffer;
+    private final int mEntryCount;
+    private final int mSlotMask;
+    private final int mEntriesStart;
+    private final int mStringsStart;
+
+    MappedTranslationBundle(@NonNull ByteBuffer buffer) throws TranslationBundle.InvalidFormatException {
+        mBuffer = buffer.slice();
+        // The header is validated to fit in the buffer, so the offsets don't overflow
+        mEntryCount = TranslationBundle.readHeader(mBuffer);
+        int slotCount = mBuffer.getInt(12);
+        mSlotMask = slotCount - 1;
+        mEntriesStart = TranslationBundle.HEADER_SIZE + slotCount * 4;
+        mStringsStart = mEntriesStart + mEntryCount * 8;
+    }
+
+    /**
+     * Memory-maps the provided binary translation file.
+     * <p>
+     * The file should not be modified while it's mapped. Files are replaced by writing a new file
+     * and renaming it, which keeps existing mappings intact.
+     * <p>
+     * If the file is accompanied by a manifest, as described in {@link TranslationMapStorage}, its
+     * length is verified against it. The checksum is not verified, since that would require
+     * reading the whole file.
+     *
+     * @throws TranslationBundle.InvalidFormatException if the file is not a valid translation
+     * bundle or its length does not match its manifest.
+     * @throws IOException if the file can't be opened or mapped.
+     */
+    public static @NonNull MappedTranslationBundle open(@NonNull File file) throws IOException {
+        TranslationMapStorage.Manifest manifest = TranslationMapStorage.readManifest(
+                new TranslationMapStorage.IOFileProvider().getFile(
+                        file.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX));
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            if (manifest != null && manifest.length != channel.size()) {
+                throw new TranslationBundle.InvalidFormatException("File does not match its manifest");
+            }
+            // The mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedTranslationBundle(buffer);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Returns the number of keys in the bundle.
+     */
+    public int size() {
+        return mEntryCount;
+    }
+
+    /**
+     * Returns <code>true</code> if the bundle contains the provided key.
+     */
+    public boolean containsKey(@NonNull String key) {
+        return findEntry(key) != -1;
+    }
+
+    /**
+     * Returns the string value associated with the provided key, or <code>null</code> if it isn't
+     * found.
+     * <p>
+     * It has the same semantics as {@link LocaleData.LocaleStrings#get(String)}.
+     *
+     * @throws IndexOutOfBoundsException if the file is corrupted.
+     */
+    public @Nullable String get(@NonNull String key) {
+        int entry = findEntry(key);
+        if (entry == -1) {
+            return null;
+        }
+        int valueOffset = mBuffer.getInt(mEntriesStart + entry * 8 + 4);
+        return TranslationBundle.readString(mBuffer, mStringsStart, valueOffset);
+    }
+
+    /**
+     * Decodes the whole bundle into a {@link LocaleData.LocaleStrings} object on the heap.
+     *
+     * @throws TranslationBundle.InvalidFormatException if the file is corrupted.
+     */
+    public @NonNull LocaleData.LocaleStrings toLocaleStrings() throws TranslationBundle.InvalidFormatException {
+        return TranslationBundle.read(mBuffer.duplicate());
+    }
+
+    /**
+     * Returns the index of the entry of the provided key or <code>-1</code> if it isn't found.
+     */
+    private int findEntry(@NonNull String key) {
+        if (mEntryCount == 0) {
+            return -1;
+        }
+        byte[] keyBytes = null;
+        int slot = TranslationBundle.hash(key) & mSlotMask;
+        // The load factor is at most 0.5, so an empty slot is always reached
+        for (int probes = 0; probes <= mSlotMask; probes++) {
+            int entry = mBuffer.getInt(TranslationBundle.HEADER_SIZE + slot * 4);
+            if (entry == TranslationBundle.EMPTY_SLOT) {
+                return -1;
+            }
+            if (keyBytes == null) {
+                keyBytes = key.getBytes(UTF_8);
+            }
+            int keyOffset = mBuffer.getInt(mEntriesStart + entry * 8);
+            if (keyEquals(keyOffset, keyBytes)) {
+                return entry;
+            }
+            slot = (slot + 1) & mSlotMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the key stored at the provided offset of the string table with the provided UTF-8
+     * encoded key, without decoding the former.
+     */
+    private boolean keyEquals(int keyOffset, @NonNull byte[] keyBytes) {
+        if (keyOffset < 0) {
+            return false;
+        }
+        int position = mStringsStart + keyOffset;
+        if (mBuffer.getInt(position) != keyBytes.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (mBuffer.get(position + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.transifex.common;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Runs a number of independent tasks concurrently using an executor.
+ * <p>
+ * The calling thread takes part in running the tasks, so the tasks complete even if the executor
+ * is busy, rejects tasks or is the executor that the calling thread belongs to.
+ */
+class ParallelRunner {
+
+    /**
+     * A task that is run once for each index.
+     */
+    interface Task {
+
+        void run(int index);
+    }
+
+    private ParallelRunner() {
+    }
+
+    /**
+     * Runs the provided task for each index from 0 to <code>count - 1</code> and returns when all
+     * of them have completed.
+     * <p>
+     * Each index is run exactly once, on the calling thread or on one of the executor's threads.
+     * The task's side effects are visible to the calling thread when the method returns.
+     *
+     * @param count The number of indexes to run.
+     * @param task The task to run for each index.
+     * @param executor The executor that provides additional threads.
+     */
+    static void run(final int count, @NonNull final Task task, @NonNull Executor executor) {
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final CountDownLatch doneLatch = new CountDownLatch(count);
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < count) {
+                    try {
+                        task.run(index);
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }
+        };
+
+        // The calling thread is one of the workers
+        for (int i = 0; i < count - 1; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        // Wait for the tasks that other workers are still running
+        boolean interrupted = false;
+        while (true) {
+            try {
+                doneLatch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,8 +2,6 @@ package com.transifex.common;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -47,7 +45,9 @@ public class Plurals {
         String OTHER = "other";
     }
 
-    private static final Pattern pattern = Pattern.compile("(zero|one|two|few|many|other)\\s*\\{([^}]*)\\}");
+    // Ordered as the indices returned by matchPluralType()
+    private static final String[] PLURAL_TYPES = {PluralType.ZERO, PluralType.ONE,
+            PluralType.TWO, PluralType.FEW, PluralType.MANY, PluralType.OTHER};
 
     public final String zero;
     public final String one;
@@ -132,6 +132,14 @@ public class Plurals {
 
     /**
      * Parses the provided ICU string and creates a new Plurals object.
+     * <p>
+     * The string is expected to have the <code>{cnt, plural, one {...} other {...}}</code> form.
+     * The header up to the second comma is skipped, so the argument name is not checked. Plural
+     * strings may contain nested braces, such as <code>other {{cnt} items}</code>. Selectors
+     * that are not a {@link PluralType}, such as <code>=0</code>, are ignored.
+     * <p>
+     * The string is parsed in a single pass. The only objects allocated are the plural strings
+     * and the returned object.
      *
      * @param icuString The ICU string to parse.
      *
@@ -139,29 +147,126 @@ public class Plurals {
      * otherwise
      */
     public static @Nullable Plurals fromICUString(@NonNull String icuString) {
-        Matcher matcher = pattern.matcher(icuString);
-        Builder sb = new Builder();
-
-        while (matcher.find()) {
-            String pluralType = matcher.group(1);
-            String string = matcher.group(2);
-            try {
-                sb.setPlural(pluralType, string);
+        int length = icuString.length();
+        int i = skipWhitespace(icuString, 0);
+        if (i < length && icuString.charAt(i) == '{') {
+            i = skipHeader(icuString, i + 1);
+        }
+
+        String zero = null, one = null, two = null, few = null, many = null, other = null;
+        while (true) {
+            // Selector
+            i = skipWhitespace(icuString, i);
+            int selectorStart = i;
+            while (i < length && !isWhitespace(icuString.charAt(i))
+                    && icuString.charAt(i) != '{' && icuString.charAt(i) != '}') {
+                i++;
             }
-            catch (NonSupportedPluralTypeException ignored) {
-                // Due to the pattern, we can't actually enter here
+            int selectorEnd = i;
+            i = skipWhitespace(icuString, i);
+            if (i >= length || icuString.charAt(i) != '{') {
+                // End of the plurals, such as the closing brace, or malformed string
+                break;
             }
-        }
 
-        Plurals plurals;
-        try  {
-            plurals = sb.buildString();
+            // Plural string, up to the matching closing brace
+            int stringStart = i + 1;
+            int depth = 1;
+            for (i = stringStart; i < length; i++) {
+                char c = icuString.charAt(i);
+                if (c == '{') {
+                    depth++;
+                }
+                else if (c == '}' && --depth == 0) {
+                    break;
+                }
+            }
+            if (depth != 0) {
+                // Unbalanced braces
+                break;
+            }
+            int stringEnd = i;
+            i++;
+
+            switch (matchPluralType(icuString, selectorStart, selectorEnd)) {
+                case 0:
+                    zero = icuString.substring(stringStart, stringEnd);
+                    break;
+                case 1:
+                    one = icuString.substring(stringStart, stringEnd);
+                    break;
+                case 2:
+                    two = icuString.substring(stringStart, stringEnd);
+                    break;
+                case 3:
+                    few = icuString.substring(stringStart, stringEnd);
+                    break;
+                case 4:
+                    many = icuString.substring(stringStart, stringEnd);
+                    break;
+                case 5:
+                    other = icuString.substring(stringStart, stringEnd);
+                    break;
+                default:
+                    // Unsupported selector
+                    break;
+            }
         }
-        catch (Plurals.InvalidPluralsConfiguration e){
+
+        if (other == null) {
             return null;
         }
+        return new Plurals(zero, one, two, few, many, other);
+    }
+
+    /**
+     * Returns the index of the plural type in {@link #PLURAL_TYPES} that equals the provided
+     * region of the string or <code>-1</code> if none does.
+     */
+    private static int matchPluralType(@NonNull String string, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < PLURAL_TYPES.length; i++) {
+            String pluralType = PLURAL_TYPES[i];
+            if (pluralType.length() == length && string.regionMatches(start, pluralType, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips the <code>cnt, plural,</code> header that follows the opening brace at
+     * <code>start - 1</code>.
+     *
+     * @return The index after the header's second comma. If a brace is found first, the string
+     * has no header and <code>start</code> is returned.
+     */
+    private static int skipHeader(@NonNull String string, int start) {
+        int commas = 0;
+        for (int i = start; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == ',') {
+                if (++commas == 2) {
+                    return i + 1;
+                }
+            }
+            else if (c == '{' || c == '}') {
+                break;
+            }
+        }
+        return start;
+    }
+
+    private static int skipWhitespace(@NonNull String string, int start) {
+        int i = start;
+        while (i < string.length() && isWhitespace(string.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
 
-        return plurals;
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r';
     }
 
     private static void appendPlural(@NonNull StringBuilder sb, @NonNull @PluralType String pluralType, @NonNull String string) {
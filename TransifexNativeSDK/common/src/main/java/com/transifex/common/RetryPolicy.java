@@ -0,0 +1,32 @@
+package com.transifex.common;
+
+/**
+ * Decides whether and when {@link CDSHandler} retries a request whose result is not ready yet,
+ * such as a translations request that CDS answers with <code>202 Accepted</code> or a job status
+ * request for a job that is still being processed.
+ *
+ * @see ExponentialBackoffRetryPolicy
+ * @see CDSHandler#setRetryPolicy(RetryPolicy)
+ */
+public interface RetryPolicy {
+
+    /**
+     * Returned by {@link #getRetryDelayMillis(int, long, long)} to stop retrying.
+     */
+    long STOP = -1;
+
+    /**
+     * Returns the time to wait before the next attempt.
+     * <p>
+     * The method may be called by multiple threads at the same time.
+     *
+     * @param retryCount The number of retries made so far; 0 before the first retry.
+     * @param elapsedMillis The time in milliseconds since the first attempt started.
+     * @param retryAfterMillis The delay in milliseconds that the server asked for using the
+     *                         <code>Retry-After</code> header, or -1 if the server didn't ask
+     *                         for one.
+     *
+     * @return The delay in milliseconds or {@link #STOP} to give up.
+     */
+    long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis);
+}
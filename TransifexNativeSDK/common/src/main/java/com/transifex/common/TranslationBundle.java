@@ -0,0 +1,264 @@
+package com.transifex.common;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Reads and writes a locale's translations in a compact binary format, which is much faster to
+ * load than JSON.
+ * <p>
+ * All numbers are big-endian 32-bit integers, unless stated otherwise. The format is:
+ * <pre>{@code
+ * header     magic "TXSB", version (16-bit), flags (16-bit), entry count, slot count
+ * slots      <slot count> entry indices, or -1 for an empty slot
+ * entries    <entry count> pairs of key offset and string offset
+ * strings    the string table: length-prefixed UTF-8 strings
+ * }</pre>
+ * <p>
+ * The slots form an open-addressing hash table of the keys, using {@link #hash(String)} and
+ * linear probing. The slot count is a power of two. Offsets point to the start of a string
+ * inside the string table. A string offset of {@link #NULL_STRING_INFO} or {@link #NULL_STRING}
+ * denotes a missing {@link LocaleData.StringInfo} or a missing string respectively. Identical
+ * strings are stored once.
+ * <p>
+ * The <code>meta</code> object of the strings and the ETag are not stored.
+ */
+public class TranslationBundle {
+
+    /**
+     * The magic number at the start of a translation bundle.
+     */
+    public static final int MAGIC = 0x54585342; // "TXSB"
+    /**
+     * The current version of the format.
+     */
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+    static final int EMPTY_SLOT = -1;
+    static final int NULL_STRING_INFO = -1;
+    static final int NULL_STRING = -2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Thrown when the data are not a translation bundle of a supported version.
+     */
+    public static class InvalidFormatException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        public InvalidFormatException(@NonNull String message) {
+            super(message);
+        }
+    }
+
+    private TranslationBundle() {}
+
+    /**
+     * Returns the hash of a key used by the slot table.
+     */
+    static int hash(@NonNull String key) {
+        // String#hashCode() is specified, so it's stable across JVMs
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot count used for the provided number of entries: a power of two that keeps
+     * the load factor at or below 0.5.
+     */
+    static int getSlotCount(int entryCount) {
+        int slotCount = 2;
+        while (slotCount < entryCount * 2) {
+            slotCount <<= 1;
+        }
+        return slotCount;
+    }
+
+    /**
+     * Writes the provided translations to the output stream.
+     * <p>
+     * The stream is not closed.
+     */
+    public static void write(@NonNull LocaleData.LocaleStrings localeStrings,
+                             @NonNull OutputStream outputStream) throws IOException {
+        HashMap<String, LocaleData.StringInfo> map = localeStrings.getMap();
+        int entryCount = map.size();
+        int slotCount = getSlotCount(entryCount);
+
+        // Build the string table
+        HashMap<String, Integer> stringOffsets = new HashMap<>(entryCount * 2);
+        ArrayList<byte[]> stringTable = new ArrayList<>(entryCount * 2);
+        int[] keyOffsets = new int[entryCount];
+        int[] valueOffsets = new int[entryCount];
+        String[] keys = new String[entryCount];
+        int tableSize = 0;
+        int i = 0;
+        for (Map.Entry<String, LocaleData.StringInfo> entry : map.entrySet()) {
+            keys[i] = entry.getKey();
+            LocaleData.StringInfo stringInfo = entry.getValue();
+            String[] strings = {entry.getKey(), stringInfo != null ? stringInfo.string : null};
+            int[] offsets = new int[2];
+            for (int j = 0; j < 2; j++) {
+                if (strings[j] == null) {
+                    offsets[j] = (stringInfo == null) ? NULL_STRING_INFO : NULL_STRING;
+                    continue;
+                }
+                Integer offset = stringOffsets.get(strings[j]);
+                if (offset == null) {
+                    byte[] bytes = strings[j].getBytes(UTF_8);
+                    offset = tableSize;
+                    stringOffsets.put(strings[j], offset);
+                    stringTable.add(bytes);
+                    tableSize += 4 + bytes.length;
+                }
+                offsets[j] = offset;
+            }
+            keyOffsets[i] = offsets[0];
+            valueOffsets[i] = offsets[1];
+            i++;
+        }
+
+        // Build the slot table
+        int[] slots = new int[slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            slots[slot] = EMPTY_SLOT;
+        }
+        for (int entry = 0; entry < entryCount; entry++) {
+            int slot = hash(keys[entry]) & (slotCount - 1);
+            while (slots[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = entry;
+        }
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeInt(entryCount);
+        out.writeInt(slotCount);
+        for (int slot : slots) {
+            out.writeInt(slot);
+        }
+        for (int entry = 0; entry < entryCount; entry++) {
+            out.writeInt(keyOffsets[entry]);
+            out.writeInt(valueOffsets[entry]);
+        }
+        for (byte[] bytes : stringTable) {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads translations from the provided input stream and closes it.
+     *
+     * @throws InvalidFormatException if the data are not a valid translation bundle.
+     * @throws IOException if reading fails.
+     */
+    public static @NonNull LocaleData.LocaleStrings read(@NonNull InputStream inputStream) throws IOException {
+        return read(ByteBuffer.wrap(Utils.readInputStreamToBytes(inputStream)));
+    }
+
+    /**
+     * Reads translations from the provided buffer, starting at its position.
+     *
+     * @throws InvalidFormatException if the data are not a valid translation bundle.
+     */
+    public static @NonNull LocaleData.LocaleStrings read(@NonNull ByteBuffer buffer) throws InvalidFormatException {
+        int start = buffer.position();
+        try {
+            int entryCount = readHeader(buffer);
+            int slotCount = buffer.getInt(start + 12);
+            int entriesStart = start + HEADER_SIZE + slotCount * 4;
+            int stringsStart = entriesStart + entryCount * 8;
+
+            HashMap<String, LocaleData.StringInfo> map =
+                    new HashMap<>(Math.max((int) (entryCount / .75f) + 1, 16));
+            for (int entry = 0; entry < entryCount; entry++) {
+                int keyOffset = buffer.getInt(entriesStart + entry * 8);
+                int valueOffset = buffer.getInt(entriesStart + entry * 8 + 4);
+                String key = readString(buffer, stringsStart, keyOffset);
+                if (key == null) {
+                    throw new InvalidFormatException("Missing key for entry " + entry);
+                }
+                if (valueOffset == NULL_STRING_INFO) {
+                    map.put(key, null);
+                } else {
+                    //noinspection ConstantConditions
+                    map.put(key, new LocaleData.StringInfo(readString(buffer, stringsStart, valueOffset)));
+                }
+            }
+            return new LocaleData.LocaleStrings(map);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new InvalidFormatException("Truncated translation bundle: " + e);
+        }
+    }
+
+    /**
+     * Validates the header of the bundle that starts at the buffer's position. The slot and entry
+     * tables must fit in the buffer, so the offsets computed from the counts don't overflow.
+     *
+     * @return The entry count.
+     *
+     * @throws InvalidFormatException if the header is not valid.
+     */
+    static int readHeader(@NonNull ByteBuffer buffer) throws InvalidFormatException {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(start) != MAGIC) {
+            throw new InvalidFormatException("Not a translation bundle");
+        }
+        int version = buffer.getShort(start + 4) & 0xFFFF;
+        if (version != VERSION) {
+            throw new InvalidFormatException("Unsupported translation bundle version: " + version);
+        }
+        int entryCount = buffer.getInt(start + 8);
+        int slotCount = buffer.getInt(start + 12);
+        if (entryCount < 0 || slotCount < entryCount || Integer.bitCount(slotCount) != 1
+                || slotCount > Integer.MAX_VALUE / 4) {
+            throw new InvalidFormatException("Invalid translation bundle header");
+        }
+        if (HEADER_SIZE + slotCount * 4L + entryCount * 8L > buffer.remaining()) {
+            throw new InvalidFormatException("Truncated translation bundle");
+        }
+        return entryCount;
+    }
+
+    /**
+     * Decodes the string stored at the provided offset of the string table.
+     *
+     * @return The string or <code>null</code> if the offset denotes a missing string.
+     */
+    static @Nullable String readString(@NonNull ByteBuffer buffer, int stringsStart, int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        int position = stringsStart + offset;
+        int length = buffer.getInt(position);
+        if (length < 0 || length > buffer.limit() - position - 4) {
+            throw new IndexOutOfBoundsException("Invalid string length at " + position);
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position + 4, length, UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position + 4);
+        duplicate.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
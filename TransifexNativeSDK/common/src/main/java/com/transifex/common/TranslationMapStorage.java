@@ -3,8 +3,10 @@ package com.transifex.common;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -12,10 +14,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +47,25 @@ import androidx.annotation.Nullable;
  * Each locale is represented by a directory named after the locale and contains a translation file
  * using a configurable filename. Each locale translation file is encoded in JSON format using the
  * {@link LocaleData.TxPullResponseData} structure.
+ * <p>
+ * If the {@link LocaleData.LocaleStrings#getETag() ETag} of a locale's translations is known, it's
+ * stored next to the translation file, in a file having the same name followed by
+ * {@link #ETAG_FILE_SUFFIX}.
+ * <p>
+ * Optionally, each locale directory can also contain a binary translation file, encoded using
+ * {@link TranslationBundle}. When a binary filename is configured, the binary file is written
+ * next to the JSON file and it's preferred when loading, falling back to the JSON file if it's
+ * missing or invalid. The ETag file always follows the JSON file's name.
+ * <p>
+ * Each translation file, JSON or binary, is accompanied by a manifest, a file having the same name
+ * followed by {@link #MANIFEST_FILE_SUFFIX}, which holds the translation file's length and CRC32
+ * checksum. When loading, a translation file that does not match its manifest is skipped without
+ * being parsed. Translation files without a manifest, such as the ones written by older versions,
+ * are parsed without verification.
+ * <p>
+ * When a locale is written, its ETag file and binary file are deleted before the JSON file is
+ * replaced and the ETag file is written last. This way, an interrupted write never leaves an ETag
+ * or a binary file that belongs to older content next to the new content.
  */
 public class TranslationMapStorage {
 
@@ -48,11 +75,29 @@ public class TranslationMapStorage {
      * on disk.
      */
     public static final String DEFAULT_TRANSLATION_FILENAME = "txstrings.json";
+    /**
+     * The default name for the binary translation files. It is used by the command line tool's
+     * pull command when binary output is requested and by the cache providers that read
+     * translations from disk or write translations on disk.
+     */
+    public static final String DEFAULT_BINARY_TRANSLATION_FILENAME = "txstrings.bin";
     /**
      * The default directory that contains the translation files. It is used by the command line
      * tool's pull command and by the standard cache implementation.
      */
     public static final String DEFAULT_TRANSLATIONS_DIR_NAME = "txnative";
+    /**
+     * The suffix appended to a translation file's name to get the name of the file that holds
+     * the translation file's ETag.
+     */
+    public static final String ETAG_FILE_SUFFIX = ".etag";
+    /**
+     * The suffix appended to a translation file's name to get the name of the file that holds
+     * the translation file's length and checksum.
+     */
+    public static final String MANIFEST_FILE_SUFFIX = ".manifest";
+
+    static final String TEMP_FILE_SUFFIX = ".tmp";
 
     public static final String TAG = TranslationMapStorage.class.getSimpleName();
     private static final Logger LOGGER = Logger.getLogger(TAG);
@@ -61,6 +106,9 @@ public class TranslationMapStorage {
     private final IOFileProvider mFileProvider = new IOFileProvider();
 
     private final String mFilename;
+    private final String mBinaryFilename;
+
+    private boolean mIncludeMeta;
 
     /**
      * A file interface that abstracts the underlying implementation.
@@ -94,7 +142,31 @@ public class TranslationMapStorage {
      * @param filename The name of a locale's translation file.
      */
     public TranslationMapStorage(@NonNull String filename) {
+        this(filename, null);
+    }
+
+    /**
+     * Creates a new instance that can be used to write or read a {@link LocaleData.TranslationMap}
+     * using both the JSON and the binary format.
+     *
+     * @param filename The name of a locale's translation file.
+     * @param binaryFilename The name of a locale's binary translation file. If <code>null</code>,
+     *                       the binary format is not used.
+     */
+    public TranslationMapStorage(@NonNull String filename, @Nullable String binaryFilename) {
         mFilename = filename;
+        mBinaryFilename = binaryFilename;
+    }
+
+    /**
+     * Controls whether the <code>meta</code> object of each string is loaded when reading
+     * translations from disk. It's disabled by default, since the SDK does not use it.
+     * <p>
+     * The binary translation files don't contain the <code>meta</code> object, so they are not
+     * used when it's enabled.
+     */
+    public void setIncludeMeta(boolean includeMeta) {
+        mIncludeMeta = includeMeta;
     }
 
     /**
@@ -103,7 +175,9 @@ public class TranslationMapStorage {
      * The method is synchronous and returns a map where each locale points to a translation file.
      * <p>
      * The method does not delete the content of the destination directory. When saving a locale's
-     * translation file, it will replace the existing translation file, if any. Thus, subsequent
+     * translation file, it will replace the existing translation file, if any. Each file is
+     * written to a temporary file first, which then replaces the existing file, so an interrupted
+     * write never leaves a truncated translation file behind. Thus, subsequent
      * calls to this method, given the same destination directory, will result in a mix of all the
      * provided translation maps.
      *
@@ -144,25 +218,95 @@ public class TranslationMapStorage {
                 continue; // Can't happen. Just to suppress lint
             }
             File localeFile = new File(localeDir.getPath() + File.separator + mFilename);
+            File binaryFile = (mBinaryFilename != null)
+                    ? new File(localeDir.getPath() + File.separator + mBinaryFilename)
+                    : null;
+            File tempFile = new File(localeFile.getPath() + TEMP_FILE_SUFFIX);
             try {
-                FileOutputStream fileOutputStream = new FileOutputStream(localeFile, false);
-                Writer writer = new BufferedWriter(new OutputStreamWriter(fileOutputStream, "UTF-8"));
-                // Create a TxPullResponseData object from LocaleStrings
-                LocaleData.TxPullResponseData data = new LocaleData.TxPullResponseData(localeStrings.getMap());
-                mGson.toJson(data, writer);
-                writer.close();
+                invalidateLocaleFiles(localeFile, binaryFile);
+                CheckedOutputStream checkedOutputStream = new CheckedOutputStream(
+                        new FileOutputStream(tempFile, false), new CRC32());
+                writeJson(localeStrings, checkedOutputStream);
+                commitTranslationFile(tempFile, localeFile, checkedOutputStream.getChecksum().getValue());
+                if (binaryFile != null) {
+                    writeBinary(localeStrings, binaryFile);
+                }
+                // The ETag is written last, so that it's only present when everything else is
+                // up to date
+                writeETag(localeFile, localeStrings.getETag());
                 filesMap.put(locale, localeFile);
             } catch (FileNotFoundException e) {
                 LOGGER.log(Level.SEVERE, "Error creating file " + localeFile.getAbsolutePath());
+                tempFile.delete();
             } catch (IOException e) {
                 LOGGER.log(Level.SEVERE, "Error writing file " +
                         localeFile.getAbsolutePath() + " : " + e);
+                tempFile.delete();
             }
         }
 
         return filesMap;
     }
 
+    /**
+     * Returns <code>true</code> if the provided translations of a locale are stored in the provided
+     * directory exactly as {@link #toDisk(LocaleData.TranslationMap, File)} would store them, so
+     * that they don't need to be written again.
+     * <p>
+     * The translation file itself is not read. Instead, the translations are serialized and
+     * compared against the translation file's manifest. The stored ETag must match too and, if a
+     * binary translation file is used, it must have been written.
+     *
+     * @param dstDirectory The directory the translations were saved to.
+     * @param locale The locale.
+     * @param localeStrings The translations of the locale.
+     */
+    public boolean isOnDisk(@NonNull File dstDirectory, @NonNull String locale,
+                            @NonNull LocaleData.LocaleStrings localeStrings) {
+        String localeFilePath = dstDirectory.getPath() + File.separator + locale + File.separator + mFilename;
+        Manifest manifest = readManifest(mFileProvider.getFile(localeFilePath + MANIFEST_FILE_SUFFIX));
+        if (manifest == null) {
+            return false;
+        }
+        if (mBinaryFilename != null) {
+            String binaryFilePath = dstDirectory.getPath() + File.separator + locale + File.separator + mBinaryFilename;
+            if (readManifest(mFileProvider.getFile(binaryFilePath + MANIFEST_FILE_SUFFIX)) == null) {
+                return false;
+            }
+        }
+        String etag = localeStrings.getETag();
+        String storedETag = readETag(mFileProvider.getFile(localeFilePath + ETAG_FILE_SUFFIX));
+        if (etag == null ? storedETag != null : !etag.equals(storedETag)) {
+            return false;
+        }
+
+        CountingOutputStream countingOutputStream = new CountingOutputStream();
+        CheckedOutputStream checkedOutputStream = new CheckedOutputStream(countingOutputStream, new CRC32());
+        try {
+            writeJson(localeStrings, checkedOutputStream);
+        } catch (IOException e) {
+            return false;
+        }
+        return countingOutputStream.count == manifest.length
+                && checkedOutputStream.getChecksum().getValue() == manifest.crc;
+    }
+
+    /**
+     * Serializes the provided translations to JSON, writes them to the provided stream and closes
+     * it.
+     */
+    private void writeJson(@NonNull LocaleData.LocaleStrings localeStrings,
+                           @NonNull OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+        try {
+            // Create a TxPullResponseData object from LocaleStrings
+            LocaleData.TxPullResponseData data = new LocaleData.TxPullResponseData(localeStrings.getMap());
+            mGson.toJson(data, writer);
+        } finally {
+            writer.close();
+        }
+    }
+
     /**
      * Loads a {@link LocaleData.TranslationMap} from the provided source directory.
      *
@@ -198,36 +342,72 @@ public class TranslationMapStorage {
                 continue;
             }
 
-            // Read locale file
-            AbstractFile localeFile = fileProvider.getFile(localeDir.getPath() + File.separator + mFilename);
-            InputStream fileInputStream = null;
-            Reader reader = null;
-            try {
-                fileInputStream = localeFile.open();
-                reader = new BufferedReader(new InputStreamReader(fileInputStream, "UTF-8"));
-                LocaleData.TxPullResponseData data = mGson.fromJson(reader, LocaleData.TxPullResponseData.class);
-                if (data == null || data.data == null) {
-                    LOGGER.log(Level.SEVERE, "File has incorrect format: " + localeFile.getAbsolutePath());
-                    continue;
-                }
-                translationMap.put(locale, new LocaleData.LocaleStrings(data.data));
-            } catch (FileNotFoundException e) {
-                LOGGER.log(Level.WARNING, "File for locale \"" + locale + "\" does not exist: " + localeFile.getAbsolutePath());
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Error reading file " +  localeFile.getAbsolutePath() + " : " + e);
+            LocaleData.LocaleStrings localeStrings = localeFromDisk(fileProvider, localeDir, locale);
+            if (localeStrings != null) {
+                translationMap.put(locale, localeStrings);
             }
-            catch (JsonSyntaxException e){
-                LOGGER.log(Level.SEVERE, "Error parsing file " +  localeFile.getAbsolutePath() + " : " + e);
-            } finally {
-                try {
-                    if (reader != null) {
-                        reader.close();
-                    } else if (fileInputStream != null) {
-                        fileInputStream.close();
-                    }
-                } catch (IOException ignored) {}
+        }
+
+        if (translationMap.isEmpty()) {
+            return  null;
+        }
+
+        return translationMap;
+    }
+
+    /**
+     * Loads a {@link LocaleData.TranslationMap} from the provided source directory, loading the
+     * locales concurrently.
+     * <p>
+     * Each locale is read and parsed as a separate task. The calling thread takes part in loading
+     * the locales and the method returns when all of them have been loaded, so the result is the
+     * same as the one of {@link #fromDisk(File)}.
+     *
+     * @param srcDirectory The directory containing translations in the expected format.
+     * @param executor The executor that provides additional threads for loading the locales.
+     *
+     * @return The translation map or <code>null</code> if the directory isn't found or it's empty.
+     * If some locales fail to load, they won't be added in the returned map.
+     */
+    public @Nullable LocaleData.TranslationMap fromDisk(@NonNull File srcDirectory, @NonNull Executor executor) {
+        return fromDisk(mFileProvider, mFileProvider.getFile(srcDirectory.getPath()), executor);
+    }
+
+    /**
+     * Loads a {@link LocaleData.TranslationMap} from the provided source directory, loading the
+     * locales concurrently.
+     * <p>
+     * This is a more general version of {@link #fromDisk(File, Executor)}, which can use different
+     * file providers. The file provider should be thread-safe.
+     */
+    protected @Nullable
+    LocaleData.TranslationMap fromDisk(@NonNull final AbstractFileProvider fileProvider,
+                                       @NonNull final AbstractFile srcDirectory,
+                                       @NonNull Executor executor) {
+        final String[] localeDirNames =  srcDirectory.list();
+        if (localeDirNames == null) {
+            LOGGER.log(Level.SEVERE, "The directory does not exist: " + srcDirectory.getAbsolutePath());
+            return null;
+        }
+
+        // Each task writes to its own slot
+        final LocaleData.LocaleStrings[] localeStringsArray = new LocaleData.LocaleStrings[localeDirNames.length];
+        ParallelRunner.run(localeDirNames.length, new ParallelRunner.Task() {
+            @Override
+            public void run(int index) {
+                String locale = localeDirNames[index];
+                AbstractFile localeDir = fileProvider.getFile(srcDirectory.getPath() + File.separator + locale);
+                if (localeDir.isDirectory()) {
+                    localeStringsArray[index] = localeFromDisk(fileProvider, localeDir, locale);
+                }
             }
+        }, executor);
 
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(localeDirNames.length);
+        for (int i = 0; i < localeDirNames.length; i++) {
+            if (localeStringsArray[i] != null) {
+                translationMap.put(localeDirNames[i], localeStringsArray[i]);
+            }
         }
 
         if (translationMap.isEmpty()) {
@@ -237,6 +417,371 @@ public class TranslationMapStorage {
         return translationMap;
     }
 
+    /**
+     * Loads the translations of a single locale from the provided source directory.
+     *
+     * @param srcDirectory The directory containing translations in the expected format.
+     * @param locale The locale to load.
+     *
+     * @return The translations or <code>null</code> if they are not found or can't be loaded.
+     */
+    public @Nullable LocaleData.LocaleStrings localeFromDisk(@NonNull File srcDirectory, @NonNull String locale) {
+        return localeFromDisk(mFileProvider,
+                mFileProvider.getFile(srcDirectory.getPath() + File.separator + locale), locale);
+    }
+
+    /**
+     * Loads the translations of a locale from the provided locale directory.
+     * <p>
+     * This is a more general version of {@link #localeFromDisk(File, String)}, which can use
+     * different file providers.
+     */
+    protected @Nullable LocaleData.LocaleStrings localeFromDisk(@NonNull AbstractFileProvider fileProvider,
+                                                                @NonNull AbstractFile localeDir,
+                                                                @NonNull String locale) {
+        // Prefer the binary file, if available
+        if (mBinaryFilename != null && !mIncludeMeta) {
+            AbstractFile binaryFile = fileProvider.getFile(localeDir.getPath() + File.separator + mBinaryFilename);
+            LocaleData.LocaleStrings localeStrings = readBinary(fileProvider, binaryFile);
+            if (localeStrings != null) {
+                localeStrings.setETag(readETag(fileProvider.getFile(localeDir.getPath()
+                        + File.separator + mFilename + ETAG_FILE_SUFFIX)));
+                return localeStrings;
+            }
+        }
+
+        // Read locale file
+        AbstractFile localeFile = fileProvider.getFile(localeDir.getPath() + File.separator + mFilename);
+        InputStream fileInputStream = null;
+        Reader reader = null;
+        try {
+            fileInputStream = localeFile.open();
+            Manifest manifest = readManifest(fileProvider.getFile(localeFile.getPath() + MANIFEST_FILE_SUFFIX));
+            if (manifest != null) {
+                // Verify the file before paying for parsing it
+                byte[] content = readVerified(fileInputStream, manifest);
+                if (content == null) {
+                    LOGGER.log(Level.SEVERE, "File does not match its manifest: " + localeFile.getAbsolutePath());
+                    return null;
+                }
+                fileInputStream = new ByteArrayInputStream(content);
+            }
+            reader = new BufferedReader(new InputStreamReader(fileInputStream, "UTF-8"));
+            LocaleData.LocaleStrings localeStrings = LocaleStringsParser.parse(reader, 0, mIncludeMeta);
+            if (localeStrings == null) {
+                LOGGER.log(Level.SEVERE, "File has incorrect format: " + localeFile.getAbsolutePath());
+                return null;
+            }
+            localeStrings.setETag(readETag(fileProvider.getFile(localeFile.getPath() + ETAG_FILE_SUFFIX)));
+            return localeStrings;
+        } catch (FileNotFoundException e) {
+            LOGGER.log(Level.WARNING, "File for locale \"" + locale + "\" does not exist: " + localeFile.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading file " +  localeFile.getAbsolutePath() + " : " + e);
+        }
+        catch (JsonSyntaxException e){
+            LOGGER.log(Level.SEVERE, "Error parsing file " +  localeFile.getAbsolutePath() + " : " + e);
+        } finally {
+            try {
+                if (reader != null) {
+                    reader.close();
+                } else if (fileInputStream != null) {
+                    fileInputStream.close();
+                }
+            } catch (IOException ignored) {}
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the ETag file of the provided translation file and the provided binary file, along
+     * with its manifest. Should be called before the translation file is replaced, so that they
+     * are never found next to content they don't belong to.
+     *
+     * @param translationFile The JSON translation file.
+     * @param binaryFile The binary translation file, if any.
+     *
+     * @throws IOException If a file can't be deleted.
+     */
+    static void invalidateLocaleFiles(@NonNull File translationFile, @Nullable File binaryFile)
+            throws IOException {
+        deleteFile(new File(translationFile.getPath() + ETAG_FILE_SUFFIX));
+        if (binaryFile != null) {
+            deleteFile(binaryFile);
+            deleteFile(new File(binaryFile.getPath() + MANIFEST_FILE_SUFFIX));
+        }
+    }
+
+    private static void deleteFile(@NonNull File file) throws IOException {
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Could not delete " + file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Writes the provided translations to a binary translation file and its manifest. If writing
+     * fails, the file is deleted, so that a stale binary file does not shadow the JSON file.
+     * <p>
+     * The file is written to a temporary file which then replaces the binary file. This way, an
+     * existing binary file is never truncated while a {@link MappedTranslationBundle} maps it.
+     *
+     * @return <code>true</code> if the operation was successful, <code>false</code> otherwise.
+     */
+    static boolean writeBinary(@NonNull LocaleData.LocaleStrings localeStrings, @NonNull File binaryFile) {
+        File tempFile = new File(binaryFile.getPath() + TEMP_FILE_SUFFIX);
+        try {
+            CheckedOutputStream checkedOutputStream = new CheckedOutputStream(
+                    new FileOutputStream(tempFile, false), new CRC32());
+            OutputStream outputStream = new BufferedOutputStream(checkedOutputStream);
+            try {
+                TranslationBundle.write(localeStrings, outputStream);
+            } finally {
+                outputStream.close();
+            }
+            commitTranslationFile(tempFile, binaryFile, checkedOutputStream.getChecksum().getValue());
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing file " + binaryFile.getAbsolutePath() + " : " + e);
+            tempFile.delete();
+            binaryFile.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Reads a binary translation file, verifying it against its manifest, if any.
+     *
+     * @return The translations or <code>null</code> if the file does not exist, can't be read or
+     * does not match its manifest.
+     */
+    static @Nullable LocaleData.LocaleStrings readBinary(@NonNull AbstractFileProvider fileProvider,
+                                                         @NonNull AbstractFile binaryFile) {
+        try {
+            InputStream inputStream = binaryFile.open();
+            Manifest manifest = readManifest(fileProvider.getFile(binaryFile.getPath() + MANIFEST_FILE_SUFFIX));
+            if (manifest != null) {
+                byte[] content = readVerified(inputStream, manifest);
+                if (content == null) {
+                    LOGGER.log(Level.WARNING, "File does not match its manifest: " + binaryFile.getAbsolutePath());
+                    return null;
+                }
+                return TranslationBundle.read(ByteBuffer.wrap(content));
+            }
+            return TranslationBundle.read(inputStream);
+        } catch (FileNotFoundException ignored) {
+            // The binary file is optional
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error reading file " + binaryFile.getAbsolutePath() + " : " + e);
+        }
+        return null;
+    }
+
+    /**
+     * Writes the provided ETag in the ETag file of the provided translation file. If the ETag is
+     * <code>null</code>, any existing ETag file is deleted.
+     *
+     * @return <code>true</code> if the operation was successful, <code>false</code> otherwise.
+     */
+    static boolean writeETag(@NonNull File translationFile, @Nullable String etag) {
+        File etagFile = new File(translationFile.getPath() + ETAG_FILE_SUFFIX);
+        if (etag == null) {
+            return !etagFile.exists() || etagFile.delete();
+        }
+
+        File tempFile = new File(etagFile.getPath() + TEMP_FILE_SUFFIX);
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile, false), "UTF-8");
+            try {
+                writer.write(etag);
+            } finally {
+                writer.close();
+            }
+            replaceFile(tempFile, etagFile);
+            return true;
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing file " + etagFile.getAbsolutePath() + " : " + e);
+            // Don't leave a stale ETag behind
+            tempFile.delete();
+            etagFile.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Replaces the provided translation file with the provided, fully written, temporary file and
+     * updates the translation file's manifest.
+     * <p>
+     * The old manifest is deleted before the translation file is replaced, so that an interruption
+     * never leaves a translation file next to a manifest that doesn't describe it.
+     *
+     * @param tempFile The temporary file holding the new content of the translation file.
+     * @param translationFile The translation file.
+     * @param crc The CRC32 checksum of the temporary file's content.
+     *
+     * @throws IOException If the temporary file can't be renamed.
+     */
+    static void commitTranslationFile(@NonNull File tempFile, @NonNull File translationFile,
+                                      long crc) throws IOException {
+        long length = tempFile.length();
+        File manifestFile = new File(translationFile.getPath() + MANIFEST_FILE_SUFFIX);
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            throw new IOException("Could not delete " + manifestFile.getAbsolutePath());
+        }
+        replaceFile(tempFile, translationFile);
+        writeManifest(manifestFile, new Manifest(length, crc));
+    }
+
+    /**
+     * Replaces the destination file with the provided, fully written, temporary file, so that
+     * readers see either the old or the new content, never a partially written file.
+     *
+     * @throws IOException If the temporary file can't be renamed.
+     */
+    static void replaceFile(@NonNull File tempFile, @NonNull File dstFile) throws IOException {
+        // renameTo() does not replace an existing file on some platforms
+        if (!tempFile.renameTo(dstFile)
+                && !(dstFile.delete() && tempFile.renameTo(dstFile))) {
+            throw new IOException("Could not rename " + tempFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Reads the ETag stored in the provided ETag file.
+     *
+     * @return The ETag or <code>null</code> if the file does not exist or can't be read.
+     */
+    static @Nullable String readETag(@NonNull AbstractFile etagFile) {
+        try {
+            String etag = Utils.readInputStream(etagFile.open());
+            return etag.isEmpty() ? null : etag;
+        } catch (IOException ignored) {
+            // The ETag file is optional
+            return null;
+        }
+    }
+
+    //region Manifest
+
+    /**
+     * The length and checksum of a translation file.
+     */
+    static class Manifest {
+
+        final long length;
+        final long crc;
+
+        Manifest(long length, long crc) {
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * Writes the provided manifest. If writing fails, the manifest file is deleted, so that the
+     * translation file is loaded without verification.
+     */
+    private static void writeManifest(@NonNull File manifestFile, @NonNull Manifest manifest) {
+        File tempFile = new File(manifestFile.getPath() + TEMP_FILE_SUFFIX);
+        try {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile, false), "UTF-8");
+            try {
+                writer.write(manifest.length + " " + Long.toHexString(manifest.crc));
+            } finally {
+                writer.close();
+            }
+            replaceFile(tempFile, manifestFile);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error writing file " + manifestFile.getAbsolutePath() + " : " + e);
+            tempFile.delete();
+            manifestFile.delete();
+        }
+    }
+
+    /**
+     * Reads the provided manifest file.
+     *
+     * @return The manifest or <code>null</code> if the file does not exist or can't be read.
+     */
+    static @Nullable Manifest readManifest(@NonNull AbstractFile manifestFile) {
+        String content;
+        try {
+            content = Utils.readInputStream(manifestFile.open());
+        } catch (IOException ignored) {
+            // The manifest file is optional
+            return null;
+        }
+
+        int separatorIndex = content.indexOf(' ');
+        if (separatorIndex == -1) {
+            LOGGER.log(Level.WARNING, "Invalid manifest file: " + manifestFile.getAbsolutePath());
+            return null;
+        }
+        try {
+            return new Manifest(Long.parseLong(content.substring(0, separatorIndex)),
+                    Long.parseLong(content.substring(separatorIndex + 1).trim(), 16));
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Invalid manifest file: " + manifestFile.getAbsolutePath());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the provided stream and closes it.
+     *
+     * @return The content of the stream or <code>null</code> if its length or checksum does not
+     * match the provided manifest.
+     */
+    static @Nullable byte[] readVerified(@NonNull InputStream inputStream,
+                                         @NonNull Manifest manifest) throws IOException {
+        if (manifest.length < 0 || manifest.length > Integer.MAX_VALUE) {
+            inputStream.close();
+            return null;
+        }
+
+        byte[] content = new byte[(int) manifest.length];
+        try {
+            int offset = 0;
+            int read;
+            while (offset < content.length
+                    && (read = inputStream.read(content, offset, content.length - offset)) != -1) {
+                offset += read;
+            }
+            // The file must end exactly where the manifest says
+            if (offset != content.length || inputStream.read() != -1) {
+                return null;
+            }
+        } finally {
+            inputStream.close();
+        }
+
+        Checksum checksum = new CRC32();
+        checksum.update(content, 0, content.length);
+        if (checksum.getValue() != manifest.crc) {
+            return null;
+        }
+        return content;
+    }
+
+    /**
+     * An output stream that discards the written bytes and counts them.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    //endregion
+
     //region IOFile
 
     /**
@@ -1,15 +1,24 @@
 package com.transifex.common;
 
+import com.google.gson.JsonSyntaxException;
+
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,17 +46,36 @@ public class TranslationsDownloader {
      * <p>
      * Each downloaded file is added on the <code>filesMap</code> using the respective locale code
      * as key.
+     * <p>
+     * The ETag of each downloaded file is stored next to it, as described in
+     * {@link TranslationMapStorage}. If a file and its ETag already exist, the file is only
+     * downloaded if its content has changed. The ETag is written after the file and its binary
+     * file, so that it never describes a file that has not been fully written.
+     * <p>
+     * If a binary filename is provided, each file is also converted to a binary translation file,
+     * encoded using {@link TranslationBundle}. If an executor is provided, the conversions are
+     * deferred until {@link #writeBinaryFiles(Executor)} is called, which runs them concurrently.
      */
-    private static class DownloadTranslationsCallback implements CDSHandler.FetchCallback {
+    private static class DownloadTranslationsCallback implements CDSHandler.ConditionalFetchCallback {
 
         File directory;
         String filename;
+        String binaryFilename;
+        boolean deferBinaryFiles;
 
         HashMap<String, File> filesMap = new HashMap<>(0);
+        // The locales whose binary file should be written, mapped to whether it should be written
+        // only if it's missing
+        HashMap<String, Boolean> pendingBinaryFiles = new HashMap<>(0);
+        // The ETags to write after the respective pending binary files have been written
+        HashMap<String, String> pendingETags = new HashMap<>(0);
 
-        public DownloadTranslationsCallback(@NonNull File directory, @NonNull String filename) {
+        public DownloadTranslationsCallback(@NonNull File directory, @NonNull String filename,
+                                            @Nullable String binaryFilename, boolean deferBinaryFiles) {
             this.directory = directory;
             this.filename = filename;
+            this.binaryFilename = binaryFilename;
+            this.deferBinaryFiles = deferBinaryFiles && binaryFilename != null;
         }
 
         @Override
@@ -55,30 +83,148 @@ public class TranslationsDownloader {
             filesMap = new HashMap<>(localeCodes.length);
         }
 
+        private @NonNull File getLocaleFile(@NonNull String localeCode) {
+            return new File(directory.getAbsolutePath() + File.separator + localeCode
+                    + File.separator + filename);
+        }
+
+        @Nullable
+        @Override
+        public String getETag(@NonNull String localeCode) {
+            File localeFile = getLocaleFile(localeCode);
+            if (!localeFile.isFile()) {
+                return null;
+            }
+            return TranslationMapStorage.readETag(new TranslationMapStorage.IOFileProvider()
+                    .getFile(localeFile.getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX));
+        }
+
+        /**
+         * Converts the provided translation file to a binary translation file, if a binary
+         * filename has been set.
+         *
+         * @return <code>true</code> if the conversion was successful or not needed,
+         * <code>false</code> otherwise.
+         */
+        private @Nullable File getBinaryFile(@NonNull File localeFile) {
+            if (binaryFilename == null) {
+                return null;
+            }
+            return new File(localeFile.getParent() + File.separator + binaryFilename);
+        }
+
+        private boolean writeBinaryFile(@NonNull File localeFile, boolean onlyIfMissing) {
+            File binaryFile = getBinaryFile(localeFile);
+            if (binaryFile == null) {
+                return true;
+            }
+            if (onlyIfMissing && binaryFile.isFile()) {
+                return true;
+            }
+
+            LocaleData.LocaleStrings localeStrings = null;
+            try {
+                Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(localeFile), "UTF-8"));
+                try {
+                    localeStrings = LocaleStringsParser.parse(reader, 0, false);
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | JsonSyntaxException e) {
+                LOGGER.log(Level.SEVERE, "Error parsing file " + localeFile.getAbsolutePath() + " : " + e);
+            }
+            if (localeStrings == null) {
+                binaryFile.delete();
+                return false;
+            }
+            return TranslationMapStorage.writeBinary(localeStrings, binaryFile);
+        }
+
+        /**
+         * Writes the binary files whose conversion has been deferred, running the conversions
+         * concurrently, and adds the respective locales to <code>filesMap</code>.
+         */
+        void writeBinaryFiles(@NonNull Executor executor) {
+            final String[] localeCodes = pendingBinaryFiles.keySet().toArray(new String[0]);
+            final boolean[] written = new boolean[localeCodes.length];
+            ParallelRunner.run(localeCodes.length, new ParallelRunner.Task() {
+                @Override
+                public void run(int index) {
+                    String localeCode = localeCodes[index];
+                    File localeFile = getLocaleFile(localeCode);
+                    written[index] = writeBinaryFile(localeFile, pendingBinaryFiles.get(localeCode));
+                    if (written[index] && pendingETags.containsKey(localeCode)) {
+                        TranslationMapStorage.writeETag(localeFile, pendingETags.get(localeCode));
+                    }
+                }
+            }, executor);
+
+            for (int i = 0; i < localeCodes.length; i++) {
+                if (written[i]) {
+                    filesMap.put(localeCodes[i], getLocaleFile(localeCodes[i]));
+                }
+            }
+            pendingBinaryFiles.clear();
+            pendingETags.clear();
+        }
+
+        @Override
+        public void onTranslationNotModified(@NonNull String localeCode) {
+            File localeFile = getLocaleFile(localeCode);
+            if (deferBinaryFiles) {
+                pendingBinaryFiles.put(localeCode, true);
+            }
+            else if (writeBinaryFile(localeFile, true)) {
+                filesMap.put(localeCode, localeFile);
+            }
+        }
+
         @Override
         public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode, @Nullable Exception exception) {
+            onTranslationFetched(inputStream, localeCode, null, exception);
+        }
+
+        @Override
+        public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode,
+                                         @Nullable String etag, @Nullable Exception exception) {
             if (inputStream == null) {
                 return;
             }
 
-            File localeDir = new File(directory.getAbsolutePath() + File.separator + localeCode);
-            localeDir.mkdirs();
+            File localeFile = getLocaleFile(localeCode);
+            localeFile.getParentFile().mkdirs();
+            File tempFile = new File(localeFile.getPath() + TranslationMapStorage.TEMP_FILE_SUFFIX);
 
-            File localeFile = new File(localeDir.getAbsolutePath() + File.separator + filename);
             try {
-                FileOutputStream fileOutputStream = new FileOutputStream(localeFile, false);
+                TranslationMapStorage.invalidateLocaleFiles(localeFile, getBinaryFile(localeFile));
+                FileOutputStream fileOutputStream = new FileOutputStream(tempFile, false);
 
                 FileChannel fileChannel = fileOutputStream.getChannel();
-                ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream);
-                fileChannel.transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
-                readableByteChannel.close();
-                fileChannel.close();
+                CheckedInputStream checkedInputStream = new CheckedInputStream(inputStream, new CRC32());
+                ReadableByteChannel readableByteChannel = Channels.newChannel(checkedInputStream);
+                try {
+                    fileChannel.transferFrom(readableByteChannel, 0, Long.MAX_VALUE);
+                } finally {
+                    readableByteChannel.close();
+                    fileChannel.close();
+                }
+                TranslationMapStorage.commitTranslationFile(tempFile, localeFile,
+                        checkedInputStream.getChecksum().getValue());
 
-                filesMap.put(localeCode, localeFile);
+                if (deferBinaryFiles) {
+                    pendingBinaryFiles.put(localeCode, false);
+                    pendingETags.put(localeCode, etag);
+                }
+                else if (writeBinaryFile(localeFile, false)) {
+                    TranslationMapStorage.writeETag(localeFile, etag);
+                    filesMap.put(localeCode, localeFile);
+                }
             } catch (FileNotFoundException e) {
                 LOGGER.log(Level.SEVERE, "Error writing file " + localeFile.getAbsolutePath());
+                tempFile.delete();
             } catch (IOException e) {
                 LOGGER.log(Level.SEVERE, "IOException when reading response for locale " + localeCode + " : " + e);
+                tempFile.delete();
             }
         }
 
@@ -91,7 +237,8 @@ public class TranslationsDownloader {
      * <p>
      * For each locale, a subdirectory under the provided directory is created and a file containing
      * the translations is created. Note that the provided directory should already exist. If a
-     * translation file already exists, it's overwritten.
+     * translation file already exists, it's overwritten, unless its ETag shows that its content
+     * has not changed.
      *
      * @param localeCode An optional locale to fetch translations from; if  set to <code>null</code>,
      *                   it will fetch translations for the locale codes configured in the
@@ -110,6 +257,46 @@ public class TranslationsDownloader {
                                                       @Nullable Set<String> tags,
                                                       @NonNull File directory,
                                                       @NonNull String filename) {
+        return downloadTranslations(localeCode, tags, directory, filename, null);
+    }
+
+    /**
+     * Fetches translations from CDS and saves them to files, like
+     * {@link #downloadTranslations(String, Set, File, String)}, and also converts each translation
+     * file to a binary translation file, as described in {@link TranslationMapStorage}.
+     *
+     * @param binaryFilename The name of the binary translation file for a locale. If
+     *                       <code>null</code>, no binary file is written.
+     *
+     * @return A key-value map where each locale code points to the downloaded file containing the
+     * translations. A locale is included only if its binary file has been written too.
+     */
+    @NonNull
+    public HashMap<String, File> downloadTranslations(@Nullable String localeCode,
+                                                      @Nullable Set<String> tags,
+                                                      @NonNull File directory,
+                                                      @NonNull String filename,
+                                                      @Nullable String binaryFilename) {
+        return downloadTranslations(localeCode, tags, directory, filename, binaryFilename, null);
+    }
+
+    /**
+     * Fetches translations from CDS and saves them to files, like
+     * {@link #downloadTranslations(String, Set, File, String, String)}, and converts the
+     * translation files to binary translation files concurrently, after all locales have been
+     * downloaded.
+     *
+     * @param executor The executor that provides additional threads for converting the
+     *                 translation files to binary translation files. If <code>null</code>, each
+     *                 file is converted on the current thread as soon as it's downloaded.
+     */
+    @NonNull
+    public HashMap<String, File> downloadTranslations(@Nullable String localeCode,
+                                                      @Nullable Set<String> tags,
+                                                      @NonNull File directory,
+                                                      @NonNull String filename,
+                                                      @Nullable String binaryFilename,
+                                                      @Nullable Executor executor) {
         if (!directory.isDirectory()) {
             LOGGER.log(Level.SEVERE, "The provided directory does not exist: " + directory.getAbsolutePath());
             return new HashMap<>(0);
@@ -119,8 +306,12 @@ public class TranslationsDownloader {
             return new HashMap<>(0);
         }
 
-        DownloadTranslationsCallback callback = new DownloadTranslationsCallback(directory, filename);
+        DownloadTranslationsCallback callback = new DownloadTranslationsCallback(directory,
+                filename, binaryFilename, executor != null);
         mCDSHandler.fetchTranslations(localeCode, tags, callback);
+        if (executor != null) {
+            callback.writeBinaryFiles(executor);
+        }
 
         return  callback.filesMap;
     }
@@ -1,6 +1,7 @@
 package com.transifex.common;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,6 +30,24 @@ public class Utils {
         return result.toString();
     }
 
+    /**
+     * Reads an input stream to a byte array and closes it.
+     */
+    public @NonNull
+    static byte[] readInputStreamToBytes(@NonNull InputStream inputStream) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        try {
+            while ((length = inputStream.read(buffer)) != -1) {
+                result.write(buffer, 0, length);
+            }
+        } finally {
+            inputStream.close();
+        }
+
+        return result.toByteArray();
+    }
 
     /**
      * Deletes a directory including its contents
@@ -64,6 +83,124 @@ public class Utils {
         return success;
     }
 
+    /**
+     * Converts HTML entities to the final character.
+     * <p>
+     * The following entities are converted:
+     * <ul>
+     *     <li>{@code "&amp;"} to {@code "&"}</li>
+     *     <li>{@code "&lt;"} to {@code "<"}</li>
+     *     <li>{@code "&gt;"} to {@code ">"}</li>
+     *     <li>{@code "&quot;"} to {@code "\""}</li>
+     *     <li>{@code "&apos;"} to {@code "'"}</li>
+     *     <li>decimal and hexadecimal numeric entities, such as {@code "&#39;"} and
+     *     {@code "&#x27;"}</li>
+     * </ul>
+     * Anything else, including malformed entities, is kept as is. Each entity is converted once,
+     * so {@code "&amp;lt;"} results in {@code "&lt;"}.
+     * <p>
+     * The string is scanned once. If it doesn't contain an entity, the provided instance is
+     * returned.
+     *
+     * @param string A string that may contain HTML entities.
+     * @return The string with the entities converted.
+     */
+    public static @NonNull String unescapeHTMLEntities(@NonNull String string) {
+        int ampersand = string.indexOf('&');
+        if (ampersand == -1) {
+            return string;
+        }
+
+        int length = string.length();
+        StringBuilder sb = null;
+        // The start of the text that hasn't been copied to sb yet
+        int copyStart = 0;
+        while (ampersand != -1) {
+            int semicolon = string.indexOf(';', ampersand + 1);
+            if (semicolon == -1) {
+                break;
+            }
+
+            int codePoint = decodeEntity(string, ampersand + 1, semicolon);
+            if (codePoint != -1) {
+                if (sb == null) {
+                    sb = new StringBuilder(length);
+                }
+                sb.append(string, copyStart, ampersand);
+                sb.appendCodePoint(codePoint);
+                copyStart = semicolon + 1;
+                ampersand = string.indexOf('&', copyStart);
+            }
+            else {
+                ampersand = string.indexOf('&', ampersand + 1);
+            }
+        }
+
+        if (sb == null) {
+            return string;
+        }
+        sb.append(string, copyStart, length);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the code point of the entity between the provided indices, which exclude the
+     * leading {@code "&"} and the trailing {@code ";"}, or <code>-1</code> if it's not supported.
+     */
+    private static int decodeEntity(@NonNull String string, int start, int end) {
+        int length = end - start;
+        if (length < 2) {
+            return -1;
+        }
+
+        if (string.charAt(start) == '#') {
+            int radix = 10;
+            int i = start + 1;
+            if (string.charAt(i) == 'x' || string.charAt(i) == 'X') {
+                radix = 16;
+                i++;
+            }
+            if (i == end || end - i > 8) {
+                return -1;
+            }
+            int codePoint = 0;
+            for (; i < end; i++) {
+                int digit = Character.digit(string.charAt(i), radix);
+                if (digit == -1) {
+                    return -1;
+                }
+                codePoint = codePoint * radix + digit;
+            }
+            // NUL and lone surrogates are not valid characters
+            boolean isValid = codePoint != 0 && Character.isValidCodePoint(codePoint)
+                    && (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE);
+            return isValid ? codePoint : -1;
+        }
+
+        switch (length) {
+            case 2:
+                if (string.regionMatches(start, "lt", 0, 2)) {
+                    return '<';
+                }
+                if (string.regionMatches(start, "gt", 0, 2)) {
+                    return '>';
+                }
+                return -1;
+            case 3:
+                return string.regionMatches(start, "amp", 0, 3) ? '&' : -1;
+            case 4:
+                if (string.regionMatches(start, "quot", 0, 4)) {
+                    return '"';
+                }
+                if (string.regionMatches(start, "apos", 0, 4)) {
+                    return '\'';
+                }
+                return -1;
+            default:
+                return -1;
+        }
+    }
+
     /**
      * URL encodes the provided string.
      */
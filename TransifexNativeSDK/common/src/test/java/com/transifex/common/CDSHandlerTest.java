@@ -8,9 +8,17 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import javax.naming.TimeLimitExceededException;
 
@@ -48,6 +56,30 @@ public class CDSHandlerTest {
         return new LocaleData.TxPostData(data, meta);
     }
 
+    private static RetryPolicy getFastRetryPolicy() {
+        return new ExponentialBackoffRetryPolicy(1, 10, ExponentialBackoffRetryPolicy.DEFAULT_MAX_RETRIES,
+                ExponentialBackoffRetryPolicy.DEFAULT_MAX_ELAPSED_MILLIS);
+    }
+
+    // A retry policy that retries immediately and records the values it was called with
+    private static class RecordingRetryPolicy implements RetryPolicy {
+
+        final List<Integer> retryCounts = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Long> retryAfterValues = Collections.synchronizedList(new ArrayList<Long>());
+        final int maxRetries;
+
+        RecordingRetryPolicy(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        @Override
+        public long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis) {
+            retryCounts.add(retryCount);
+            retryAfterValues.add(retryAfterMillis);
+            return (retryCount < maxRetries) ? 0 : STOP;
+        }
+    }
+
     private static class DummyFetchCallback implements CDSHandler.FetchCallback {
 
         boolean onFetchingTranslationsCalled;
@@ -191,6 +223,306 @@ public class CDSHandlerTest {
         assertThat(recordedRequest.getHeader("x-native-sdk")).isEqualTo("mobile/android/" + BuildProperties.getSDKVersion());
     }
 
+    @Test
+    public void testFetchTranslationsCallback_concurrentFetches_callbackCalledOnCallingThread() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsConcurrentDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(2);
+
+        final Thread callingThread = Thread.currentThread();
+        final AtomicInteger activeCallbacks = new AtomicInteger(0);
+        final HashSet<String> fetchedLocales = new HashSet<>();
+
+        DummyFetchCallback callback = new DummyFetchCallback() {
+
+            @Override
+            public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode, @Nullable Exception exception) {
+                super.onTranslationFetched(inputStream, localeCode, exception);
+                assertThat(activeCallbacks.incrementAndGet()).isEqualTo(1);
+                assertThat(Thread.currentThread()).isSameInstanceAs(callingThread);
+                assertThat(exception).isNull();
+
+                String stringResponse = null;
+                try {
+                    stringResponse = Utils.readInputStream(inputStream);
+                } catch (IOException ignored) {}
+                if (localeCode.equals("el")) {
+                    assertThat(stringResponse).isEqualTo(CDSMockHelper.elBody);
+                }
+                else {
+                    assertThat(stringResponse).isEqualTo(CDSMockHelper.esBody);
+                }
+
+                fetchedLocales.add(localeCode);
+                activeCallbacks.decrementAndGet();
+            }
+        };
+
+        cdsHandler.fetchTranslations(null, null, callback);
+
+        assertThat(callback.onFetchingTranslationsCalled).isTrue();
+        assertThat(callback.onFailureCalled).isFalse();
+        assertThat(fetchedLocales).containsExactly("el", "es");
+    }
+
+    @Test
+    public void testFetchTranslations_concurrentFetches_normalResponse() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsConcurrentDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(4);
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("el", "es");
+
+        LocaleData.LocaleStrings elStrings = map.get("el");
+        assertThat(elStrings).isNotNull();
+        assertThat(elStrings.get("test_key")).isEqualTo("Καλημέρα");
+
+        LocaleData.LocaleStrings esStrings = map.get("es");
+        assertThat(esStrings).isNotNull();
+        assertThat(esStrings.get("test_key")).isEqualTo("Buenos días");
+    }
+
+    @Test
+    public void testFetchTranslations_concurrentFetches_onlyElInResponse() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(2);
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("el");
+        assertThat(map.get("el").get("test_key")).isEqualTo("Καλημέρα");
+    }
+
+    @Test
+    public void testFetchTranslationsCallback_concurrentFetchesWorkerThrows_reportFailure() throws InterruptedException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEs202OnceDispatcher(1));
+
+        String[] localeCodes = new String[]{"el", "es"};
+        final CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(2);
+        cdsHandler.setRetryPolicy(new RetryPolicy() {
+            @Override
+            public long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis) {
+                throw new IllegalStateException("Policy failure");
+            }
+        });
+        final HashMap<String, Exception> exceptions = new HashMap<>();
+        final DummyFetchCallback callback = new DummyFetchCallback() {
+            @Override
+            public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode, @Nullable Exception exception) {
+                super.onTranslationFetched(inputStream, localeCode, exception);
+                exceptions.put(localeCode, exception);
+            }
+        };
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cdsHandler.fetchTranslations(null, null, callback);
+            }
+        });
+
+        thread.start();
+        thread.join(5000);
+
+        assertThat(thread.isAlive()).isFalse();
+        assertThat(exceptions.keySet()).containsExactly("el", "es");
+        assertThat(exceptions.get("el")).hasCauseThat().isInstanceOf(IllegalStateException.class);
+        assertThat(exceptions.get("es")).hasCauseThat().isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testFetchTranslationsCallback_concurrentFetchesInterrupted_reportPendingLocales() throws InterruptedException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEs202OnceDispatcher(5));
+
+        String[] localeCodes = new String[]{"el", "es"};
+        final CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(2);
+        cdsHandler.setRetryPolicy(new RetryPolicy() {
+            @Override
+            public long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis) {
+                return 10000;
+            }
+        });
+        final HashMap<String, Exception> exceptions = new HashMap<>();
+        final DummyFetchCallback callback = new DummyFetchCallback() {
+            @Override
+            public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode, @Nullable Exception exception) {
+                super.onTranslationFetched(inputStream, localeCode, exception);
+                exceptions.put(localeCode, exception);
+            }
+        };
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cdsHandler.fetchTranslations(null, null, callback);
+            }
+        });
+
+        thread.start();
+        assertThat(cdsMock.getServer().takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        assertThat(cdsMock.getServer().takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        thread.interrupt();
+        thread.join(5000);
+
+        assertThat(thread.isAlive()).isFalse();
+        assertThat(exceptions.keySet()).containsExactly("el", "es");
+        assertThat(exceptions.get("el")).isInstanceOf(CancellationException.class);
+        assertThat(exceptions.get("es")).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void testSetMaxConcurrentFetches_invalidValue_throwException() {
+        CDSHandler cdsHandler = new CDSHandler(null, "token", null, "invalidHostURL");
+
+        IllegalArgumentException exception = null;
+        try {
+            cdsHandler.setMaxConcurrentFetches(0);
+        } catch (IllegalArgumentException e) {
+            exception = e;
+        }
+
+        assertThat(exception).isNotNull();
+        assertThat(cdsHandler.getMaxConcurrentFetches()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSetTimeouts_invalidValue_throwException() {
+        CDSHandler cdsHandler = new CDSHandler(null, "token", null, "invalidHostURL");
+
+        IllegalArgumentException connectException = null;
+        try {
+            cdsHandler.setConnectTimeout(-1);
+        } catch (IllegalArgumentException e) {
+            connectException = e;
+        }
+        IllegalArgumentException readException = null;
+        try {
+            cdsHandler.setReadTimeout(-1);
+        } catch (IllegalArgumentException e) {
+            readException = e;
+        }
+
+        assertThat(connectException).isNotNull();
+        assertThat(readException).isNotNull();
+        assertThat(cdsHandler.getConnectTimeout()).isEqualTo(CDSHandler.DEFAULT_CONNECT_TIMEOUT_MILLIS);
+        assertThat(cdsHandler.getReadTimeout()).isEqualTo(CDSHandler.DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void testFetchTranslations_readTimeoutExceeded_skipLocale() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElDelayedEsDispatcher(2000));
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setReadTimeout(200);
+
+        long startTime = System.nanoTime();
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("es");
+        assertThat(elapsedMillis).isLessThan(2000);
+    }
+
+    @Test
+    public void testFetchTranslations_cancelledBeforeStart_skipAllLocales() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        FetchHandle handle = new FetchHandle();
+        handle.cancel();
+
+        final List<String> cancelledLocales = Collections.synchronizedList(new ArrayList<String>());
+        cdsHandler.fetchTranslations(null, null, new DummyFetchCallback() {
+            @Override
+            public void onTranslationFetched(@Nullable InputStream inputStream, @NonNull String localeCode, @Nullable Exception exception) {
+                if (exception instanceof CancellationException) {
+                    cancelledLocales.add(localeCode);
+                }
+            }
+        }, handle);
+
+        assertThat(handle.isCancelled()).isTrue();
+        assertThat(cancelledLocales).containsExactly("el", "es").inOrder();
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testFetchTranslations_cancelDuringRequest_abortConnectionAndSkipRemainingLocales() throws InterruptedException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElDelayedEsDispatcher(3000));
+
+        String[] localeCodes = new String[]{"el", "es"};
+        final CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        final FetchHandle handle = new FetchHandle();
+        final LocaleData.TranslationMap[] map = new LocaleData.TranslationMap[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                map[0] = cdsHandler.fetchTranslations(null, null, (LocaleData.TranslationMap) null, handle);
+            }
+        });
+
+        long startTime = System.nanoTime();
+        thread.start();
+        // Cancel as soon as the server receives the request for "el"
+        assertThat(cdsMock.getServer().takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        handle.cancel();
+        thread.join(5000);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        assertThat(thread.isAlive()).isFalse();
+        assertThat(map[0]).isNotNull();
+        assertThat(map[0].getLocales()).isEmpty();
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(1);
+        assertThat(elapsedMillis).isLessThan(3000);
+    }
+
+    @Test
+    public void testFetchTranslations_cancelWhileWaitingToRetry_stopRetrying() throws InterruptedException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEs202OnceDispatcher(5));
+
+        String[] localeCodes = new String[]{"el"};
+        final CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(new RetryPolicy() {
+            @Override
+            public long getRetryDelayMillis(int retryCount, long elapsedMillis, long retryAfterMillis) {
+                return 10000;
+            }
+        });
+        final FetchHandle handle = new FetchHandle();
+        final LocaleData.TranslationMap[] map = new LocaleData.TranslationMap[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                map[0] = cdsHandler.fetchTranslations(null, null, (LocaleData.TranslationMap) null, handle);
+            }
+        });
+
+        long startTime = System.nanoTime();
+        thread.start();
+        assertThat(cdsMock.getServer().takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+        handle.cancel();
+        thread.join(5000);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+        assertThat(thread.isAlive()).isFalse();
+        assertThat(map[0]).isNotNull();
+        assertThat(map[0].getLocales()).isEmpty();
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(1);
+        assertThat(elapsedMillis).isLessThan(10000);
+    }
+
     @Test
     public void testFetchTranslations_badURL() {
         String[] localeCodes = new String[]{"el", "es"};
@@ -304,6 +636,7 @@ public class CDSHandlerTest {
 
         String[] localeCodes = new String[]{"el", "es"};
         CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
 
         LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
         assertThat(map).isNotNull();
@@ -328,10 +661,61 @@ public class CDSHandlerTest {
 
         String[] localeCodes = new String[]{"el", "es"};
         CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).isEmpty();
+    }
+
+    @Test
+    public void testFetchTranslations_202WithRetryAfter_passRetryAfterToRetryPolicy() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEs202OnceDispatcher(2, "3"));
+
+        String[] localeCodes = new String[]{"el"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        RecordingRetryPolicy retryPolicy = new RecordingRetryPolicy(20);
+        cdsHandler.setRetryPolicy(retryPolicy);
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("el");
+        assertThat(retryPolicy.retryCounts).containsExactly(0, 1).inOrder();
+        assertThat(retryPolicy.retryAfterValues).containsExactly(3000L, 3000L);
+    }
+
+    @Test
+    public void testFetchTranslations_202AndRetryPolicyStops_giveUp() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEs202OnceDispatcher(5));
+
+        String[] localeCodes = new String[]{"el"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        RecordingRetryPolicy retryPolicy = new RecordingRetryPolicy(2);
+        cdsHandler.setRetryPolicy(retryPolicy);
 
         LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
         assertThat(map).isNotNull();
         assertThat(map.getLocales()).isEmpty();
+        assertThat(retryPolicy.retryCounts).containsExactly(0, 1, 2).inOrder();
+        assertThat(retryPolicy.retryAfterValues).containsExactly(-1L, -1L, -1L);
+        assertThat(cdsMock.getServer().getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        long now = 1000000;
+        assertThat(CDSHandler.parseRetryAfter(null, now)).isEqualTo(-1);
+        assertThat(CDSHandler.parseRetryAfter("", now)).isEqualTo(-1);
+        assertThat(CDSHandler.parseRetryAfter("invalid", now)).isEqualTo(-1);
+        assertThat(CDSHandler.parseRetryAfter("-5", now)).isEqualTo(-1);
+        assertThat(CDSHandler.parseRetryAfter("0", now)).isEqualTo(0);
+        assertThat(CDSHandler.parseRetryAfter(" 120 ", now)).isEqualTo(120000);
+
+        // 784111777000 is "Sun, 06 Nov 1994 08:49:37 GMT"
+        assertThat(CDSHandler.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", 784111777000L - 5000))
+                .isEqualTo(5000);
+        assertThat(CDSHandler.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", 784111777000L + 5000))
+                .isEqualTo(0);
     }
 
     @Test
@@ -346,6 +730,110 @@ public class CDSHandlerTest {
         assertThat(map.getLocales()).isEmpty();
     }
 
+    @Test
+    public void testFetchTranslations_storeETag() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null);
+        assertThat(map.getLocales()).containsExactly("el", "es");
+        assertThat(map.get("el").getETag()).isEqualTo(CDSMockHelper.elETag);
+        assertThat(map.get("es").getETag()).isEqualTo(CDSMockHelper.esETag);
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("If-None-Match")).isNull();
+    }
+
+    @Test
+    public void testFetchTranslations_existingTranslationsNotModified_reuseExistingLocaleStrings() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+
+        LocaleData.TranslationMap existingMap = StringTestData.getElEsTranslationMap();
+        existingMap.get("el").setETag(CDSMockHelper.elETag);
+        existingMap.get("es").setETag("\"old-es-etag\"");
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null, existingMap);
+        assertThat(map.getLocales()).containsExactly("el", "es");
+
+        // "el" has not changed
+        assertThat(map.get("el")).isSameInstanceAs(existingMap.get("el"));
+
+        // "es" has changed
+        LocaleData.LocaleStrings esStrings = map.get("es");
+        assertThat(esStrings).isNotSameInstanceAs(existingMap.get("es"));
+        assertThat(esStrings.get("test_key")).isEqualTo("Buenos días");
+        assertThat(esStrings.getETag()).isEqualTo(CDSMockHelper.esETag);
+
+        RecordedRequest elRequest = null;
+        RecordedRequest esRequest = null;
+        try {
+            elRequest = cdsMock.getServer().takeRequest();
+            esRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(elRequest).isNotNull();
+        assertThat(elRequest.getHeader("If-None-Match")).isEqualTo(CDSMockHelper.elETag);
+        assertThat(esRequest).isNotNull();
+        assertThat(esRequest.getHeader("If-None-Match")).isEqualTo("\"old-es-etag\"");
+    }
+
+    @Test
+    public void testFetchTranslations_existingTranslationsNotModified_concurrentFetches() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        cdsHandler.setMaxConcurrentFetches(2);
+
+        LocaleData.TranslationMap existingMap = StringTestData.getElEsTranslationMap();
+        existingMap.get("el").setETag(CDSMockHelper.elETag);
+
+        LocaleData.TranslationMap map = cdsHandler.fetchTranslations(null, null, existingMap);
+        assertThat(map.getLocales()).containsExactly("el", "es");
+        assertThat(map.get("el")).isSameInstanceAs(existingMap.get("el"));
+        assertThat(map.get("es").get("test_key")).isEqualTo("Buenos días");
+        assertThat(map.get("es").getETag()).isEqualTo(CDSMockHelper.esETag);
+    }
+
+    @Test
+    public void testFetchChangedTranslations_oneLocaleNotModified_returnOnlyChangedLocale() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+
+        HashMap<String, String> existingETags = new HashMap<>();
+        existingETags.put("el", CDSMockHelper.elETag);
+        existingETags.put("es", "\"old-es-etag\"");
+        HashSet<String> notModifiedLocales = new HashSet<>();
+
+        LocaleData.TranslationMap map = cdsHandler.fetchChangedTranslations(null, null,
+                existingETags, notModifiedLocales, null);
+
+        assertThat(map.getLocales()).containsExactly("es");
+        assertThat(map.get("es").get("test_key")).isEqualTo("Buenos días");
+        assertThat(map.get("es").getETag()).isEqualTo(CDSMockHelper.esETag);
+        assertThat(notModifiedLocales).containsExactly("el");
+
+        RecordedRequest elRequest = null;
+        try {
+            elRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(elRequest).isNotNull();
+        assertThat(elRequest.getHeader("If-None-Match")).isEqualTo(CDSMockHelper.elETag);
+    }
+
     @Test
     public void testPushSourceStrings_badURL() {
         CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", "invalidHostURL");
@@ -364,6 +852,7 @@ public class CDSHandlerTest {
         cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
 
         CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
 
         LocaleData.TxPostData postData = getPostData();
         LocaleData.TxJobStatus jobStatus = null;
@@ -433,4 +922,137 @@ public class CDSHandlerTest {
         assertThat(error.title).isEqualTo("Conflict error");
         assertThat(error.detail).isEqualTo("Expected plural rules '['one', 'other']' instead got '['few', 'many', 'one', 'other', 'two', 'zero']' for new resource string on source language 'en'");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPushSourceStrings_jobProcessingAndRetryPolicyStops_throwException() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        RecordingRetryPolicy retryPolicy = new RecordingRetryPolicy(0);
+        cdsHandler.setRetryPolicy(retryPolicy);
+
+        LocaleData.TxPostData postData = getPostData();
+        TimeLimitExceededException exception = null;
+        try {
+            cdsHandler.pushSourceStrings(postData);
+        } catch (TimeLimitExceededException e) {
+            exception = e;
+        }
+
+        assertThat(exception).isNotNull();
+        assertThat(retryPolicy.retryCounts).containsExactly(0);
+    }
+
+    @Test
+    public void testPushSourceStrings_producerWithChunkedStreaming_streamStrings() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
+        cdsHandler.setChunkedStreamingEnabled(true);
+
+        final LocaleData.TxPostData postData = getPostData();
+        LocaleData.TxJobStatus jobStatus = null;
+        try {
+            jobStatus = cdsHandler.pushSourceStrings(new CDSHandler.SourceStringsProducer() {
+                @Override
+                public void writeSourceStrings(@NonNull CDSHandler.SourceStringsWriter writer) throws IOException {
+                    writer.write("key1", postData.data.get("key1"));
+                    writer.write("key2", postData.data.get("key2"));
+                }
+            }, postData.meta);
+        } catch (TimeLimitExceededException ignored) {}
+
+        assertThat(jobStatus).isNotNull();
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {}
+        assertThat(recordedRequest).isNotNull();
+
+        assertThat(recordedRequest.getHeader("Transfer-Encoding")).isEqualTo("chunked");
+        assertThat(recordedRequest.getChunkSizes()).isNotEmpty();
+
+        String postBody = recordedRequest.getBody().readUtf8();
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(postBody, LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("key1", "key2").inOrder();
+        assertThat(parsedPostData.data.get("key1").string).isEqualTo("This is a source string.");
+        assertThat(parsedPostData.data.get("key2").string).isEqualTo("Using special \ncharacters εδώ.");
+        assertThat(parsedPostData.meta.purge).isTrue();
+    }
+
+    @Test
+    public void testPushSourceStrings_producerThrowsException_returnNull() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        cdsHandler.setChunkedStreamingEnabled(true);
+
+        final LocaleData.TxPostData postData = getPostData();
+        LocaleData.TxJobStatus jobStatus = null;
+        try {
+            jobStatus = cdsHandler.pushSourceStrings(new CDSHandler.SourceStringsProducer() {
+                @Override
+                public void writeSourceStrings(@NonNull CDSHandler.SourceStringsWriter writer) throws IOException {
+                    writer.write("key1", postData.data.get("key1"));
+                    throw new IOException("Could not produce strings");
+                }
+            }, postData.meta);
+        } catch (TimeLimitExceededException ignored) {}
+
+        assertThat(jobStatus).isNull();
+    }
+
+    @Test
+    public void testPushSourceStrings_gzipEnabled_compressPayload() throws IOException {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
+        cdsHandler.setGzipEnabled(true);
+
+        LocaleData.TxPostData postData = getPostData();
+        LocaleData.TxJobStatus jobStatus = null;
+        try {
+            jobStatus = cdsHandler.pushSourceStrings(postData);
+        } catch (TimeLimitExceededException ignored) {}
+
+        assertThat(jobStatus).isNotNull();
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {}
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+        String postBody = Utils.readInputStream(new GZIPInputStream(recordedRequest.getBody().inputStream()));
+        Gson gson = new Gson();
+        LocaleData.TxPostData parsedPostData = gson.fromJson(postBody, LocaleData.TxPostData.class);
+        assertThat(parsedPostData.data.keySet()).containsExactly("key1", "key2").inOrder();
+        assertThat(parsedPostData.data.get("key1").string).isEqualTo("This is a source string.");
+        assertThat(parsedPostData.data.get("key2").string).isEqualTo("Using special \ncharacters εδώ.");
+        assertThat(parsedPostData.meta.purge).isTrue();
+    }
+
+    @Test
+    public void testPushSourceStrings_gzipDisabled_noContentEncoding() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getPostDispatcher());
+
+        CDSHandler cdsHandler = new CDSHandler(null, "token", "secret", cdsMock.getBaseUrl());
+        cdsHandler.setRetryPolicy(getFastRetryPolicy());
+
+        try {
+            cdsHandler.pushSourceStrings(getPostData());
+        } catch (TimeLimitExceededException ignored) {}
+
+        RecordedRequest recordedRequest = null;
+        try {
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {}
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("Content-Encoding")).isNull();
+    }
+}
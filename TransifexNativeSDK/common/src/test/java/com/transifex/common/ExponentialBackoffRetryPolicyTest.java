@@ -0,0 +1,106 @@
+package com.transifex.common;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ExponentialBackoffRetryPolicyTest {
+
+    // A Random that always returns the same value from nextDouble()
+    private static class FixedRandom extends Random {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double value;
+
+        FixedRandom(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_minJitter_returnHalfDelay() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 60000,
+                new FixedRandom(0));
+
+        assertThat(policy.getRetryDelayMillis(0, 0, -1)).isEqualTo(50);
+        assertThat(policy.getRetryDelayMillis(1, 0, -1)).isEqualTo(100);
+        assertThat(policy.getRetryDelayMillis(2, 0, -1)).isEqualTo(200);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_maxJitter_returnFullDelay() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 60000,
+                new FixedRandom(0.99999));
+
+        assertThat(policy.getRetryDelayMillis(0, 0, -1)).isEqualTo(100);
+        assertThat(policy.getRetryDelayMillis(1, 0, -1)).isEqualTo(200);
+        assertThat(policy.getRetryDelayMillis(2, 0, -1)).isEqualTo(400);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_manyRetries_capDelay() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 100, 600000,
+                new FixedRandom(0.99999));
+
+        assertThat(policy.getRetryDelayMillis(4, 0, -1)).isEqualTo(1000);
+        assertThat(policy.getRetryDelayMillis(10, 0, -1)).isEqualTo(1000);
+        assertThat(policy.getRetryDelayMillis(99, 0, -1)).isEqualTo(1000);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_randomJitter_delayWithinBounds() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 60000);
+
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.getRetryDelayMillis(3, 0, -1);
+            assertThat(delay).isAtLeast(400);
+            assertThat(delay).isAtMost(800);
+        }
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_maxRetriesReached_stop() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 3, 60000);
+
+        assertThat(policy.getRetryDelayMillis(2, 0, -1)).isNotEqualTo(RetryPolicy.STOP);
+        assertThat(policy.getRetryDelayMillis(3, 0, -1)).isEqualTo(RetryPolicy.STOP);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_maxElapsedTimeExceeded_stop() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 10000,
+                new FixedRandom(0));
+
+        assertThat(policy.getRetryDelayMillis(0, 9950, -1)).isEqualTo(50);
+        assertThat(policy.getRetryDelayMillis(0, 9951, -1)).isEqualTo(RetryPolicy.STOP);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_retryAfterLongerThanDelay_returnRetryAfter() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 60000,
+                new FixedRandom(0));
+
+        assertThat(policy.getRetryDelayMillis(0, 0, 3000)).isEqualTo(3000);
+        assertThat(policy.getRetryDelayMillis(0, 0, 10)).isEqualTo(50);
+    }
+
+    @Test
+    public void testGetRetryDelayMillis_retryAfterExceedsMaxElapsedTime_stop() {
+        RetryPolicy policy = new ExponentialBackoffRetryPolicy(100, 1000, 20, 10000);
+
+        assertThat(policy.getRetryDelayMillis(0, 5000, 6000)).isEqualTo(RetryPolicy.STOP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_maxDelaySmallerThanInitialDelay_throwException() {
+        new ExponentialBackoffRetryPolicy(1000, 100, 20, 60000);
+    }
+}
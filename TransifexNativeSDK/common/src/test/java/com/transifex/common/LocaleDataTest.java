@@ -153,6 +153,14 @@ public class LocaleDataTest {
         assertThat(copyOfA).isEqualTo(sameAsA);
     }
 
+    @Test
+    public void testTranslationMapGetETags() {
+        LocaleData.TranslationMap a = StringTestData.getElEsTranslationMap();
+        a.get("el").setETag("etag-el");
+
+        assertThat(a.getETags()).containsExactly("el", "etag-el");
+    }
+
     @Test
     public void testTxJobStatusIsCompleted_completed_returnTrue() {
         LocaleData.TxJobStatus responseData = new LocaleData.TxJobStatus();
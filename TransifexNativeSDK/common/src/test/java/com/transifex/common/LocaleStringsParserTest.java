@@ -0,0 +1,106 @@
+package com.transifex.common;
+
+import com.google.gson.JsonSyntaxException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class LocaleStringsParserTest {
+
+    private static LocaleData.LocaleStrings parse(String json, boolean includeMeta) throws IOException {
+        return LocaleStringsParser.parse(new StringReader(json), 0, includeMeta);
+    }
+
+    @Test
+    public void testParse_normal() throws IOException {
+        String json = "{\"data\":{\"test_key\":{\"string\":\"Test\"},\"another_key\":{\"string\":\"Another\"},\"key3\":{\"string\":\"\"}}}";
+
+        LocaleData.LocaleStrings localeStrings = parse(json, false);
+
+        HashMap<String, LocaleData.StringInfo> expectedMap = new HashMap<>();
+        expectedMap.put("test_key", new LocaleData.StringInfo("Test"));
+        expectedMap.put("another_key", new LocaleData.StringInfo("Another"));
+        expectedMap.put("key3", new LocaleData.StringInfo(""));
+        assertThat(localeStrings).isNotNull();
+        assertThat(localeStrings.getMap()).isEqualTo(expectedMap);
+    }
+
+    @Test
+    public void testParse_unknownFields_ignored() throws IOException {
+        String json = "{\"meta\":{\"next\":\"foo\"},\"data\":{\"test_key\":{\"string\":\"Test\",\"extra\":[1,2]}}}";
+
+        LocaleData.LocaleStrings localeStrings = parse(json, false);
+
+        assertThat(localeStrings).isNotNull();
+        assertThat(localeStrings.get("test_key")).isEqualTo("Test");
+    }
+
+    @Test
+    public void testParse_metaSkipped() throws IOException {
+        String json = "{\"data\":{\"test_key\":{\"string\":\"Test\",\"meta\":{\"tags\":[\"a\",\"b\"]}}}}";
+
+        LocaleData.LocaleStrings localeStrings = parse(json, false);
+
+        assertThat(localeStrings).isNotNull();
+        assertThat(localeStrings.getMap().get("test_key").meta).isNull();
+    }
+
+    @Test
+    public void testParse_metaIncluded() throws IOException {
+        String json = "{\"data\":{\"test_key\":{\"string\":\"Test\",\"meta\":{\"tags\":[\"a\",\"b\"]}}}}";
+
+        LocaleData.LocaleStrings localeStrings = parse(json, true);
+
+        assertThat(localeStrings).isNotNull();
+        LocaleData.StringInfo.Meta meta = localeStrings.getMap().get("test_key").meta;
+        assertThat(meta).isNotNull();
+        assertThat(meta.tags).isEqualTo(new LinkedHashSet<>(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void testParse_emptyDocument_returnNull() throws IOException {
+        assertThat(parse("", false)).isNull();
+    }
+
+    @Test
+    public void testParse_nullDocument_returnNull() throws IOException {
+        assertThat(parse("null", false)).isNull();
+    }
+
+    @Test
+    public void testParse_noData_returnNull() throws IOException {
+        assertThat(parse("{\"meta\":{}}", false)).isNull();
+    }
+
+    @Test
+    public void testParse_badJson_throwException() throws IOException {
+        try {
+            parse("{\"data\":[]}", false);
+            fail("Expected JsonSyntaxException");
+        } catch (JsonSyntaxException ignored) {}
+    }
+
+    @Test
+    public void testParse_truncatedJson_throwException() throws IOException {
+        try {
+            parse("{\"data\":{\"test_key\":{\"string\":\"Te", false);
+            fail("Expected JsonSyntaxException");
+        } catch (JsonSyntaxException ignored) {}
+    }
+
+    @Test
+    public void testParse_trailingData_throwException() throws IOException {
+        try {
+            parse("{\"data\":{}} {}", false);
+            fail("Expected JsonSyntaxException");
+        } catch (JsonSyntaxException ignored) {}
+    }
+}
@@ -0,0 +1,133 @@
+package com.transifex.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class MappedTranslationBundleTest {
+
+    TempDirHelper tempDirHelper = null;
+
+    @Before
+    public void setUp() {
+        tempDirHelper = new TempDirHelper();
+        tempDirHelper.setUp();
+        assertThat(tempDirHelper.getFile().mkdirs()).isTrue();
+    }
+
+    @After
+    public void Teardown() {
+        if (tempDirHelper != null) {
+            tempDirHelper.tearDown();
+        }
+    }
+
+    private File writeBundle(LocaleData.LocaleStrings localeStrings) throws IOException {
+        File file = new File(tempDirHelper.getFile(), "strings.bin");
+        FileOutputStream outputStream = new FileOutputStream(file);
+        TranslationBundle.write(localeStrings, outputStream);
+        outputStream.close();
+        return file;
+    }
+
+    @Test
+    public void testGet_normal() throws IOException {
+        MappedTranslationBundle bundle = MappedTranslationBundle.open(writeBundle(StringTestData.getElLocaleStrings()));
+
+        assertThat(bundle.size()).isEqualTo(2);
+        assertThat(bundle.get("test_key")).isEqualTo("Καλημέρα");
+        assertThat(bundle.get("test_key3")).isEqualTo("");
+        assertThat(bundle.get("missing_key")).isNull();
+        assertThat(bundle.containsKey("test_key")).isTrue();
+        assertThat(bundle.containsKey("missing_key")).isFalse();
+    }
+
+    @Test
+    public void testGet_manyKeys() throws IOException {
+        HashMap<String, LocaleData.StringInfo> map = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            map.put("key_" + i, new LocaleData.StringInfo("τιμή " + i));
+        }
+        MappedTranslationBundle bundle = MappedTranslationBundle.open(writeBundle(new LocaleData.LocaleStrings(map)));
+
+        assertThat(bundle.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(bundle.get("key_" + i)).isEqualTo("τιμή " + i);
+        }
+        assertThat(bundle.get("key_5000")).isNull();
+    }
+
+    @Test
+    public void testGet_emptyBundle() throws IOException {
+        MappedTranslationBundle bundle = MappedTranslationBundle.open(writeBundle(new LocaleData.LocaleStrings(0)));
+
+        assertThat(bundle.size()).isEqualTo(0);
+        assertThat(bundle.get("test_key")).isNull();
+    }
+
+    @Test
+    public void testToLocaleStrings_normal() throws IOException {
+        MappedTranslationBundle bundle = MappedTranslationBundle.open(writeBundle(StringTestData.getElLocaleStrings()));
+
+        assertThat(bundle.toLocaleStrings()).isEqualTo(StringTestData.getElLocaleStrings());
+    }
+
+    @Test
+    public void testOpen_invalidFile_throwException() throws IOException {
+        File file = new File(tempDirHelper.getFile(), "strings.bin");
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write("invalid binary file".getBytes("UTF-8"));
+        outputStream.close();
+
+        try {
+            MappedTranslationBundle.open(file);
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+
+    @Test
+    public void testOpen_lengthDoesNotMatchManifest_throwException() throws IOException {
+        File file = new File(tempDirHelper.getFile(), "strings.bin");
+        assertThat(TranslationMapStorage.writeBinary(StringTestData.getElLocaleStrings(), file)).isTrue();
+        // The manifest matches the written file
+        MappedTranslationBundle.open(file);
+
+        // Append a byte, keeping the bundle readable
+        FileOutputStream outputStream = new FileOutputStream(file, true);
+        outputStream.write(0);
+        outputStream.close();
+
+        try {
+            MappedTranslationBundle.open(file);
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+
+    @Test
+    public void testOpen_oversizedCounts_throwException() throws IOException {
+        File file = new File(tempDirHelper.getFile(), "strings.bin");
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        TranslationBundle.write(StringTestData.getElLocaleStrings(), byteStream);
+        byte[] bytes = byteStream.toByteArray();
+        // Claim 2^30 entries and slots, which would overflow the table offsets
+        ByteBuffer.wrap(bytes).putInt(8, 1 << 30).putInt(12, 1 << 30);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(bytes);
+        outputStream.close();
+
+        try {
+            MappedTranslationBundle.open(file);
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+}
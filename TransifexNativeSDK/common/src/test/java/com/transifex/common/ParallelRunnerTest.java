@@ -0,0 +1,92 @@
+package com.transifex.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ParallelRunnerTest {
+
+    private static ParallelRunner.Task getCountingTask(final AtomicIntegerArray runCounts) {
+        return new ParallelRunner.Task() {
+            @Override
+            public void run(int index) {
+                runCounts.incrementAndGet(index);
+            }
+        };
+    }
+
+    private static void assertRunOnce(AtomicIntegerArray runCounts) {
+        for (int i = 0; i < runCounts.length(); i++) {
+            assertThat(runCounts.get(i)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testRun_threadPool_runEachIndexOnce() {
+        AtomicIntegerArray runCounts = new AtomicIntegerArray(100);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelRunner.run(runCounts.length(), getCountingTask(runCounts), executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertRunOnce(runCounts);
+    }
+
+    @Test
+    public void testRun_executorNeverRuns_runOnCallingThread() {
+        // Tasks that are never run by the executor must not block the caller
+        final ArrayList<Runnable> queuedTasks = new ArrayList<>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                queuedTasks.add(command);
+            }
+        };
+        AtomicIntegerArray runCounts = new AtomicIntegerArray(10);
+
+        ParallelRunner.run(runCounts.length(), getCountingTask(runCounts), executor);
+
+        assertRunOnce(runCounts);
+        // The queued workers find no work left
+        for (Runnable task : queuedTasks) {
+            task.run();
+        }
+        assertRunOnce(runCounts);
+    }
+
+    @Test
+    public void testRun_executorRejects_runOnCallingThread() {
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        AtomicIntegerArray runCounts = new AtomicIntegerArray(10);
+
+        ParallelRunner.run(runCounts.length(), getCountingTask(runCounts), executor);
+
+        assertRunOnce(runCounts);
+    }
+
+    @Test
+    public void testRun_zeroCount_returnImmediately() {
+        AtomicIntegerArray runCounts = new AtomicIntegerArray(0);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ParallelRunner.run(0, getCountingTask(runCounts), executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
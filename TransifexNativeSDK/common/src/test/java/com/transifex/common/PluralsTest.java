@@ -44,6 +44,62 @@ public class PluralsTest {
         assertThat(plurals).isNull();
     }
 
+    @Test
+    public void testFromICUString_nestedBraces() {
+        String icuString = "{cnt, plural, one {{cnt} task in {project}} other {{cnt} tasks in {project}}}";
+        Plurals plurals = Plurals.fromICUString(icuString);
+
+        assertThat(plurals).isNotNull();
+        assertThat(plurals.one).isEqualTo("{cnt} task in {project}");
+        assertThat(plurals.other).isEqualTo("{cnt} tasks in {project}");
+    }
+
+    @Test
+    public void testFromICUString_whitespaceAndExplicitSelector() {
+        String icuString = " {cnt,plural,\n  =0 {no tasks}\n  one{task}\n  other   {tasks}\n}";
+        Plurals plurals = Plurals.fromICUString(icuString);
+
+        assertThat(plurals).isNotNull();
+        assertThat(plurals.zero).isNull();
+        assertThat(plurals.one).isEqualTo("task");
+        assertThat(plurals.other).isEqualTo("tasks");
+    }
+
+    @Test
+    public void testFromICUString_emptyPluralString() {
+        String icuString = "{cnt, plural, one {} other {tasks}}";
+        Plurals plurals = Plurals.fromICUString(icuString);
+
+        assertThat(plurals).isNotNull();
+        assertThat(plurals.one).isEmpty();
+        assertThat(plurals.other).isEqualTo("tasks");
+    }
+
+    @Test
+    public void testFromICUString_otherNotSpecified_returnNull() {
+        String icuString = "{cnt, plural, one {task}}";
+        Plurals plurals = Plurals.fromICUString(icuString);
+
+        assertThat(plurals).isNull();
+    }
+
+    @Test
+    public void testFromICUString_unbalancedBraces_parsePreviousPlurals() {
+        String icuString = "{cnt, plural, other {tasks} one {task";
+        Plurals plurals = Plurals.fromICUString(icuString);
+
+        assertThat(plurals).isNotNull();
+        assertThat(plurals.one).isNull();
+        assertThat(plurals.other).isEqualTo("tasks");
+    }
+
+    @Test
+    public void testFromICUString_toICUString_roundTrip() {
+        String icuString = "{cnt, plural, zero {none} one {just one} two {just two} few {a few} many {many} other {other!}}";
+
+        assertThat(Plurals.fromICUString(icuString).toICUString()).isEqualTo(icuString);
+    }
+
     @Test
     public void testBuilder_normal() {
         Plurals.Builder sb = new Plurals.Builder();
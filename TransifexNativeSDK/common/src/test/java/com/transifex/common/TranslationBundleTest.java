@@ -0,0 +1,124 @@
+package com.transifex.common;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class TranslationBundleTest {
+
+    private static byte[] write(LocaleData.LocaleStrings localeStrings) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TranslationBundle.write(localeStrings, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void testWriteRead_normal() throws IOException {
+        LocaleData.LocaleStrings localeStrings = StringTestData.getElLocaleStrings();
+
+        byte[] bytes = write(localeStrings);
+
+        assertThat(TranslationBundle.read(new ByteArrayInputStream(bytes))).isEqualTo(localeStrings);
+    }
+
+    @Test
+    public void testWriteRead_empty() throws IOException {
+        LocaleData.LocaleStrings localeStrings = new LocaleData.LocaleStrings(0);
+
+        byte[] bytes = write(localeStrings);
+
+        assertThat(TranslationBundle.read(new ByteArrayInputStream(bytes))).isEqualTo(localeStrings);
+    }
+
+    @Test
+    public void testWriteRead_nullValues() throws IOException {
+        HashMap<String, LocaleData.StringInfo> map = new HashMap<>();
+        map.put("null_string_info", null);
+        //noinspection ConstantConditions
+        map.put("null_string", new LocaleData.StringInfo(null));
+        map.put("key", new LocaleData.StringInfo("value"));
+        LocaleData.LocaleStrings localeStrings = new LocaleData.LocaleStrings(map);
+
+        LocaleData.LocaleStrings readStrings = TranslationBundle.read(ByteBuffer.wrap(write(localeStrings)));
+
+        assertThat(readStrings.getMap()).containsKey("null_string_info");
+        assertThat(readStrings.getMap().get("null_string_info")).isNull();
+        assertThat(readStrings.getMap().get("null_string")).isNotNull();
+        assertThat(readStrings.get("null_string")).isNull();
+        assertThat(readStrings.get("key")).isEqualTo("value");
+    }
+
+    @Test
+    public void testWriteRead_manyKeysWithDuplicateValues() throws IOException {
+        HashMap<String, LocaleData.StringInfo> map = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, new LocaleData.StringInfo("value" + (i % 10)));
+        }
+        LocaleData.LocaleStrings localeStrings = new LocaleData.LocaleStrings(map);
+
+        byte[] bytes = write(localeStrings);
+
+        assertThat(TranslationBundle.read(ByteBuffer.wrap(bytes))).isEqualTo(localeStrings);
+    }
+
+    @Test
+    public void testRead_invalidMagic_throwException() throws IOException {
+        byte[] bytes = write(StringTestData.getElLocaleStrings());
+        bytes[0] = 'X';
+
+        try {
+            TranslationBundle.read(ByteBuffer.wrap(bytes));
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+
+    @Test
+    public void testRead_unsupportedVersion_throwException() throws IOException {
+        byte[] bytes = write(StringTestData.getElLocaleStrings());
+        bytes[5] = (byte) (TranslationBundle.VERSION + 1);
+
+        try {
+            TranslationBundle.read(ByteBuffer.wrap(bytes));
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+
+    @Test
+    public void testRead_truncated_throwException() throws IOException {
+        byte[] bytes = write(StringTestData.getElLocaleStrings());
+        bytes = Arrays.copyOf(bytes, bytes.length - 3);
+
+        try {
+            TranslationBundle.read(ByteBuffer.wrap(bytes));
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+
+    @Test
+    public void testRead_oversizedCounts_throwException() throws IOException {
+        byte[] bytes = write(StringTestData.getElLocaleStrings());
+        // Claim 2^30 entries and slots, which would overflow the table offsets
+        ByteBuffer.wrap(bytes).putInt(8, 1 << 30).putInt(12, 1 << 30);
+
+        try {
+            TranslationBundle.read(ByteBuffer.wrap(bytes));
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+
+        // Counts that don't overflow but don't fit in the data
+        ByteBuffer.wrap(bytes).putInt(8, 1 << 20).putInt(12, 1 << 20);
+
+        try {
+            TranslationBundle.read(ByteBuffer.wrap(bytes));
+            fail("Expected InvalidFormatException");
+        } catch (TranslationBundle.InvalidFormatException ignored) {}
+    }
+}
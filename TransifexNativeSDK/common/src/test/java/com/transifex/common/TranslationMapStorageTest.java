@@ -7,6 +7,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -14,6 +15,10 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -263,6 +268,40 @@ public class TranslationMapStorageTest {
         assertThat(esStrings.get("key3")).isEqualTo("");
     }
 
+    @Test
+    public void testToDiskFromDisk_withETag_keepETag() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        assertThat(files.keySet()).containsExactly("el", "es");
+        assertThat(new File(files.get("el").getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX).isFile()).isTrue();
+        assertThat(new File(files.get("es").getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX).exists()).isFalse();
+
+        LocaleData.TranslationMap readMap = storage.fromDisk(tempDirHelper.getFile());
+        assertThat(readMap).isEqualTo(translationMap);
+        assertThat(readMap.get("el").getETag()).isEqualTo("\"el-etag\"");
+        assertThat(readMap.get("es").getETag()).isNull();
+    }
+
+    @Test
+    public void testToDisk_withoutETag_deleteStaleETagFile() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+        File elETagFile = new File(files.get("el").getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX);
+        assertThat(elETagFile.isFile()).isTrue();
+
+        translationMap.get("el").setETag(null);
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+        assertThat(elETagFile.exists()).isFalse();
+
+        LocaleData.TranslationMap readMap = storage.fromDisk(tempDirHelper.getFile());
+        assertThat(readMap.get("el").getETag()).isNull();
+    }
+
     @Test
     public void testFromDisk_oneLocaleHasInvalidJson_returnTranslationMapWithTheRestLocales() {
         boolean tempDirCreated =  tempDirHelper.getFile().mkdirs();
@@ -340,4 +379,269 @@ public class TranslationMapStorageTest {
         assertThat(map).isNotNull();
         assertThat(map).isEqualTo(translationMap);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testToDisk_binaryFilename_writeBinaryFiles() throws IOException {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        assertThat(files.keySet()).containsExactly("el", "es");
+        File elBinaryFile = new File(files.get("el").getParent(), "strings.bin");
+        assertThat(elBinaryFile.isFile()).isTrue();
+        assertThat(TranslationBundle.read(new FileInputStream(elBinaryFile))).isEqualTo(translationMap.get("el"));
+        assertThat(readLocaleStrings(files.get("el"))).isEqualTo(translationMap.get("el"));
+    }
+
+    @Test
+    public void testIsOnDisk_sameTranslations_returnTrue() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        // Compare against copies, so that the content is compared and not the instances
+        LocaleData.TranslationMap otherTranslationMap = StringTestData.getElEsTranslationMap();
+        otherTranslationMap.get("el").setETag("\"el-etag\"");
+        assertThat(storage.isOnDisk(tempDirHelper.getFile(), "el", otherTranslationMap.get("el"))).isTrue();
+        assertThat(storage.isOnDisk(tempDirHelper.getFile(), "es", otherTranslationMap.get("es"))).isTrue();
+    }
+
+    @Test
+    public void testIsOnDisk_differentContentOrETag_returnFalse() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        LocaleData.LocaleStrings elStrings = StringTestData.getElEsTranslationMap().get("el");
+        elStrings.setETag("\"el-etag\"");
+        assertThat(storage.isOnDisk(tempDirHelper.getFile(), "el", elStrings)).isFalse();
+        assertThat(storage.isOnDisk(tempDirHelper.getFile(), "el", translationMap.get("es"))).isFalse();
+        assertThat(storage.isOnDisk(tempDirHelper.getFile(), "de", translationMap.get("el"))).isFalse();
+    }
+
+    @Test
+    public void testIsOnDisk_binaryFileMissing_returnFalse() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        TranslationMapStorage binaryStorage = new TranslationMapStorage("strings.txt", "strings.bin");
+        assertThat(binaryStorage.isOnDisk(tempDirHelper.getFile(), "el", translationMap.get("el"))).isFalse();
+    }
+
+    @Test
+    public void testFromDisk_binaryFileExists_preferBinaryFile() throws IOException {
+        String filename = "strings.txt";
+
+        File localeDir = new File(tempDirHelper.getFile() + File.separator + "el");
+        assertThat(localeDir.mkdirs()).isTrue();
+        assertThat(writeString(CDSMockHelper.elBody, new File(localeDir, filename))).isTrue();
+        // Write different content in the binary file to tell which file was read
+        FileOutputStream outputStream = new FileOutputStream(new File(localeDir, "strings.bin"));
+        TranslationBundle.write(StringTestData.getEsLocaleStrings(), outputStream);
+        outputStream.close();
+
+        TranslationMapStorage storage = new TranslationMapStorage(filename, "strings.bin");
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isNotNull();
+        assertThat(map.get("el")).isEqualTo(StringTestData.getEsLocaleStrings());
+
+        // The binary file is ignored if meta is requested
+        storage.setIncludeMeta(true);
+        map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isNotNull();
+        assertThat(map.get("el").get("another_key")).isEqualTo("Καλό απόγευμα");
+    }
+
+    @Test
+    public void testFromDisk_binaryFileInvalid_fallBackToJson() {
+        String filename = "strings.txt";
+
+        File localeDir = new File(tempDirHelper.getFile() + File.separator + "el");
+        assertThat(localeDir.mkdirs()).isTrue();
+        assertThat(writeString(CDSMockHelper.elBody, new File(localeDir, filename))).isTrue();
+        assertThat(writeString("invalid binary file", new File(localeDir, "strings.bin"))).isTrue();
+
+        TranslationMapStorage storage = new TranslationMapStorage(filename, "strings.bin");
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isNotNull();
+        assertThat(map.get("el").get("another_key")).isEqualTo("Καλό απόγευμα");
+    }
+
+    @Test
+    public void testToDiskAndFromDisk_binary_keepETag() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isEqualTo(translationMap);
+        assertThat(map.get("el").getETag()).isEqualTo("\"el-etag\"");
+        assertThat(map.get("es").getETag()).isNull();
+    }
+
+    @Test
+    public void testToDisk_normal_writeManifest() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+        File elFile = files.get("el");
+
+        TranslationMapStorage.Manifest manifest = TranslationMapStorage.readManifest(
+                new TranslationMapStorage.IOFileProvider().getFile(elFile.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX));
+        assertThat(manifest).isNotNull();
+        assertThat(manifest.length).isEqualTo(elFile.length());
+
+        // No temporary files are left behind
+        assertThat(elFile.getParentFile().list()).asList().containsExactly("strings.txt",
+                "strings.txt" + TranslationMapStorage.MANIFEST_FILE_SUFFIX);
+    }
+
+    @Test
+    public void testFromDisk_truncatedFile_skipLocale() throws IOException {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        // Truncate the es file, keeping valid JSON
+        assertThat(writeString("{\"data\":{}}", files.get("es"))).isTrue();
+
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("el");
+        assertThat(map.get("el")).isEqualTo(translationMap.get("el"));
+    }
+
+    @Test
+    public void testFromDisk_corruptFileSameLength_skipLocale() throws IOException {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+
+        // Change a byte of the es file
+        File esFile = files.get("es");
+        byte[] content = Files.readAllBytes(esFile.toPath());
+        content[content.length - 2] ^= 1;
+        Files.write(esFile.toPath(), content);
+
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isNotNull();
+        assertThat(map.getLocales()).containsExactly("el");
+    }
+
+    @Test
+    public void testFromDisk_corruptBinaryFile_fallBackToJson() throws IOException {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+        File elBinaryFile = new File(files.get("el").getParent(), "strings.bin");
+        assertThat(new File(elBinaryFile.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX).isFile()).isTrue();
+
+        // Replace the el binary file with a valid bundle of other content
+        FileOutputStream outputStream = new FileOutputStream(elBinaryFile);
+        TranslationBundle.write(StringTestData.getEsLocaleStrings(), outputStream);
+        outputStream.close();
+
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isEqualTo(translationMap);
+    }
+
+    @Test
+    public void testToDisk_interruptedAfterJsonFile_noStaleETagOrBinaryFile() throws IOException {
+        LocaleData.TranslationMap oldTranslationMap = StringTestData.getElTranslationMap();
+        oldTranslationMap.get("el").setETag("\"old-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        HashMap<String, File> files = storage.toDisk(oldTranslationMap, tempDirHelper.getFile());
+        File elFile = files.get("el");
+        File elBinaryFile = new File(elFile.getParent(), "strings.bin");
+
+        // The steps that toDisk() takes before writing the binary and ETag files
+        TranslationMapStorage.invalidateLocaleFiles(elFile, elBinaryFile);
+        File tempFile = new File(elFile.getPath() + TranslationMapStorage.TEMP_FILE_SUFFIX);
+        assertThat(writeString(CDSMockHelper.esBody, tempFile)).isTrue();
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(tempFile.toPath()));
+        TranslationMapStorage.commitTranslationFile(tempFile, elFile, crc.getValue());
+
+        assertThat(new File(elFile.getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX).exists()).isFalse();
+        assertThat(elBinaryFile.exists()).isFalse();
+        assertThat(new File(elBinaryFile.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX).exists()).isFalse();
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+        assertThat(map).isNotNull();
+        assertThat(map.get("el").get("test_key")).isEqualTo("Buenos días");
+        assertThat(map.get("el").getETag()).isNull();
+    }
+
+    @Test
+    public void testFromDisk_noManifest_loadWithoutVerification() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+        HashMap<String, File> files = storage.toDisk(translationMap, tempDirHelper.getFile());
+        for (File file : files.values()) {
+            assertThat(new File(file.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX).delete()).isTrue();
+        }
+
+        LocaleData.TranslationMap map = storage.fromDisk(tempDirHelper.getFile());
+
+        assertThat(map).isEqualTo(translationMap);
+    }
+
+    @Test
+    public void testReadVerified_matchingContent_returnContent() throws IOException {
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        TranslationMapStorage.Manifest manifest = new TranslationMapStorage.Manifest(content.length, crc.getValue());
+
+        assertThat(TranslationMapStorage.readVerified(new ByteArrayInputStream(content), manifest))
+                .isEqualTo(content);
+        assertThat(TranslationMapStorage.readVerified(new ByteArrayInputStream(
+                "content!".getBytes(StandardCharsets.UTF_8)), manifest)).isNull();
+        assertThat(TranslationMapStorage.readVerified(new ByteArrayInputStream(
+                "conten".getBytes(StandardCharsets.UTF_8)), manifest)).isNull();
+        assertThat(TranslationMapStorage.readVerified(new ByteArrayInputStream(
+                "Content".getBytes(StandardCharsets.UTF_8)), manifest)).isNull();
+    }
+
+    @Test
+    public void testFromDiskWithExecutor_normal_returnSameAsFromDisk() {
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt", "strings.bin");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+        // A file where a locale dir is expected is skipped
+        assertThat(writeString("some text", new File(tempDirHelper.getFile(), "de"))).isTrue();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        LocaleData.TranslationMap map;
+        try {
+            map = storage.fromDisk(tempDirHelper.getFile(), executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(map).isEqualTo(translationMap);
+        assertThat(map.get("el").getETag()).isEqualTo("\"el-etag\"");
+    }
+
+    @Test
+    public void testFromDiskWithExecutor_dirDoesNotExist_returnNullTranslationMap() {
+        TranslationMapStorage storage = new TranslationMapStorage("strings.txt");
+
+        assertThat(storage.fromDisk(tempDirHelper.getFile(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        })).isNull();
+    }
+}
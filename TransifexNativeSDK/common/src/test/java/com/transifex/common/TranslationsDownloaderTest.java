@@ -13,6 +13,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import okhttp3.mockwebserver.RecordedRequest;
 
@@ -214,6 +216,43 @@ public class TranslationsDownloaderTest {
         assertThat(elString).isEqualTo(CDSMockHelper.elBody);
     }
 
+    @Test
+    public void testSaveTranslations_consecutiveRuns_secondRunIsConditional() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+
+        String[] localeCodes = new String[]{"el"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        TranslationsDownloader downloader = new TranslationsDownloader(cdsHandler);
+        assertThat(tempDir.getFile().mkdirs()).isTrue();
+
+        HashMap<String, File> translationFiles = downloader.downloadTranslations(null, null, tempDir.getFile(), "strings.txt");
+        assertThat(translationFiles.keySet()).containsExactly("el");
+        File elETagFile = new File(translationFiles.get("el").getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX);
+        assertThat(elETagFile.isFile()).isTrue();
+        File elManifestFile = new File(translationFiles.get("el").getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX);
+        assertThat(elManifestFile.isFile()).isTrue();
+        long lastModified = translationFiles.get("el").lastModified();
+
+        translationFiles = downloader.downloadTranslations(null, null, tempDir.getFile(), "strings.txt");
+        assertThat(translationFiles.keySet()).containsExactly("el");
+        assertThat(translationFiles.get("el").lastModified()).isEqualTo(lastModified);
+
+        String elString = null;
+        try {
+            elString = Utils.readInputStream(new FileInputStream(translationFiles.get("el")));
+        } catch (IOException ignored) {}
+        assertThat(elString).isEqualTo(CDSMockHelper.elBody);
+
+        RecordedRequest recordedRequest = null;
+        try {
+            cdsMock.getServer().takeRequest();
+            recordedRequest = cdsMock.getServer().takeRequest();
+        } catch (InterruptedException ignored) {
+        }
+        assertThat(recordedRequest).isNotNull();
+        assertThat(recordedRequest.getHeader("If-None-Match")).isEqualTo(CDSMockHelper.elETag);
+    }
+
     @Test
     public void testSaveTranslations_skipExistingFileIfError() {
         cdsMock.getServer().setDispatcher(CDSMockHelper.getElDispatcher());
@@ -245,4 +284,61 @@ public class TranslationsDownloaderTest {
         assertThat(esString).isNotNull();
         assertThat(esString).isEqualTo(dummyContent);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSaveTranslations_binaryWithExecutor_writeBinaryFiles() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsDispatcher());
+        assertThat(tempDir.getFile().mkdirs()).isTrue();
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        TranslationsDownloader downloader = new TranslationsDownloader(cdsHandler);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        HashMap<String, File> translationFiles;
+        try {
+            translationFiles = downloader.downloadTranslations(null, null, tempDir.getFile(),
+                    "strings.txt", "strings.bin", executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(translationFiles.keySet()).containsExactly("el", "es");
+        for (File file : translationFiles.values()) {
+            assertThat(new File(file.getParent(), "strings.bin").isFile()).isTrue();
+        }
+
+        TranslationMapStorage jsonStorage = new TranslationMapStorage("strings.txt");
+        TranslationMapStorage binaryStorage = new TranslationMapStorage("strings.txt", "strings.bin");
+        assertThat(binaryStorage.fromDisk(tempDir.getFile())).isEqualTo(jsonStorage.fromDisk(tempDir.getFile()));
+    }
+
+    @Test
+    public void testSaveTranslations_binaryWithExecutorAndETags_writeETagsAndManifests() {
+        cdsMock.getServer().setDispatcher(CDSMockHelper.getElEsETagDispatcher());
+        assertThat(tempDir.getFile().mkdirs()).isTrue();
+
+        String[] localeCodes = new String[]{"el", "es"};
+        CDSHandler cdsHandler = new CDSHandler(localeCodes, "token", null, cdsMock.getBaseUrl());
+        TranslationsDownloader downloader = new TranslationsDownloader(cdsHandler);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        HashMap<String, File> translationFiles;
+        try {
+            translationFiles = downloader.downloadTranslations(null, null, tempDir.getFile(),
+                    "strings.txt", "strings.bin", executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(translationFiles.keySet()).containsExactly("el", "es");
+        File elFile = translationFiles.get("el");
+        File elBinaryFile = new File(elFile.getParent(), "strings.bin");
+        assertThat(new File(elBinaryFile.getPath() + TranslationMapStorage.MANIFEST_FILE_SUFFIX).isFile()).isTrue();
+        assertThat(TranslationMapStorage.readETag(new TranslationMapStorage.IOFileProvider()
+                .getFile(elFile.getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX))).isEqualTo(CDSMockHelper.elETag);
+
+        TranslationMapStorage binaryStorage = new TranslationMapStorage("strings.txt", "strings.bin");
+        LocaleData.TranslationMap map = binaryStorage.fromDisk(tempDir.getFile());
+        assertThat(map).isNotNull();
+        assertThat(map.get("el").getETag()).isEqualTo(CDSMockHelper.elETag);
+    }
+}
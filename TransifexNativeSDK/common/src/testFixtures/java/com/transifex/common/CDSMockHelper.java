@@ -3,8 +3,11 @@ package com.transifex.common;
 import com.google.gson.Gson;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -19,6 +22,8 @@ public class CDSMockHelper {
     public static final String elBody = "{\"data\":{\"test_key\":{\"string\":\"Καλημέρα\"},\"another_key\":{\"string\":\"Καλό απόγευμα\"},\"key3\":{\"string\":\"\"}}}";
     public static final String esBody = "{\"data\":{\"test_key\":{\"string\":\"Buenos días\"},\"another_key\":{\"string\":\"Buenas tardes\"},\"key3\":{\"string\":\"\"}}}";
     public static final String elBodyBadFormatting = "not a JSON format";
+    public static final String elETag = "\"el-etag\"";
+    public static final String esETag = "\"es-etag\"";
 
     //region Interface
 
@@ -127,7 +132,83 @@ public class CDSMockHelper {
         return dispatcher;
     }
 
+    // A dispatcher that includes an ETag in the "el" and "es" locale responses and responds with
+    // 304 if the request's "If-None-Match" header matches it.
+    public static Dispatcher getElEsETagDispatcher() {
+        Dispatcher dispatcher = new Dispatcher() {
+
+            @NonNull
+            @Override
+            public MockResponse dispatch (RecordedRequest request) throws InterruptedException {
+
+                String body;
+                String etag;
+                switch (request.getPath()) {
+                    case "/content/el":
+                        body = elBody;
+                        etag = elETag;
+                        break;
+                    case "/content/es":
+                        body = esBody;
+                        etag = esETag;
+                        break;
+                    default:
+                        return new MockResponse().setResponseCode(404);
+                }
+
+                if (etag.equals(request.getHeader("If-None-Match"))) {
+                    return new MockResponse().setResponseCode(304).setHeader("ETag", etag);
+                }
+                return new MockResponse().setResponseCode(200).setHeader("ETag", etag).setBody(body);
+            }
+        };
+
+        return dispatcher;
+    }
+
+    // A dispatcher that responds to the "el" and "es" locale requests only if both requests are
+    // received at the same time. Otherwise, it responds with 500 after a small timeout.
+    public static Dispatcher getElEsConcurrentDispatcher() {
+
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        Dispatcher dispatcher = new Dispatcher() {
+
+            @NonNull
+            @Override
+            public MockResponse dispatch (RecordedRequest request) throws InterruptedException {
+
+                String body;
+                switch (request.getPath()) {
+                    case "/content/el":
+                        body = elBody;
+                        break;
+                    case "/content/es":
+                        body = esBody;
+                        break;
+                    default:
+                        return new MockResponse().setResponseCode(404);
+                }
+
+                latch.countDown();
+                if (!latch.await(5, TimeUnit.SECONDS)) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return new MockResponse().setResponseCode(200).setBody(body);
+            }
+        };
+
+        return dispatcher;
+    }
+
     public static Dispatcher getElEs202OnceDispatcher(final int maxRetryTimes) {
+        return getElEs202OnceDispatcher(maxRetryTimes, null);
+    }
+
+    // A dispatcher that responds with "202 Accepted" to the first "maxRetryTimes" requests of each
+    // locale. The 202 responses contain a "Retry-After" header with the provided value, if any.
+    public static Dispatcher getElEs202OnceDispatcher(final int maxRetryTimes,
+                                                      @Nullable final String retryAfter) {
 
         Dispatcher dispatcher = new Dispatcher() {
 
@@ -142,13 +223,13 @@ public class CDSMockHelper {
                     case "/content/el":
                         if (elCounter < maxRetryTimes) {
                             elCounter++;
-                            return new MockResponse().setResponseCode(202);
+                            return get202Response(retryAfter);
                         }
                         return new MockResponse().setResponseCode(200).setBody(elBody);
                     case "/content/es":
                         if (eSCounter < maxRetryTimes) {
                             eSCounter++;
-                            return new MockResponse().setResponseCode(202);
+                            return get202Response(retryAfter);
                         }
                         return new MockResponse().setResponseCode(200).setBody(esBody);
                 }
@@ -159,6 +240,37 @@ public class CDSMockHelper {
         return dispatcher;
     }
 
+    // A dispatcher that serves the "el" and "es" locales. The response of "el" is sent after the
+    // provided delay.
+    public static Dispatcher getElDelayedEsDispatcher(final long delayMillis) {
+
+        Dispatcher dispatcher = new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch (RecordedRequest request) throws InterruptedException {
+
+                switch (request.getPath()) {
+                    case "/content/el":
+                        return new MockResponse().setResponseCode(200).setBody(elBody)
+                                .setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+                    case "/content/es":
+                        return new MockResponse().setResponseCode(200).setBody(esBody);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        };
+
+        return dispatcher;
+    }
+
+    private static MockResponse get202Response(@Nullable String retryAfter) {
+        MockResponse response = new MockResponse().setResponseCode(202);
+        if (retryAfter != null) {
+            response.setHeader("Retry-After", retryAfter);
+        }
+        return response;
+    }
+
     // A dispatcher that emulates the "push content" and "job status" CDS endpoints. The "job status"
     // endpoint responds with "processing", followed by a "completed" job status response.
     public static Dispatcher getPostDispatcher() {
@@ -197,6 +309,7 @@ public class CDSMockHelper {
                         jobStatus.data.status = "completed";
                         jobStatus.data.details = new LocaleData.TxJobStatus.Data.Details();
                         jobStatus.data.details.created = 2;
+                        jobStatus.data.errors = new LocaleData.TxJobStatus.Data.Error[0];
                         return new MockResponse().setResponseCode(200).setBody(gson.toJson(jobStatus));
                 }
 
@@ -3,8 +3,11 @@ package com.transifex.txnative;
 import android.util.Log;
 
 import com.transifex.common.CDSHandler;
+import com.transifex.common.FetchHandle;
 import com.transifex.common.LocaleData;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -35,7 +38,9 @@ public class CDSHandlerAndroid extends CDSHandler {
         /**
          * Called when the operation is complete.
          * <p>
-         * If the operation fails, the translationMap will be empty.
+         * If the operation fails, the translationMap will be empty. If the operation is
+         * cancelled, the translationMap will only contain the locales that were fetched before
+         * the cancellation.
          *
          * @param translationMap A {@link com.transifex.common.LocaleData.TranslationMap TranslationMap}
          *                       holding the results.
@@ -44,6 +49,29 @@ public class CDSHandlerAndroid extends CDSHandler {
         void onComplete(@NonNull LocaleData.TranslationMap translationMap);
     }
 
+    /**
+     * A callback that provides the results of
+     * {@link #fetchChangedTranslationsAsync(String, Set, Map, FetchChangedTranslationsCallback)}
+     * when the operation is complete.
+     */
+    interface FetchChangedTranslationsCallback {
+
+        /**
+         * Called when the operation is complete.
+         * <p>
+         * If the operation fails, both the translationMap and the notModifiedLocales will be
+         * empty. If the operation is cancelled, they will only contain the locales that were
+         * fetched before the cancellation.
+         *
+         * @param translationMap A {@link com.transifex.common.LocaleData.TranslationMap TranslationMap}
+         *                       holding the locales that have changed.
+         * @param notModifiedLocales The locales that have not changed.
+         */
+        @WorkerThread
+        void onComplete(@NonNull LocaleData.TranslationMap translationMap,
+                        @NonNull Set<String> notModifiedLocales);
+    }
+
     /**
      * Creates a CDSHandler instance.
      *
@@ -68,15 +96,45 @@ public class CDSHandlerAndroid extends CDSHandler {
      * @param tags An optional set of tags. If defined, only strings that have all of the given tags
      *             will be fetched.
      * @param callback A callback function to call when the operation is complete.
+     *
+     * @return A handle that can be used to cancel the operation.
+     */
+    public @NonNull FetchHandle fetchTranslationsAsync(@Nullable final String localeCode,
+                                                       @Nullable final Set<String> tags,
+                                                       @NonNull final FetchTranslationsCallback callback) {
+        return fetchTranslationsAsync(localeCode, tags, null, callback);
+    }
+
+    /**
+     *  Fetch translations from CDS, skipping the download of locales that have not changed.
+     *  <p>
+     *  The method is asynchronous. The callback is called on a background thread.
+     *
+     * @param localeCode  An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                    it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param existingTranslations The translations that are already available, if any. It should
+     *                             not be altered while the operation is in progress.
+     * @param callback A callback function to call when the operation is complete.
+     *
+     * @return A handle that can be used to cancel the operation. Cancelling aborts the
+     * connections that are in progress and skips the locales that have not been fetched yet. The
+     * callback is still called. If the operation has not started yet, nothing is fetched.
+     *
+     * @see CDSHandler#fetchTranslations(String, Set, LocaleData.TranslationMap, FetchHandle)
      */
-    public void fetchTranslationsAsync(@Nullable final String localeCode,
-                                       @Nullable final Set<String> tags,
-                                  @NonNull final FetchTranslationsCallback callback) {
+    public @NonNull FetchHandle fetchTranslationsAsync(@Nullable final String localeCode,
+                                                       @Nullable final Set<String> tags,
+                                                       @Nullable final LocaleData.TranslationMap existingTranslations,
+                                                       @NonNull final FetchTranslationsCallback callback) {
+        final FetchHandle handle = new FetchHandle();
         try {
             mExecutor.execute(new Runnable() {
                 @Override
                 public void run() {
-                    LocaleData.TranslationMap result = fetchTranslations(localeCode, tags);
+                    LocaleData.TranslationMap result = fetchTranslations(localeCode, tags,
+                            existingTranslations, handle);
                     callback.onComplete(result);
                 }
             });
@@ -85,5 +143,58 @@ public class CDSHandlerAndroid extends CDSHandler {
             Log.e(TAG, "Could not execute background task: " + exception);
             callback.onComplete(new LocaleData.TranslationMap(0));
         }
+        return handle;
+    }
+
+    /**
+     *  Fetch the translations that have changed since the provided ETags from CDS.
+     *  <p>
+     *  The method is asynchronous. The callback is called on a background thread.
+     *
+     * @param localeCode  An optional locale to fetch translations from; if  set to <code>null</code>,
+     *                    it will fetch translations for the locale codes provided in the constructor.
+     * @param tags An optional set of tags. If defined, only strings that have all of the given tags
+     *             will be fetched.
+     * @param existingETags The ETags of the translations that are already available, mapped by
+     *                      locale code. It should not be altered while the operation is in
+     *                      progress.
+     * @param callback A callback function to call when the operation is complete.
+     *
+     * @return A handle that can be used to cancel the operation. Cancelling aborts the
+     * connections that are in progress and skips the locales that have not been fetched yet. The
+     * callback is still called. If the operation has not started yet, nothing is fetched.
+     *
+     * @see CDSHandler#fetchChangedTranslations(String, Set, Map, Set, FetchHandle)
+     */
+    public @NonNull FetchHandle fetchChangedTranslationsAsync(@Nullable final String localeCode,
+                                                              @Nullable final Set<String> tags,
+                                                              @NonNull final Map<String, String> existingETags,
+                                                              @NonNull final FetchChangedTranslationsCallback callback) {
+        final FetchHandle handle = new FetchHandle();
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    HashSet<String> notModifiedLocales = new HashSet<>();
+                    LocaleData.TranslationMap result;
+                    try {
+                        result = fetchChangedTranslations(localeCode, tags, existingETags,
+                                notModifiedLocales, handle);
+                    }
+                    catch (RuntimeException exception) {
+                        // The callback must always be called, so that the caller can clean up
+                        Log.e(TAG, "Could not fetch translations: " + exception);
+                        result = new LocaleData.TranslationMap(0);
+                        notModifiedLocales.clear();
+                    }
+                    callback.onComplete(result, notModifiedLocales);
+                }
+            });
+        }
+        catch (RejectedExecutionException exception) {
+            Log.e(TAG, "Could not execute background task: " + exception);
+            callback.onComplete(new LocaleData.TranslationMap(0), new HashSet<String>(0));
+        }
+        return handle;
     }
 }
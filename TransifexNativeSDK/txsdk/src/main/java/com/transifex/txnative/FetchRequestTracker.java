@@ -0,0 +1,107 @@
+package com.transifex.txnative;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Keeps track of the fetch requests that are in progress and of when each request last completed,
+ * so that redundant requests can be skipped.
+ * <p>
+ * Requests are identified by their locale and tags. A request is skipped if an identical request
+ * is in progress, since that request will update the cache with the same translations. A request
+ * is also skipped if an identical request completed successfully less than the minimum refresh
+ * interval ago.
+ * <p>
+ * The times are provided by the caller, so that any monotonic clock can be used.
+ * <p>
+ * The class is thread-safe.
+ */
+class FetchRequestTracker {
+
+    /**
+     * Identifies a fetch request.
+     */
+    static final class Key {
+
+        final String localeCode;
+        final Set<String> tags;
+
+        Key(@Nullable String localeCode, @Nullable Set<String> tags) {
+            this.localeCode = localeCode;
+            // Copy the tags, so that the key is not affected if the caller modifies them
+            this.tags = (tags != null) ? Collections.unmodifiableSet(new HashSet<>(tags)) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Utils.equals(localeCode, key.localeCode) && Utils.equals(tags, key.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (localeCode != null) ? localeCode.hashCode() : 0;
+            return 31 * result + ((tags != null) ? tags.hashCode() : 0);
+        }
+    }
+
+    private final HashSet<Key> mInFlightRequests = new HashSet<>();
+    private final HashMap<Key, Long> mCompletionTimes = new HashMap<>();
+    private long mMinRefreshIntervalMillis;
+
+    /**
+     * Sets the minimum time between two identical requests. A request is skipped if an identical
+     * request completed successfully less than the provided time ago.
+     *
+     * @param minRefreshIntervalMillis The interval in milliseconds; 0 disables the check.
+     */
+    synchronized void setMinRefreshInterval(long minRefreshIntervalMillis) {
+        mMinRefreshIntervalMillis = Math.max(0, minRefreshIntervalMillis);
+    }
+
+    /**
+     * Marks the provided request as in progress, unless it's redundant.
+     *
+     * @param key The request.
+     * @param nowMillis The current time.
+     *
+     * @return <code>true</code> if the request should proceed, <code>false</code> if it should be
+     * skipped. If <code>true</code> is returned, {@link #finish(Key, boolean, long)} should be
+     * called when the request completes.
+     */
+    synchronized boolean tryStart(@NonNull Key key, long nowMillis) {
+        if (mInFlightRequests.contains(key)) {
+            return false;
+        }
+        if (mMinRefreshIntervalMillis > 0) {
+            Long completionTime = mCompletionTimes.get(key);
+            if (completionTime != null && nowMillis - completionTime < mMinRefreshIntervalMillis) {
+                return false;
+            }
+        }
+        mInFlightRequests.add(key);
+        return true;
+    }
+
+    /**
+     * Marks the provided request as complete.
+     *
+     * @param key The request.
+     * @param successful Whether the request fetched translations. Only successful requests count
+     *                   towards the minimum refresh interval.
+     * @param nowMillis The current time.
+     */
+    synchronized void finish(@NonNull Key key, boolean successful, long nowMillis) {
+        mInFlightRequests.remove(key);
+        if (successful) {
+            mCompletionTimes.put(key, nowMillis);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.transifex.txnative;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A map of primitive <code>int</code> keys, such as resource IDs, to non-null objects.
+ * <p>
+ * It uses open addressing with linear probing, so lookups don't box the key or allocate. Entries
+ * can't be removed individually; the map can only be cleared.
+ * <p>
+ * The class is not thread-safe.
+ */
+class IntObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] mKeys;
+    // A null value marks an empty slot
+    private Object[] mValues;
+    private int mSize;
+
+    /**
+     * Creates a map that can hold the provided number of entries without resizing.
+     */
+    IntObjectMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        // Keep the load factor at most 0.5
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        mKeys = new int[capacity];
+        mValues = new Object[capacity];
+    }
+
+    /**
+     * Returns the value of the provided key or <code>null</code> if it doesn't exist.
+     */
+    @Nullable V get(int key) {
+        int mask = mKeys.length - 1;
+        int slot = hash(key) & mask;
+        Object value;
+        while ((value = mValues[slot]) != null) {
+            if (mKeys[slot] == key) {
+                //noinspection unchecked
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Associates the provided value with the provided key, replacing any existing value.
+     */
+    void put(int key, @NonNull V value) {
+        int mask = mKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (mValues[slot] != null) {
+            if (mKeys[slot] == key) {
+                mValues[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        mSize++;
+
+        if (mSize * 2 > mKeys.length) {
+            resize(mKeys.length * 2);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        if (mSize == 0) {
+            return;
+        }
+        Arrays.fill(mValues, null);
+        mSize = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = mKeys;
+        Object[] oldValues = mValues;
+        mKeys = new int[capacity];
+        mValues = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (mValues[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            mKeys[slot] = oldKeys[i];
+            mValues[slot] = oldValues[i];
+        }
+    }
+
+    private static int hash(int key) {
+        // Resource IDs share their high bits (package and type), so they are mixed into the low
+        // bits that select the slot
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -3,19 +3,26 @@ package com.transifex.txnative;
 import android.content.Context;
 import android.content.res.Resources;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.text.Spanned;
 import android.text.SpannedString;
 import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
 
 import com.transifex.common.LocaleData;
 import com.transifex.common.Plurals;
 import com.transifex.txnative.cache.TxCache;
+import com.transifex.txnative.cache.TxDeferredCache;
+import com.transifex.txnative.cache.TxETagCache;
 import com.transifex.txnative.cache.TxStandardCache;
 import com.transifex.txnative.missingpolicy.MissingPolicy;
 import com.transifex.txnative.missingpolicy.SourceStringPolicy;
 
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -30,17 +37,71 @@ public class NativeCore {
 
     public static final String TAG = NativeCore.class.getSimpleName();
 
+    /**
+     * The maximum number of parsed ICU plurals strings that are kept in memory.
+     */
+    static final int PLURALS_CACHE_SIZE = 128;
+
+    /**
+     * The maximum total length, in characters, of the HTML strings and their rendered results
+     * that are kept in memory.
+     */
+    static final int RENDERED_STRINGS_CACHE_SIZE = 64 * 1024;
+
+    // Marks ICU strings that can't be parsed, since LruCache does not accept null values
+    private static final Plurals INVALID_PLURALS = new Plurals(null, null, null, null, null, "");
+
     final Context mContext;
     final LocaleState mLocaleState;
     final TxCache mCache;
     final MissingPolicy mMissingPolicy;
 
     final Handler mMainHandler;
+    private final Object mCacheUpdateLock = new Object();
     final CDSHandlerAndroid mCDSHandler;
-    final Resources mSourceLocaleResources; // Resources using the source locale
+    final FetchRequestTracker mFetchRequestTracker = new FetchRequestTracker();
+    // Set if the cache is created in the background
+    final TxDeferredCache mDeferredCache;
+    private volatile Resources mSourceLocaleResources; // Resources using the source locale
 
     boolean mTestModeEnabled;
     boolean mSupportSpannableEnabled = true;
+    long mReadyTimeoutMillis;
+
+    // The resource info of the string and plurals resources looked up so far, keyed by resource
+    // ID. It's guarded by itself.
+    private final IntObjectMap<ResourceInfo> mResourceInfos = new IntObjectMap<>(256);
+    // The rendered translations of mTranslatedTextsLocale, keyed by string resource ID. The
+    // generation is increased when they are cleared, so that translations rendered before that
+    // are not stored. All three are guarded by mTranslatedTexts.
+    private final IntObjectMap<CharSequence> mTranslatedTexts = new IntObjectMap<>(256);
+    private String mTranslatedTextsLocale;
+    private int mTranslatedTextsGeneration;
+    // Parsed ICU plurals strings, keyed by the ICU string
+    final LruCache<String, Plurals> mPluralsCache = new LruCache<>(PLURALS_CACHE_SIZE);
+    final PluralTypeCache mPluralTypeCache = new PluralTypeCache();
+    // Strings rendered using HTML parsing, keyed by the HTML string and weighted by length
+    final LruCache<String, CharSequence> mRenderedStrings =
+            new LruCache<String, CharSequence>(RENDERED_STRINGS_CACHE_SIZE) {
+                @Override
+                protected int sizeOf(@NonNull String key, @NonNull CharSequence value) {
+                    return key.length() + value.length();
+                }
+            };
+
+    /**
+     * Information about a string or plurals resource that does not change while the app is running.
+     */
+    static class ResourceInfo {
+        final boolean isAndroidResource;
+        // Null for resources of Android's resource package
+        final String entryName;
+
+        ResourceInfo(boolean isAndroidResource, @Nullable String entryName) {
+            this.isAndroidResource = isAndroidResource;
+            this.entryName = entryName;
+        }
+    }
 
     /**
      * Create an instance of the core SDK class.
@@ -54,7 +115,8 @@ public class NativeCore {
      *                host provided by Transifex.
      * @param cache The translation cache that holds the translations from the CDS;
      * {@link com.transifex.txnative.cache.TxStandardCache TxStandardCache} is used if set to
-     *              <code>null</code>.
+     *              <code>null</code>. If it's a {@link TxDeferredCache}, the Android strings are
+     *              returned until it's ready.
      * @param missingPolicy Determines how to handle translations that are not available;
      * {@link com.transifex.txnative.missingpolicy.SourceStringPolicy SourceStringPolicy} is used
      *                     if set to <code>null</code>.
@@ -70,6 +132,7 @@ public class NativeCore {
         mLocaleState = localeState;
         mLocaleState.setCurrentLocaleListener(mCurrentLocaleListener);
         mCache = (cache != null) ? cache : TxStandardCache.getCache(mContext, null, null);
+        mDeferredCache = (mCache instanceof TxDeferredCache) ? (TxDeferredCache) mCache : null;
         mMissingPolicy = (missingPolicy != null) ? missingPolicy : new SourceStringPolicy();
 
         if (cdsHost == null) {
@@ -77,8 +140,6 @@ public class NativeCore {
         }
         mCDSHandler = new CDSHandlerAndroid(mLocaleState.getAppLocales(), token, null, cdsHost);
 
-        mSourceLocaleResources = Utils.getLocalizedResources(mContext, new Locale(mLocaleState.getSourceLocale()));
-
         // Check that the "R.plurals.tx_plurals" plurals resource declared in the lib's "strings.xml"
         // file is accessible.
         try {
@@ -92,7 +153,7 @@ public class NativeCore {
      private final LocaleState.CurrentLocaleListener mCurrentLocaleListener = new LocaleState.CurrentLocaleListener() {
          @Override
          public void onLocaleChanged(@NonNull Locale newLocale, @Nullable String resolvedLocale) {
-             // Do nothing
+             clearTranslatedTexts();
          }
     };
 
@@ -101,6 +162,7 @@ public class NativeCore {
      */
     void setTestMode(boolean enabled) {
         mTestModeEnabled = enabled;
+        clearTranslatedTexts();
     }
 
     /**
@@ -108,33 +170,286 @@ public class NativeCore {
      */
     void setSupportSpannable(boolean enabled) {
         mSupportSpannableEnabled = enabled;
+        clearTranslatedTexts();
+    }
+
+    /**
+     * @see TxNative#setMaxConcurrentFetches(int)
+     */
+    void setMaxConcurrentFetches(int maxConcurrentFetches) {
+        mCDSHandler.setMaxConcurrentFetches(maxConcurrentFetches);
+    }
+
+    /**
+     * @see TxNative#setNetworkTimeouts(int, int)
+     */
+    void setNetworkTimeouts(int connectTimeoutMillis, int readTimeoutMillis) {
+        mCDSHandler.setConnectTimeout(connectTimeoutMillis);
+        mCDSHandler.setReadTimeout(readTimeoutMillis);
+    }
+
+    /**
+     * @see TxNative#setMinRefreshInterval(long)
+     */
+    void setMinRefreshInterval(long intervalMillis) {
+        mFetchRequestTracker.setMinRefreshInterval(intervalMillis);
+    }
+
+    /**
+     * @see TxNative#setReadyTimeout(long)
+     */
+    void setReadyTimeout(long timeoutMillis) {
+        mReadyTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @see TxNative#isReady()
+     */
+    boolean isReady() {
+        return mDeferredCache == null || mDeferredCache.isReady();
+    }
+
+    /**
+     * @see TxNative#addOnReadyListener(TxDeferredCache.OnReadyListener)
+     */
+    void addOnReadyListener(@NonNull final TxDeferredCache.OnReadyListener listener) {
+        final Runnable notifyRunnable = new Runnable() {
+            @Override
+            public void run() {
+                listener.onReady();
+            }
+        };
+
+        if (mDeferredCache == null) {
+            mMainHandler.post(notifyRunnable);
+            return;
+        }
+
+        mDeferredCache.addOnReadyListener(new TxDeferredCache.OnReadyListener() {
+            @Override
+            public void onReady() {
+                mMainHandler.post(notifyRunnable);
+            }
+        });
+    }
+
+    /**
+     * Returns <code>true</code> if the cache is ready, after waiting up to the timeout set by
+     * {@link #setReadyTimeout(long)}.
+     */
+    private boolean awaitCacheReady() {
+        return mDeferredCache == null
+                || mDeferredCache.awaitReady(mReadyTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the resources that use the source locale. They are created the first time they are
+     * needed.
+     */
+    @NonNull Resources getSourceLocaleResources() {
+        Resources resources = mSourceLocaleResources;
+        if (resources == null) {
+            resources = Utils.getLocalizedResources(mContext, new Locale(mLocaleState.getSourceLocale()));
+            mSourceLocaleResources = resources;
+        }
+        return resources;
     }
 
     /**
      * Fetches translations from CDS.
+     * <p>
+     * If the cache is not ready yet, the fetch starts once it's ready.
+     * <p>
+     * The fetch is skipped if an identical fetch is in progress or if an identical fetch completed
+     * less than the minimum refresh interval ago.
      *
      * @param localeCode If set to <code>null</code>, it will fetch translations for all locales
      *                   as defined in the SDK configuration.
      * @param tags An optional set of tags. If defined, only strings that have all of the given tags
      *             will be fetched.
      */
-    void fetchTranslations(@Nullable String localeCode, @Nullable Set<String> tags) {
-        mCDSHandler.fetchTranslationsAsync(localeCode, tags, new CDSHandlerAndroid.FetchTranslationsCallback() {
+    void fetchTranslations(@Nullable final String localeCode, @Nullable final Set<String> tags) {
+        if (mDeferredCache != null && !mDeferredCache.isReady()) {
+            // The cached translations are needed to make the request, so wait for them without
+            // blocking the calling thread
+            mDeferredCache.addOnReadyListener(new TxDeferredCache.OnReadyListener() {
+                @Override
+                public void onReady() {
+                    fetchTranslations(localeCode, tags);
+                }
+            });
+            return;
+        }
+
+        // Callers that request the same translations at the same time share a single fetch
+        final FetchRequestTracker.Key requestKey = new FetchRequestTracker.Key(localeCode, tags);
+        if (!mFetchRequestTracker.tryStart(requestKey, SystemClock.elapsedRealtime())) {
+            Log.d(TAG, "Skipping redundant fetch for locale: " + localeCode);
+            return;
+        }
+
+        // The ETags of the cached translations are provided so that locales that have not changed
+        // since they were cached are not downloaded again. Only the ETags are read, so that
+        // caches that load translations lazily or map them from disk don't load them all.
+        mCDSHandler.fetchChangedTranslationsAsync(localeCode, tags, getCachedETags(), new CDSHandlerAndroid.FetchChangedTranslationsCallback() {
             @Override
-            public void onComplete(final @Nullable LocaleData.TranslationMap translationMap) {
-                if (translationMap != null && !translationMap.isEmpty()) {
-                    // Update mCache using the fetched translationMap in main thread
-                    mMainHandler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            mCache.update(translationMap);
+            public void onComplete(final @NonNull LocaleData.TranslationMap translationMap,
+                                   @NonNull Set<String> notModifiedLocales) {
+                boolean successful = false;
+                try {
+                    // If nothing has changed, the cache is already up to date
+                    if (!translationMap.isEmpty()) {
+                        // Update mCache using the fetched translationMap in the background. The
+                        // caches can be read from any thread while they are updated, but updates
+                        // are serialized, since some caches merge the new translations with the
+                        // existing ones.
+                        synchronized (mCacheUpdateLock) {
+                            updateCache(translationMap, notModifiedLocales);
+                            onCacheUpdated();
                         }
-                    });
+                    }
+                    successful = !translationMap.isEmpty() || !notModifiedLocales.isEmpty();
+                } finally {
+                    // The request must always be finished, so that identical requests are not
+                    // skipped forever if updating the cache fails
+                    mFetchRequestTracker.finish(requestKey, successful, SystemClock.elapsedRealtime());
                 }
             }
         });
     }
 
+    /**
+     * Updates the cache with the fetched translations, keeping the locales that have not changed.
+     * If the cache implements {@link TxETagCache}, it keeps them without loading them. Otherwise,
+     * they are taken from all the cached translations, since an update replaces them.
+     */
+    private void updateCache(@NonNull LocaleData.TranslationMap translationMap,
+                             @NonNull Set<String> notModifiedLocales) {
+        if (notModifiedLocales.isEmpty()) {
+            mCache.update(translationMap);
+            return;
+        }
+        if (mCache instanceof TxETagCache) {
+            ((TxETagCache) mCache).update(translationMap, notModifiedLocales);
+            return;
+        }
+
+        LocaleData.TranslationMap cachedTranslations = mCache.get();
+        for (String notModifiedLocale : notModifiedLocales) {
+            LocaleData.LocaleStrings localeStrings = cachedTranslations.get(notModifiedLocale);
+            if (localeStrings != null) {
+                translationMap.put(notModifiedLocale, localeStrings);
+            }
+        }
+        mCache.update(translationMap);
+    }
+
+    /**
+     * Returns the ETags of the cached translations. If the cache does not implement
+     * {@link TxETagCache}, they are read from all the cached translations.
+     */
+    private @NonNull Map<String, String> getCachedETags() {
+        if (mCache instanceof TxETagCache) {
+            return ((TxETagCache) mCache).getETags();
+        }
+        return mCache.get().getETags();
+    }
+
+    /**
+     * Returns the {@link ResourceInfo} of the provided string or plurals resource ID. The info is
+     * looked up once per ID and cached.
+     *
+     * @throws android.content.res.Resources.NotFoundException if the given ID does not exist.
+     */
+    @NonNull ResourceInfo getResourceInfo(@NonNull TxResources txResources, int id)
+            throws Resources.NotFoundException {
+        ResourceInfo resourceInfo;
+        synchronized (mResourceInfos) {
+            resourceInfo = mResourceInfos.get(id);
+        }
+        if (resourceInfo != null) {
+            return resourceInfo;
+        }
+
+        boolean isAndroidResource = txResources.isAndroidStringResource(id);
+        String entryName = isAndroidResource ? null : txResources.getResourceEntryName(id);
+        resourceInfo = new ResourceInfo(isAndroidResource, entryName);
+        synchronized (mResourceInfos) {
+            mResourceInfos.put(id, resourceInfo);
+        }
+        return resourceInfo;
+    }
+
+    /**
+     * Clears the cached translations, so that they are rendered again using the current cache
+     * content and settings.
+     * <p>
+     * It's called when the cache is updated through the SDK, the locale changes or a setting that
+     * affects rendering changes.
+     */
+    void clearTranslatedTexts() {
+        synchronized (mTranslatedTexts) {
+            mTranslatedTexts.clear();
+            mTranslatedTextsGeneration++;
+        }
+    }
+
+    /**
+     * Clears all the cached results that derive from the cache content.
+     * <p>
+     * Parsed and rendered strings would remain valid, since they are keyed by the strings
+     * themselves, but the ones that are no longer used would stay in memory until evicted.
+     * <p>
+     * It's called when the cache is updated through the SDK.
+     *
+     * @see TxNative#onCacheUpdated()
+     */
+    void onCacheUpdated() {
+        clearTranslatedTexts();
+        mPluralsCache.evictAll();
+        mRenderedStrings.evictAll();
+    }
+
+    /**
+     * Returns the current generation of the cached translations, which changes when they are cleared.
+     */
+    private int getTranslatedTextsGeneration() {
+        synchronized (mTranslatedTexts) {
+            return mTranslatedTextsGeneration;
+        }
+    }
+
+    /**
+     * Returns the cached translation of the provided string resource ID under the provided locale
+     * or <code>null</code> if it hasn't been cached.
+     */
+    private @Nullable CharSequence getTranslatedText(@StringRes int id, @NonNull String locale) {
+        synchronized (mTranslatedTexts) {
+            if (!locale.equals(mTranslatedTextsLocale)) {
+                return null;
+            }
+            return mTranslatedTexts.get(id);
+        }
+    }
+
+    /**
+     * Caches the provided translation, unless the cached translations have been cleared since
+     * the provided generation was read, meaning that the translation may be stale.
+     */
+    private void putTranslatedText(@StringRes int id, @NonNull String locale,
+                                   @NonNull CharSequence translatedText, int generation) {
+        synchronized (mTranslatedTexts) {
+            if (generation != mTranslatedTextsGeneration) {
+                return;
+            }
+            if (!locale.equals(mTranslatedTextsLocale)) {
+                mTranslatedTexts.clear();
+                mTranslatedTextsLocale = locale;
+            }
+            mTranslatedTexts.put(id, translatedText);
+        }
+    }
+
     /**
      * Return the value of the provided string resource ID under the current locale.
      * <p>
@@ -191,11 +506,13 @@ public class NativeCore {
     private CharSequence internalTranslate(
             TxResources txResources, @StringRes int id, @Nullable CharSequence def, boolean shouldUseDef)
             throws Resources.NotFoundException {
+        ResourceInfo resourceInfo;
         try {
+            resourceInfo = getResourceInfo(txResources, id);
             // We don't want to alter string resources, such as
             // "config_inputEventCompatProcessorOverrideClassName", that belong to the android resource
             // package
-            if (txResources.isAndroidStringResource(id)) {
+            if (resourceInfo.isAndroidResource) {
                 return txResources.getOriginalText(id);
             }
         }
@@ -216,14 +533,24 @@ public class NativeCore {
             return TextUtils.concat("test: ", txResources.getOriginalText(id));
         }
 
+        // Until the translations are ready, we use the strings provided by Android
+        if (!awaitCacheReady()) {
+            return txResources.getOriginalText(id);
+        }
+
         if (mLocaleState.isSourceLocale()) {
             return getSourceString(txResources, id);
         }
 
+        String resolvedLocale = mLocaleState.getResolvedLocale();
         String translatedString = null;
-        if (mLocaleState.getResolvedLocale() != null) {
-            translatedString = mCache.get(txResources.getResourceEntryName(id),
-                    mLocaleState.getResolvedLocale());
+        int generation = getTranslatedTextsGeneration();
+        if (resolvedLocale != null) {
+            CharSequence translatedText = getTranslatedText(id, resolvedLocale);
+            if (translatedText != null) {
+                return translatedText;
+            }
+            translatedString = mCache.get(resourceInfo.entryName, resolvedLocale);
         }
 
         // String can be null/empty if:
@@ -234,10 +561,12 @@ public class NativeCore {
         if (TextUtils.isEmpty(translatedString)) {
             CharSequence sourceString = getSourceString(txResources, id);
             return mMissingPolicy.get(txResources.getBaseResources(), sourceString, id,
-                    txResources.getResourceEntryName(id),mLocaleState.getResolvedLocale());
+                    resourceInfo.entryName, resolvedLocale);
         }
 
-        return getSpannedString(translatedString);
+        CharSequence translatedText = getSpannedString(translatedString);
+        putTranslatedText(id, resolvedLocale, translatedText, generation);
+        return translatedText;
     }
 
     /**
@@ -259,7 +588,8 @@ public class NativeCore {
 
         // We don't want to alter plurals resources that belong to the android resource
         // package
-        if (txResources.isAndroidStringResource(id)) {  // A NotFoundException is thrown if the ID is not found
+        ResourceInfo resourceInfo = getResourceInfo(txResources, id); // A NotFoundException is thrown if the ID is not found
+        if (resourceInfo.isAndroidResource) {
             // A NotFoundException is thrown if the ID is not PluralsRes
             return txResources.getOriginalQuantityText(id, quantity);
         }
@@ -268,29 +598,34 @@ public class NativeCore {
             return TextUtils.concat("test: ", txResources.getOriginalQuantityText(id, quantity));
         }
 
+        // Until the translations are ready, we use the strings provided by Android
+        if (!awaitCacheReady()) {
+            return txResources.getOriginalQuantityText(id, quantity);
+        }
+
         if (mLocaleState.isSourceLocale()) {
             return getSourceQuantityString(txResources, id, quantity);
         }
 
         // Get ICU string from Cache
+        String resolvedLocale = mLocaleState.getResolvedLocale();
         String icuString = null;
-        if (mLocaleState.getResolvedLocale() != null) {
-            icuString = mCache.get(txResources.getResourceEntryName(id),
-                    mLocaleState.getResolvedLocale());
+        if (resolvedLocale != null) {
+            icuString = mCache.get(resourceInfo.entryName, resolvedLocale);
         }
 
         // Get quantity String from ICU string
         String quantityString = null;
         if (icuString != null) {
-            quantityString = getLocalizedQuantityString(txResources.getBaseResources(), icuString, quantity);
+            quantityString = getLocalizedQuantityString(txResources.getBaseResources(), icuString,
+                    quantity, mPluralsCache, mPluralTypeCache);
         }
 
         // No ICU string found in cache or no quantity string was rendered
         if (TextUtils.isEmpty(quantityString)) {
             CharSequence sourceString = getSourceQuantityString(txResources, id, quantity);
             return mMissingPolicy.getQuantityString(txResources.getBaseResources(),
-                    sourceString, id, quantity, txResources.getResourceEntryName(id),
-                    mLocaleState.getResolvedLocale());
+                    sourceString, id, quantity, resourceInfo.entryName, resolvedLocale);
         }
 
         return getSpannedString(quantityString);
@@ -306,10 +641,10 @@ public class NativeCore {
      * @return The source string, plus possibly styled text information as spans.
      */
     @NonNull CharSequence getSourceString(@NonNull TxResources txResources, @StringRes int id) {
-        String sourceString = mCache.get(txResources.getResourceEntryName(id),
+        String sourceString = mCache.get(getResourceInfo(txResources, id).entryName,
                 mLocaleState.getSourceLocale());
         return (!TextUtils.isEmpty(sourceString)) ?
-                getSpannedString(sourceString) : mSourceLocaleResources.getText(id);
+                getSpannedString(sourceString) : getSourceLocaleResources().getText(id);
     }
 
     /**
@@ -328,18 +663,18 @@ public class NativeCore {
      */
     @NonNull CharSequence getSourceQuantityString(@NonNull TxResources txResources, @PluralsRes int id, int quantity) {
         // Get ICU string from Cache
-        String sourceIcuString = mCache.get(txResources.getResourceEntryName(id),
+        String sourceIcuString = mCache.get(getResourceInfo(txResources, id).entryName,
                 mLocaleState.getSourceLocale());
 
         // Get quantity String from ICU string
         String sourceQuantityString = null;
         if (sourceIcuString != null) {
-            sourceQuantityString = getLocalizedQuantityString(mSourceLocaleResources,
-                    sourceIcuString, quantity);
+            sourceQuantityString = getLocalizedQuantityString(getSourceLocaleResources(),
+                    sourceIcuString, quantity, mPluralsCache, mPluralTypeCache);
         }
 
         return (!TextUtils.isEmpty(sourceQuantityString))
-                ? sourceQuantityString : mSourceLocaleResources.getQuantityText(id, quantity);
+                ? sourceQuantityString : getSourceLocaleResources().getQuantityText(id, quantity);
     }
 
     /**
@@ -360,19 +695,43 @@ public class NativeCore {
      */
     @Nullable static String getLocalizedQuantityString(@NonNull Resources resources,
                                                         @NonNull String icuString, int quantity) {
+        return getLocalizedQuantityString(resources, icuString, quantity, null, null);
+    }
+
+    /**
+     * Same as {@link #getLocalizedQuantityString(Resources, String, int)}, but the parsed ICU
+     * string and the plural type of the quantity are looked up in and stored to the provided
+     * caches, so that they are not computed on every call.
+     *
+     * @param pluralsCache A cache of parsed ICU strings keyed by the ICU string; can be
+     *                     <code>null</code>.
+     * @param pluralTypeCache A cache of plural types; can be <code>null</code>.
+     */
+    @Nullable static String getLocalizedQuantityString(@NonNull Resources resources,
+                                                        @NonNull String icuString, int quantity,
+                                                        @Nullable LruCache<String, Plurals> pluralsCache,
+                                                        @Nullable PluralTypeCache pluralTypeCache) {
         if (TextUtils.isEmpty(icuString)) {
             return null;
         }
 
         // Parse ICU string to Plurals
-        Plurals plurals = Plurals.fromICUString(icuString);
+        Plurals plurals = (pluralsCache != null) ? pluralsCache.get(icuString) : null;
         if (plurals == null) {
+            plurals = Plurals.fromICUString(icuString);
+            if (pluralsCache != null) {
+                pluralsCache.put(icuString, (plurals != null) ? plurals : INVALID_PLURALS);
+            }
+        }
+        if (plurals == null || plurals == INVALID_PLURALS) {
             return null;
         }
 
         // Use Android's localization system to get the correct plural type for the given quantity.
         // The locale of the resources object will determine the plural rules.
-        String pluralType = resources.getQuantityText(R.plurals.__tx_plurals, quantity).toString();
+        String pluralType = (pluralTypeCache != null)
+                ? pluralTypeCache.getPluralType(resources, quantity)
+                : PluralTypeCache.resolvePluralType(resources, quantity);
 
         // Get plural string from Plurals
         String plural = plurals.getPlural(pluralType);
@@ -393,6 +752,9 @@ public class NativeCore {
      * <p>
      * If {@link #setSupportSpannable(boolean)} is set to <code>false</code>, the returned
      * String will keep any found tags as plain text.
+     * <p>
+     * The results of HTML parsing are cached, so a string is parsed once while it remains in the
+     * cache.
      *
      * @param string A string that may contain HTML markup.
      *
@@ -403,16 +765,22 @@ public class NativeCore {
             // We want to use fromHTML() only if the provided string  contains tags. If not,
             // unescapeHTMLEntities() is preferable. It has much better performance and it also
             // keeps new lines and multiple spaces.
-            if (!string.contains("<")) {
+            if (string.indexOf('<') == -1) {
                 return Utils.unescapeHTMLEntities(string);
             }
+            CharSequence rendered = mRenderedStrings.get(string);
+            if (rendered != null) {
+                return rendered;
+            }
             Spanned spanned = Utils.fromHtml(string, HtmlCompat.FROM_HTML_MODE_COMPACT);
             // If a span was found, return a "Spanned" object. Otherwise, return "String".
             if (spanned.getSpans(0, spanned.length(), Object.class).length != 0) {
-                return new SpannedString(spanned);
+                rendered = new SpannedString(spanned);
             } else {
-                return Utils.unescapeHTMLEntities(string);
+                rendered = Utils.unescapeHTMLEntities(string);
             }
+            mRenderedStrings.put(string, rendered);
+            return rendered;
         } else {
             return Utils.unescapeHTMLEntities(string);
         }
@@ -0,0 +1,87 @@
+package com.transifex.txnative;
+
+import android.content.res.Resources;
+
+import com.transifex.common.Plurals;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Resolves the plural type of a quantity using Android's plural rules and caches the result per
+ * locale.
+ * <p>
+ * Android exposes its plural rules only through quantity resources, so the plural type is
+ * resolved using the <code>R.plurals.__tx_plurals</code> resource, whose strings are the plural
+ * type names. Quantities from 0 to {@link #MAX_CACHED_QUANTITY} are cached, so resolving them is
+ * an array lookup after the first time. Other quantities are resolved on every call.
+ * <p>
+ * The class is thread-safe.
+ */
+class PluralTypeCache {
+
+    /**
+     * The maximum quantity whose plural type is cached.
+     */
+    static final int MAX_CACHED_QUANTITY = 1000;
+
+    // The plural types of each locale indexed by quantity. It's guarded by itself.
+    private final HashMap<Locale, String[]> mPluralTypes = new HashMap<>();
+
+    /**
+     * Returns the plural type of the provided quantity under the plural rules of the provided
+     * resources' locale.
+     *
+     * @return One of the {@link Plurals.PluralType} values.
+     */
+    @NonNull @Plurals.PluralType String getPluralType(@NonNull Resources resources, int quantity) {
+        if (quantity < 0 || quantity > MAX_CACHED_QUANTITY) {
+            return resolvePluralType(resources, quantity);
+        }
+
+        Locale locale = Utils.getLocale(resources);
+        String[] pluralTypes;
+        synchronized (mPluralTypes) {
+            pluralTypes = mPluralTypes.get(locale);
+            if (pluralTypes == null) {
+                pluralTypes = new String[MAX_CACHED_QUANTITY + 1];
+                mPluralTypes.put(locale, pluralTypes);
+            }
+        }
+
+        // A race only results in resolving the same immutable value twice
+        String pluralType = pluralTypes[quantity];
+        if (pluralType == null) {
+            pluralType = resolvePluralType(resources, quantity);
+            pluralTypes[quantity] = pluralType;
+        }
+        return pluralType;
+    }
+
+    /**
+     * Uses Android's localization system to get the plural type of the provided quantity. The
+     * locale of the resources object determines the plural rules.
+     */
+    @NonNull @Plurals.PluralType
+    static String resolvePluralType(@NonNull Resources resources, int quantity) {
+        String pluralType = resources.getQuantityText(R.plurals.__tx_plurals, quantity).toString();
+
+        // Return the constant, so that the cache does not hold a copy per quantity
+        switch (pluralType) {
+            case Plurals.PluralType.ZERO:
+                return Plurals.PluralType.ZERO;
+            case Plurals.PluralType.ONE:
+                return Plurals.PluralType.ONE;
+            case Plurals.PluralType.TWO:
+                return Plurals.PluralType.TWO;
+            case Plurals.PluralType.FEW:
+                return Plurals.PluralType.FEW;
+            case Plurals.PluralType.MANY:
+                return Plurals.PluralType.MANY;
+            default:
+                return Plurals.PluralType.OTHER;
+        }
+    }
+}
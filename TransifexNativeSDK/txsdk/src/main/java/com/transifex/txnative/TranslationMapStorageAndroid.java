@@ -8,6 +8,7 @@ import com.transifex.common.TranslationMapStorage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Executor;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -36,7 +37,22 @@ public class TranslationMapStorageAndroid extends TranslationMapStorage {
      * @see TranslationMapStorage
      */
     public TranslationMapStorageAndroid(@NonNull AssetManager manager, @NonNull String filename) {
-        super(filename);
+        this(manager, filename, null);
+    }
+
+    /**
+     * Creates a new instance that also reads binary translation files.
+     *
+     * @param manager An instance of Android's {@link AssetManager};
+     * @param filename The name of a locale's translation file.
+     * @param binaryFilename The name of a locale's binary translation file. If <code>null</code>,
+     *                       the binary format is not used.
+     *
+     * @see TranslationMapStorage
+     */
+    public TranslationMapStorageAndroid(@NonNull AssetManager manager, @NonNull String filename,
+                                        @Nullable String binaryFilename) {
+        super(filename, binaryFilename);
         assetFileProvider = new AssetFileProvider(manager);
     }
 
@@ -54,6 +70,41 @@ public class TranslationMapStorageAndroid extends TranslationMapStorage {
         return fromDisk(assetFileProvider, assetFileProvider.getFile(srcDirectoryPath));
     }
 
+    /**
+     * Loads a {@link LocaleData.TranslationMap} from an application's Assets folder under the
+     * provided path, loading the locales concurrently.
+     *
+     * @param srcDirectoryPath The path to the directory containing translations in the expected
+     *                         format.
+     * @param executor The executor that provides additional threads for loading the locales.
+     *
+     * @return The translation map or <code>null</code> if the directory isn't found or it's empty.
+     * If some locales fail to load, they won't be added in the returned map.
+     *
+     * @see TranslationMapStorage#fromDisk(File, Executor)
+     */
+    public @Nullable LocaleData.TranslationMap fromAssetsDirectory(@NonNull String srcDirectoryPath,
+                                                                   @NonNull Executor executor) {
+        return fromDisk(assetFileProvider, assetFileProvider.getFile(srcDirectoryPath), executor);
+    }
+
+    /**
+     * Loads the translations of a single locale from an application's Assets folder under the
+     * provided path.
+     *
+     * @param srcDirectoryPath The path to the directory containing translations in the expected
+     *                         format.
+     * @param locale The locale to load.
+     *
+     * @return The translations or <code>null</code> if they are not found or can't be loaded.
+     */
+    public @Nullable LocaleData.LocaleStrings localeFromAssetsDirectory(@NonNull String srcDirectoryPath,
+                                                                        @NonNull String locale) {
+        AssetFile srcDirectory = assetFileProvider.getFile(srcDirectoryPath);
+        return localeFromDisk(assetFileProvider,
+                assetFileProvider.getFile(srcDirectory.getPath() + File.separator + locale), locale);
+    }
+
     //region AssetFile
 
     /**
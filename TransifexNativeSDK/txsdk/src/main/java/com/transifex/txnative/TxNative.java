@@ -5,6 +5,8 @@ import android.content.Context;
 import android.util.Log;
 
 import com.transifex.txnative.cache.TxCache;
+import com.transifex.txnative.cache.TxDeferredCache;
+import com.transifex.txnative.cache.TxStandardCache;
 import com.transifex.txnative.missingpolicy.MissingPolicy;
 import com.transifex.txnative.wrappers.TxContextWrapper;
 
@@ -64,6 +66,55 @@ public class TxNative {
         ViewPump.init(new TxInterceptor());
     }
 
+    /**
+     * Initialize the SDK without blocking the calling thread. The method should only be called once,
+     * instead of {@link #init(Context, LocaleState, String, String, TxCache, MissingPolicy)}.
+     * <p>
+     * The cache, which reads the translations from disk, is created on a background thread. Until
+     * it's ready, the strings provided by Android's localization system are returned, unless a
+     * timeout is set using {@link #setReadyTimeout(long)}. Calls to
+     * {@link #fetchTranslations(String, Set)} made before the cache is ready start once it's ready.
+     * Use {@link #addOnReadyListener(TxDeferredCache.OnReadyListener)} to get notified when the
+     * translations are available, so that already displayed strings can be reloaded.
+     *
+     * @param applicationContext The application context.
+     * @param locales Configures the locales supported by the SDK.
+     * @param token The Transifex token that can be used for retrieving translations from CDS.
+     * @param cdsHost An optional host for the Content Delivery Service; if set to <code>null</code>,
+     *               the production host provided by Transifex is used.
+     * @param cacheFactory Creates the translation cache on a background thread;
+     * {@link com.transifex.txnative.cache.TxStandardCache TxStandardCache} is used if set to
+     *              <code>null</code>.
+     * @param missingPolicy Determines how to handle translations that are not available;
+     * {@link com.transifex.txnative.missingpolicy.SourceStringPolicy SourceStringPolicy} is used
+     *                     if set to <code>null</code>.
+     *
+     * @see TxDeferredCache
+     */
+    public static void initAsync(@NonNull final Context applicationContext,
+                                 @NonNull LocaleState locales,
+                                 @NonNull String token,
+                                 @Nullable String cdsHost,
+                                 @Nullable TxDeferredCache.CacheFactory cacheFactory,
+                                 @Nullable MissingPolicy missingPolicy) {
+        if (cacheFactory == null) {
+            cacheFactory = new TxDeferredCache.CacheFactory() {
+                @NonNull
+                @Override
+                public TxCache createCache() {
+                    return TxStandardCache.getCache(applicationContext, null, null);
+                }
+            };
+        }
+
+        if (sNativeCore != null) {
+            throw new RuntimeException("TxNative is already initialized");
+        }
+
+        init(applicationContext, locales, token, cdsHost, new TxDeferredCache(cacheFactory, null),
+                missingPolicy);
+    }
+
     /**
      * Checks if the SDK has been initialized by a previous call to
      * {@link #init(Context, LocaleState, String, String, TxCache, MissingPolicy)}.
@@ -74,6 +125,58 @@ public class TxNative {
         return sNativeCore != null;
     }
 
+    /**
+     * Checks if the translations are ready to be used.
+     * <p>
+     * It's always <code>true</code> if the SDK was initialized using
+     * {@link #init(Context, LocaleState, String, String, TxCache, MissingPolicy)} with a cache
+     * other than {@link TxDeferredCache}.
+     *
+     * @return <code>true</code> if the translations are ready, <code>false</code> otherwise.
+     */
+    public static boolean isReady() {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        return sNativeCore.isReady();
+    }
+
+    /**
+     * Adds a listener that is notified on the main thread once the translations are ready. If
+     * they are already ready, the listener is notified in the next main loop iteration.
+     *
+     * @see #initAsync(Context, LocaleState, String, String, TxDeferredCache.CacheFactory, MissingPolicy)
+     */
+    public static void addOnReadyListener(@NonNull TxDeferredCache.OnReadyListener listener) {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.addOnReadyListener(listener);
+    }
+
+    /**
+     * Sets how long a string lookup waits for the translations to become ready, when the SDK is
+     * initialized asynchronously. If the timeout elapses, the string provided by Android's
+     * localization system is returned. It's 0 by default, so that the calling thread is never
+     * blocked.
+     * <p>
+     * A small timeout can avoid displaying untranslated strings on the first screen when the
+     * translations load quickly, at the cost of delaying the first frames.
+     *
+     * @param timeoutMillis The maximum time to wait in milliseconds.
+     *
+     * @see #initAsync(Context, LocaleState, String, String, TxDeferredCache.CacheFactory, MissingPolicy)
+     */
+    public static void setReadyTimeout(long timeoutMillis) {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.setReadyTimeout(timeoutMillis);
+    }
+
     /**
      * When test mode is enabled, TransifexNative functionality is disabled: the translations provided
      * by the SDK are not used. The original strings, as provided by Android's localization system,
@@ -122,12 +225,75 @@ public class TxNative {
         sNativeCore.setSupportSpannable(enabled);
     }
 
+    /**
+     * Sets the maximum number of locales that are fetched from CDS at the same time when
+     * {@link #fetchTranslations(String, Set)} is called. By default, the locales are fetched one
+     * after the other.
+     * <p>
+     * Fetching multiple locales at the same time reduces the total time needed to download the
+     * translations of apps that support many locales.
+     *
+     * @param maxConcurrentFetches The maximum number of concurrent fetches; should be at least 1.
+     *
+     * @see com.transifex.common.CDSHandler#setMaxConcurrentFetches(int)
+     */
+    public static void setMaxConcurrentFetches(int maxConcurrentFetches) {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.setMaxConcurrentFetches(maxConcurrentFetches);
+    }
+
+    /**
+     * Sets the timeouts of the connections to CDS. A fetch that exceeds a timeout fails, so that
+     * a stalled connection does not delay the fetches that follow.
+     * <p>
+     * By default, {@link com.transifex.common.CDSHandler#DEFAULT_CONNECT_TIMEOUT_MILLIS} and
+     * {@link com.transifex.common.CDSHandler#DEFAULT_READ_TIMEOUT_MILLIS} are used.
+     *
+     * @param connectTimeoutMillis The timeout in milliseconds for establishing a connection; 0
+     *                             means no timeout.
+     * @param readTimeoutMillis The timeout in milliseconds for reading data; 0 means no timeout.
+     *
+     * @see com.transifex.common.CDSHandler#setConnectTimeout(int)
+     * @see com.transifex.common.CDSHandler#setReadTimeout(int)
+     */
+    public static void setNetworkTimeouts(int connectTimeoutMillis, int readTimeoutMillis) {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.setNetworkTimeouts(connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    /**
+     * Sets the minimum time between two fetches of the same translations. When
+     * {@link #fetchTranslations(String, Set)} is called with the same locale and tags as a fetch
+     * that completed successfully less than the provided time ago, the call is ignored.
+     * <p>
+     * By default, there is no minimum interval.
+     *
+     * @param intervalMillis The minimum interval in milliseconds; 0 disables it.
+     */
+    public static void setMinRefreshInterval(long intervalMillis) {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.setMinRefreshInterval(intervalMillis);
+    }
+
     /**
      * Fetches the translations from CDS and updates the cache.
      * <p>
      * The call returns instantly and fetches the translations asynchronously. If the translations
      * are fetched successfully, the cache is updated.
      * <p>
+     * If a fetch with the same locale and tags is already in progress, the call is ignored, since
+     * that fetch will update the cache with the same translations. See also
+     * {@link #setMinRefreshInterval(long)}.
+     * <p>
      * Note that updating the cache may or may not affect the translations shown in the app's UI.
      * This depends on the cache's implementation. Read
      * {@link com.transifex.txnative.cache.TxStandardCache here} for the default cache
@@ -160,6 +326,23 @@ public class TxNative {
         sNativeCore.fetchTranslations(localeCode, null);
     }
 
+    /**
+     * Notifies the SDK that the cache provided to it has been updated directly, outside of
+     * {@link #fetchTranslations(String, Set)}.
+     * <p>
+     * The SDK keeps the strings it has already rendered from the cache, so that they are not
+     * rendered again each time they are displayed. Call this method after updating the cache
+     * yourself, so that the updated translations are used instead. There is no need to call it
+     * after {@link #fetchTranslations(String, Set)}, which does this on its own.
+     */
+    public static void onCacheUpdated() {
+        if (sNativeCore == null) {
+            throw new RuntimeException("TxNative has not been initialized");
+        }
+
+        sNativeCore.onCacheUpdated();
+    }
+
     /**
      * Wraps a context to enable TransifexNative functionality inside activities, services or
      * other scopes.
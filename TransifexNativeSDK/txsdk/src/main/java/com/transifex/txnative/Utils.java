@@ -97,11 +97,18 @@ public class Utils {
      * Utility method to get the current locale as set in Android.
      */
     public static Locale getCurrentLocale(Context context){
+        return getLocale(context.getResources());
+    }
+
+    /**
+     * Utility method to get the primary locale of the provided resources.
+     */
+    public static Locale getLocale(@NonNull Resources resources){
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N){
-            return context.getResources().getConfiguration().getLocales().get(0);
+            return resources.getConfiguration().getLocales().get(0);
         } else{
             //noinspection deprecation
-            return context.getResources().getConfiguration().locale;
+            return resources.getConfiguration().locale;
         }
     }
 
@@ -157,16 +164,20 @@ public class Utils {
      *     <li>{@code "&amp;"} to {@code "&"}</li>
      *     <li>{@code "&lt;"} to {@code "<"}</li>
      *     <li>{@code "&gt;"} to {@code ">"}</li>
+     *     <li>{@code "&quot;"} to {@code "\""}</li>
+     *     <li>{@code "&apos;"} to {@code "'"}</li>
+     *     <li>numeric entities, such as {@code "&#39;"} and {@code "&#x27;"}, to the character
+     *     they represent</li>
      * </ul>
-     *  <p>Only the HTML entities supported by the Android XML parser are converted.
+     * <p>The string is scanned once and returned as is if it contains no entities.
      *
      * @param string A string that may contain HTML entities.
      * @return The finally rendered string.
+     *
+     * @see com.transifex.common.Utils#unescapeHTMLEntities(String)
      */
     public static String unescapeHTMLEntities(String string) {
-        return string.replace("&lt;", "<")
-                .replace("&gt;", ">")
-                .replace("&amp;", "&");
+        return com.transifex.common.Utils.unescapeHTMLEntities(string);
     }
 
     /**
@@ -0,0 +1,298 @@
+package com.transifex.txnative.cache;
+
+import android.util.Log;
+
+import com.transifex.common.LocaleData;
+import com.transifex.common.TranslationMapStorage;
+import com.transifex.common.Utils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link TranslationMapStorage} that reads the translations of a directory as they were when the
+ * instance was created, even if the files are replaced afterwards, for example by
+ * {@link TxFileOutputCacheDecorator}.
+ * <p>
+ * The directory is listed and its small files, such as the ETags and the manifests, are read in
+ * the constructor. The translation files are memory-mapped instead, so their content is not read
+ * until a locale is loaded. Since translation files are replaced by renaming a new file over them,
+ * a mapping keeps referring to the content that the file had when it was mapped.
+ */
+class TranslationsDirectorySnapshot extends TranslationMapStorage {
+
+    public static final String TAG = TranslationsDirectorySnapshot.class.getSimpleName();
+
+    // Files up to this size are read instead of being mapped, since mapping them costs more
+    private static final int MAX_READ_FILE_SIZE = 4096;
+
+    private final String mFilename;
+    private final SnapshotFileProvider mFileProvider;
+    private final SnapshotFile mSrcDirectory;
+
+    /**
+     * Takes a snapshot of the provided directory.
+     *
+     * @param srcDirectory The directory containing translations in the expected format.
+     * @param filename The name of a locale's translation file.
+     * @param binaryFilename The name of a locale's binary translation file. If <code>null</code>,
+     *                       the binary format is not used.
+     */
+    TranslationsDirectorySnapshot(@NonNull File srcDirectory, @NonNull String filename,
+                                  @Nullable String binaryFilename) {
+        super(filename, binaryFilename);
+        mFilename = filename;
+        mFileProvider = new SnapshotFileProvider();
+
+        String srcDirectoryPath = srcDirectory.getPath();
+        String[] localeDirNames = srcDirectory.list();
+        if (localeDirNames == null) {
+            mSrcDirectory = new SnapshotFile(srcDirectoryPath, null, null);
+            return;
+        }
+
+        ArrayList<String> locales = new ArrayList<>(localeDirNames.length);
+        for (String locale : localeDirNames) {
+            File localeDir = new File(srcDirectoryPath + File.separator + locale);
+            String[] fileNames = localeDir.list();
+            if (fileNames == null) {
+                continue;
+            }
+            locales.add(locale);
+
+            ArrayList<String> snapshotFileNames = new ArrayList<>(fileNames.length);
+            for (String fileName : fileNames) {
+                File file = new File(localeDir.getPath() + File.separator + fileName);
+                ByteBuffer content = readOrMapFile(file);
+                if (content != null) {
+                    snapshotFileNames.add(fileName);
+                    mFileProvider.put(new SnapshotFile(file.getPath(), null, content));
+                }
+            }
+            mFileProvider.put(new SnapshotFile(localeDir.getPath(),
+                    snapshotFileNames.toArray(new String[0]), null));
+        }
+        mSrcDirectory = new SnapshotFile(srcDirectoryPath, locales.toArray(new String[0]), null);
+        mFileProvider.put(mSrcDirectory);
+    }
+
+    /**
+     * Returns the path of the directory.
+     */
+    @NonNull String getPath() {
+        return mSrcDirectory.getPath();
+    }
+
+    /**
+     * Returns <code>true</code> if the directory existed when the snapshot was taken.
+     */
+    boolean exists() {
+        return mSrcDirectory.isDirectory();
+    }
+
+    /**
+     * Returns the locales of the snapshot or <code>null</code> if the directory did not exist.
+     */
+    @Nullable Set<String> getLocales() {
+        String[] locales = mSrcDirectory.list();
+        if (locales == null) {
+            return null;
+        }
+        HashSet<String> localeSet = new HashSet<>(locales.length);
+        for (String locale : locales) {
+            localeSet.add(locale);
+        }
+        return localeSet;
+    }
+
+    /**
+     * Returns the stored ETag of the provided locale, without loading its translations.
+     *
+     * @return The ETag or <code>null</code> if the locale does not exist or does not have one.
+     */
+    @Nullable String getETag(@NonNull String locale) {
+        SnapshotFile etagFile = mFileProvider.getFile(mSrcDirectory.getPath() + File.separator
+                + locale + File.separator + mFilename + ETAG_FILE_SUFFIX);
+        try {
+            String etag = Utils.readInputStream(etagFile.open());
+            return etag.isEmpty() ? null : etag;
+        } catch (IOException ignored) {
+            // The ETag file is optional
+            return null;
+        }
+    }
+
+    /**
+     * Loads the translations of the snapshot, loading the locales concurrently.
+     *
+     * @see TranslationMapStorage#fromDisk(File, Executor)
+     */
+    @Nullable LocaleData.TranslationMap fromSnapshot(@NonNull Executor executor) {
+        return fromDisk(mFileProvider, mSrcDirectory, executor);
+    }
+
+    /**
+     * Loads the translations of a single locale of the snapshot.
+     *
+     * @see TranslationMapStorage#localeFromDisk(File, String)
+     */
+    @Nullable LocaleData.LocaleStrings localeFromSnapshot(@NonNull String locale) {
+        return localeFromDisk(mFileProvider,
+                mFileProvider.getFile(mSrcDirectory.getPath() + File.separator + locale), locale);
+    }
+
+    /**
+     * Reads the provided file, if it's small, or maps it.
+     *
+     * @return The content of the file or <code>null</code> if it's not a file or it can't be read.
+     */
+    private static @Nullable ByteBuffer readOrMapFile(@NonNull File file) {
+        // Skip the files of interrupted writes
+        if (file.getName().endsWith(".tmp")) {
+            return null;
+        }
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                long size = channel.size();
+                if (size <= MAX_READ_FILE_SIZE) {
+                    byte[] content = new byte[(int) size];
+                    randomAccessFile.readFully(content);
+                    return ByteBuffer.wrap(content);
+                }
+                // The mapping remains valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } finally {
+                randomAccessFile.close();
+            }
+        } catch (FileNotFoundException ignored) {
+            // Not a file
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read file " + file.getPath() + " : " + e);
+        }
+        return null;
+    }
+
+    //region SnapshotFile
+
+    /**
+     * A file or directory of the snapshot. If it did not exist when the snapshot was taken, it's
+     * neither a file nor a directory.
+     */
+    private static class SnapshotFile implements AbstractFile {
+
+        private final String pathname;
+        private final String[] children;
+        private final ByteBuffer content;
+
+        SnapshotFile(@NonNull String pathname, @Nullable String[] children,
+                     @Nullable ByteBuffer content) {
+            this.pathname = pathname;
+            this.children = children;
+            this.content = content;
+        }
+
+        @Nullable
+        @Override
+        public String[] list() {
+            return (children != null) ? children.clone() : null;
+        }
+
+        @NonNull
+        @Override
+        public InputStream open() throws IOException {
+            if (content == null) {
+                throw new FileNotFoundException(pathname);
+            }
+            return new ByteBufferInputStream(content.duplicate());
+        }
+
+        @NonNull
+        @Override
+        public String getPath() {
+            return pathname;
+        }
+
+        @NonNull
+        @Override
+        public String getAbsolutePath() {
+            return new File(pathname).getAbsolutePath();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return children != null;
+        }
+    }
+
+    /**
+     * A provider that returns the {@link SnapshotFile} of a path. It's not modified after the
+     * snapshot is taken, so it's thread-safe.
+     */
+    private static class SnapshotFileProvider implements AbstractFileProvider {
+
+        private final HashMap<String, SnapshotFile> files = new HashMap<>();
+
+        void put(@NonNull SnapshotFile file) {
+            files.put(file.getPath(), file);
+        }
+
+        @NonNull
+        @Override
+        public SnapshotFile getFile(@NonNull String pathname) {
+            SnapshotFile file = files.get(pathname);
+            return (file != null) ? file : new SnapshotFile(pathname, null, null);
+        }
+    }
+
+    /**
+     * An input stream that reads the content of a {@link ByteBuffer}.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(@NonNull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(@NonNull byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    //endregion
+}
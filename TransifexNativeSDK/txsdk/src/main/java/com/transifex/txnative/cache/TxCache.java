@@ -7,6 +7,20 @@ import androidx.annotation.Nullable;
 
 /**
  * An interface for classes that act as cache for translations.
+ * <p>
+ * The SDK reads the cache from any thread, including while it's being updated, so
+ * implementations should be safe for concurrent readers. The SDK does not call
+ * {@link #update(LocaleData.TranslationMap)} concurrently.
+ * <p>
+ * The SDK calls {@link #update(LocaleData.TranslationMap)} on a background thread, not on the main
+ * thread. Implementations that access state which is confined to the main thread should post that
+ * work to the main thread.
+ * <p>
+ * If the cache provided to the SDK is updated directly instead of through
+ * {@link com.transifex.txnative.TxNative#fetchTranslations(String, java.util.Set)
+ * TxNative.fetchTranslations()}, call {@link com.transifex.txnative.TxNative#onCacheUpdated()
+ * TxNative.onCacheUpdated()} afterwards, so that the SDK does not keep using the strings it has
+ * already rendered.
  */
 public interface TxCache {
 
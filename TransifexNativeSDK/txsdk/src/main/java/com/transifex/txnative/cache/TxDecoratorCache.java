@@ -2,6 +2,8 @@ package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import androidx.annotation.NonNull;
@@ -10,8 +12,14 @@ import androidx.annotation.Nullable;
 /**
  * Decorator class managing an internal cache and propagating the get() and update() protocol method
  * calls to said cache. The class should be extended to add new capabilities.
+ * <p>
+ * The ETags are provided by the internal cache without loading its translations, if it implements
+ * {@link TxETagCache}. The same applies to the unchanged locales of
+ * {@link #update(LocaleData.TranslationMap, Set)}. Subclasses that override
+ * {@link #update(LocaleData.TranslationMap)} should override
+ * {@link #update(LocaleData.TranslationMap, Set)} too.
  */
-public class TxDecoratorCache implements TxCache {
+public class TxDecoratorCache implements TxETagCache {
 
     protected final TxCache mInternalCache;
 
@@ -40,4 +48,57 @@ public class TxDecoratorCache implements TxCache {
     public void update(@NonNull LocaleData.TranslationMap translationMap) {
         mInternalCache.update(translationMap);
     }
+
+    @NonNull
+    @Override
+    public Map<String, String> getETags() {
+        if (mInternalCache instanceof TxETagCache) {
+            return ((TxETagCache) mInternalCache).getETags();
+        }
+        return mInternalCache.get().getETags();
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        update(mInternalCache, translationMap, unchangedLocales);
+    }
+
+    /**
+     * Updates the provided cache as described in
+     * {@link TxETagCache#update(LocaleData.TranslationMap, Set)}. If the cache does not implement
+     * {@link TxETagCache}, the unchanged locales are taken from its {@link TxCache#get()}.
+     */
+    static void update(@NonNull TxCache cache, @NonNull LocaleData.TranslationMap translationMap,
+                       @NonNull Set<String> unchangedLocales) {
+        if (cache instanceof TxETagCache) {
+            ((TxETagCache) cache).update(translationMap, unchangedLocales);
+        }
+        else {
+            cache.update(withUnchangedLocales(translationMap, unchangedLocales, cache.get()));
+        }
+    }
+
+    /**
+     * Returns a new translation map containing the provided translations plus the translations of
+     * the unchanged locales found in the current translations.
+     */
+    static @NonNull LocaleData.TranslationMap withUnchangedLocales(
+            @NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales,
+            @NonNull LocaleData.TranslationMap currentTranslations) {
+        HashMap<String, LocaleData.LocaleStrings> map =
+                new HashMap<>(translationMap.getLocales().size() + unchangedLocales.size());
+        for (String locale : unchangedLocales) {
+            LocaleData.LocaleStrings localeStrings = currentTranslations.get(locale);
+            if (localeStrings != null) {
+                map.put(locale, localeStrings);
+            }
+        }
+        for (String locale : translationMap.getLocales()) {
+            LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+            if (localeStrings != null) {
+                map.put(locale, localeStrings);
+            }
+        }
+        return new LocaleData.TranslationMap(map);
+    }
 }
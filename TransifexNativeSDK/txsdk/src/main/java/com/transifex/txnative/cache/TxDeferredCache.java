@@ -0,0 +1,276 @@
+package com.transifex.txnative.cache;
+
+import android.util.Log;
+
+import com.transifex.common.LocaleData;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A cache that creates its internal cache in the background, so that reading translations from
+ * disk does not block the calling thread.
+ * <p>
+ * Until the internal cache is ready:
+ * <ul>
+ *     <li>{@link #get(String, String)} returns <code>null</code>, as if no translations exist</li>
+ *     <li>{@link #get()} blocks until the internal cache is ready</li>
+ *     <li>{@link #update(LocaleData.TranslationMap)} and
+ *     {@link #update(LocaleData.TranslationMap, Set)} calls are queued and applied in order once
+ *     the internal cache is ready</li>
+ * </ul>
+ * Use {@link #isReady()}, {@link #awaitReady(long, TimeUnit)} or
+ * {@link #addOnReadyListener(OnReadyListener)} to find out when the translations are available.
+ * <p>
+ * If the internal cache can't be created, an empty {@link TxMemoryCache} is used instead.
+ * <p>
+ * Example usage:
+ * <pre>
+ * TxCache cache = new TxDeferredCache(new TxDeferredCache.CacheFactory() {
+ *     public TxCache createCache() {
+ *         return TxStandardCache.getCache(context, null, null);
+ *     }
+ * }, null);
+ * </pre>
+ */
+public class TxDeferredCache implements TxETagCache {
+
+    public static final String TAG = TxDeferredCache.class.getSimpleName();
+
+    /**
+     * Creates the internal cache of a {@link TxDeferredCache}.
+     */
+    public interface CacheFactory {
+
+        /**
+         * Creates a cache. It's called on a background thread.
+         */
+        @NonNull TxCache createCache();
+    }
+
+    /**
+     * A listener that is notified when the internal cache of a {@link TxDeferredCache} is ready.
+     */
+    public interface OnReadyListener {
+
+        /**
+         * Called when the translations are ready. It's called on the thread that created the
+         * internal cache or, if the cache is already ready, on the thread that added the listener.
+         */
+        void onReady();
+    }
+
+    // An update that is applied once the internal cache is ready
+    private static class PendingUpdate {
+        final LocaleData.TranslationMap translationMap;
+        // Null for an update that replaces all locales
+        final Set<String> unchangedLocales;
+
+        PendingUpdate(@NonNull LocaleData.TranslationMap translationMap,
+                      @Nullable Set<String> unchangedLocales) {
+            this.translationMap = translationMap;
+            this.unchangedLocales = unchangedLocales;
+        }
+    }
+
+    private final CountDownLatch mReadyLatch = new CountDownLatch(1);
+    private final Object mLock = new Object();
+
+    private volatile TxCache mInternalCache;
+    // Guarded by mLock
+    private ArrayList<PendingUpdate> mPendingUpdates = new ArrayList<>();
+    // Guarded by mLock
+    private ArrayList<OnReadyListener> mListeners = new ArrayList<>();
+
+    /**
+     * Creates a deferred cache and starts creating its internal cache in the background.
+     *
+     * @param cacheFactory The factory that creates the internal cache.
+     * @param executor The executor on which the internal cache is created. If <code>null</code>,
+     *                 a new thread is used.
+     */
+    public TxDeferredCache(@NonNull final CacheFactory cacheFactory, @Nullable Executor executor) {
+        Runnable createCacheRunnable = new Runnable() {
+            @Override
+            public void run() {
+                TxCache cache;
+                try {
+                    cache = cacheFactory.createCache();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Could not create cache: " + e);
+                    cache = new TxMemoryCache();
+                }
+                onCacheCreated(cache);
+            }
+        };
+
+        if (executor != null) {
+            executor.execute(createCacheRunnable);
+        }
+        else {
+            new Thread(createCacheRunnable, TAG).start();
+        }
+    }
+
+    private void onCacheCreated(@NonNull TxCache cache) {
+        ArrayList<OnReadyListener> listeners;
+        synchronized (mLock) {
+            for (PendingUpdate pendingUpdate : mPendingUpdates) {
+                if (pendingUpdate.unchangedLocales == null) {
+                    cache.update(pendingUpdate.translationMap);
+                }
+                else {
+                    TxDecoratorCache.update(cache, pendingUpdate.translationMap,
+                            pendingUpdate.unchangedLocales);
+                }
+            }
+            mPendingUpdates = null;
+            mInternalCache = cache;
+            listeners = mListeners;
+            mListeners = null;
+        }
+        mReadyLatch.countDown();
+
+        for (OnReadyListener listener : listeners) {
+            listener.onReady();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the internal cache is ready.
+     */
+    public boolean isReady() {
+        return mInternalCache != null;
+    }
+
+    /**
+     * Waits for the internal cache to become ready, up to the provided timeout.
+     *
+     * @return <code>true</code> if the internal cache is ready, <code>false</code> if the timeout
+     * elapsed or the thread was interrupted.
+     */
+    public boolean awaitReady(long timeout, @NonNull TimeUnit unit) {
+        if (mInternalCache != null) {
+            return true;
+        }
+        if (timeout <= 0) {
+            return false;
+        }
+        try {
+            return mReadyLatch.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Adds a listener that is notified once the internal cache is ready. If it's already ready,
+     * the listener is notified immediately.
+     */
+    public void addOnReadyListener(@NonNull OnReadyListener listener) {
+        synchronized (mLock) {
+            if (mListeners != null) {
+                mListeners.add(listener);
+                return;
+            }
+        }
+        listener.onReady();
+    }
+
+    /**
+     * Returns the internal cache, waiting for it if needed.
+     */
+    private @NonNull TxCache getInternalCache() {
+        TxCache cache = mInternalCache;
+        while (cache == null) {
+            try {
+                mReadyLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cache = mInternalCache;
+        }
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Blocks until the internal cache is ready.
+     */
+    @NonNull
+    @Override
+    public LocaleData.TranslationMap get() {
+        return getInternalCache().get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns <code>null</code> if the internal cache is not ready yet.
+     */
+    @Nullable
+    @Override
+    public String get(@NonNull String key, @NonNull String locale) {
+        TxCache cache = mInternalCache;
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(key, locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the internal cache is not ready yet, the update is applied when it becomes ready.
+     */
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap) {
+        synchronized (mLock) {
+            if (mPendingUpdates != null) {
+                mPendingUpdates.add(new PendingUpdate(translationMap, null));
+                return;
+            }
+        }
+        mInternalCache.update(translationMap);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the internal cache is not ready yet, the update is applied when it becomes ready.
+     */
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        synchronized (mLock) {
+            if (mPendingUpdates != null) {
+                mPendingUpdates.add(new PendingUpdate(translationMap, unchangedLocales));
+                return;
+            }
+        }
+        TxDecoratorCache.update(mInternalCache, translationMap, unchangedLocales);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Blocks until the internal cache is ready.
+     */
+    @NonNull
+    @Override
+    public Map<String, String> getETags() {
+        TxCache cache = getInternalCache();
+        if (cache instanceof TxETagCache) {
+            return ((TxETagCache) cache).getETags();
+        }
+        return cache.get().getETags();
+    }
+}
@@ -5,10 +5,17 @@ import android.util.Log;
 
 import com.transifex.common.LocaleData;
 import com.transifex.common.TranslationMapStorage;
+import com.transifex.common.Utils;
 import com.transifex.txnative.TranslationMapStorageAndroid;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -18,65 +25,207 @@ import androidx.annotation.Nullable;
  * depending on the constructor used.
  * <p>
  * The directory should contain the translations in the format detailed in
- * {@link TranslationMapStorage}.
+ * {@link TranslationMapStorage}. Binary translation files are preferred over JSON files, if
+ * present.
  * <p>
- * If an error occurs during initialization, {@link #getTranslations()} will return
- * <code>null</code>.
+ * The translations are loaded synchronously, the first time {@link #getTranslations()} is called.
+ * The locales are loaded concurrently, using the calling thread and the threads of an executor.
+ * Alternatively, the translations of each locale can be loaded separately using
+ * {@link #getTranslations(String)}.
+ * <p>
+ * If an error occurs during loading, {@link #getTranslations()} will return <code>null</code>.
+ * <p>
+ * When a file directory is used, its content is captured when the provider is created, without
+ * loading the translations. Translations that are loaded later are the ones that existed at that
+ * time, even if the directory is modified in the meantime, for example by
+ * {@link TxFileOutputCacheDecorator}.
  */
-public class TxDiskTranslationsProvider implements TxTranslationsProvider {
+public class TxDiskTranslationsProvider implements TxLazyTranslationsProvider {
 
     public static final String TAG = TxDiskTranslationsProvider.class.getSimpleName();
 
-    private final LocaleData.TranslationMap mTranslations;
+    private final TranslationsDirectorySnapshot mSrcDirectorySnapshot;
+    private final AssetManager mAssetManager;
+    private final String mSrcDirectoryPath;
+    private final Executor mExecutor;
+
+    // The default executor, shared by all instances. Its threads terminate when idle.
+    private static Executor sDefaultExecutor;
+
+    private LocaleData.TranslationMap mTranslations;
+    private boolean mTranslationsLoaded;
 
     /**
-     * Initializes the provider with a file directory containing translations and loads them
-     * synchronously.
+     * Initializes the provider with a file directory containing translations.
+     * <p>
+     * The directory is listed and its files are captured synchronously.
      *
      * @param srcDirectory The directory containing translations in the expected format.
      */
     public TxDiskTranslationsProvider(@NonNull File srcDirectory) {
-        // Make a check to avoid TranslationMapStorage complaining about directory not existing.
-        if (!srcDirectory.isDirectory()) {
-            Log.d(TAG, "Translations directory does not exist yet: " + srcDirectory.getPath());
-            mTranslations = null;
-            return;
-        }
+        this(srcDirectory, null);
+    }
 
-        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
-        mTranslations = storage.fromDisk(srcDirectory);
+    /**
+     * Initializes the provider with a file directory containing translations and an executor
+     * for loading the locales concurrently.
+     *
+     * @param srcDirectory The directory containing translations in the expected format.
+     * @param executor The executor that provides additional threads for loading the locales; if
+     *                 <code>null</code> is provided, a default executor, with one thread less than
+     *                 the available processors, is used.
+     */
+    public TxDiskTranslationsProvider(@NonNull File srcDirectory, @Nullable Executor executor) {
+        mSrcDirectorySnapshot = new TranslationsDirectorySnapshot(srcDirectory,
+                TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        mAssetManager = null;
+        mSrcDirectoryPath = null;
+        mExecutor = (executor != null) ? executor : getDefaultExecutor();
     }
 
     /**
-     * Initializes the provider with a directory under the application's raw asset files and loads
-     * the translations synchronously.
+     * Initializes the provider with a directory under the application's raw asset files.
      *
      * @param manager An asset manager instance.
      * @param srcDirectoryPath The path to the directory containing translations in the expected
      *                         format.
      */
     public TxDiskTranslationsProvider(@NonNull AssetManager manager, @NonNull String srcDirectoryPath) {
+        this(manager, srcDirectoryPath, null);
+    }
+
+    /**
+     * Initializes the provider with a directory under the application's raw asset files and an
+     * executor for loading the locales concurrently.
+     *
+     * @param manager An asset manager instance.
+     * @param srcDirectoryPath The path to the directory containing translations in the expected
+     *                         format.
+     * @param executor The executor that provides additional threads for loading the locales; if
+     *                 <code>null</code> is provided, a default executor, with one thread less than
+     *                 the available processors, is used.
+     */
+    public TxDiskTranslationsProvider(@NonNull AssetManager manager, @NonNull String srcDirectoryPath,
+                                      @Nullable Executor executor) {
+        mSrcDirectorySnapshot = null;
+        mAssetManager = manager;
+        mSrcDirectoryPath = srcDirectoryPath;
+        mExecutor = (executor != null) ? executor : getDefaultExecutor();
+    }
+
+    @Override
+    @Nullable
+    public synchronized LocaleData.TranslationMap getTranslations() {
+        if (!mTranslationsLoaded) {
+            mTranslations = loadTranslations();
+            mTranslationsLoaded = true;
+        }
+        return mTranslations;
+    }
+
+    @Override
+    @Nullable
+    public Set<String> getLocales() {
+        if (mSrcDirectorySnapshot != null) {
+            return mSrcDirectorySnapshot.getLocales();
+        }
+
+        try {
+            String[] localeDirNames = mAssetManager.list(mSrcDirectoryPath);
+            if (localeDirNames == null) {
+                return null;
+            }
+            HashSet<String> locales = new HashSet<>(localeDirNames.length);
+            for (String localeDirName : localeDirNames) {
+                locales.add(localeDirName);
+            }
+            return locales;
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    @Override
+    @Nullable
+    public LocaleData.LocaleStrings getTranslations(@NonNull String locale) {
+        synchronized (this) {
+            if (mTranslationsLoaded) {
+                return (mTranslations != null) ? mTranslations.get(locale) : null;
+            }
+        }
+
+        if (mSrcDirectorySnapshot != null) {
+            return mSrcDirectorySnapshot.localeFromSnapshot(locale);
+        }
+        return getAssetsStorage().localeFromAssetsDirectory(mSrcDirectoryPath, locale);
+    }
+
+    @Override
+    @Nullable
+    public String getETag(@NonNull String locale) {
+        synchronized (this) {
+            if (mTranslationsLoaded) {
+                LocaleData.LocaleStrings localeStrings = (mTranslations != null) ? mTranslations.get(locale) : null;
+                return (localeStrings != null) ? localeStrings.getETag() : null;
+            }
+        }
+
+        if (mSrcDirectorySnapshot != null) {
+            return mSrcDirectorySnapshot.getETag(locale);
+        }
+        try {
+            String etag = Utils.readInputStream(mAssetManager.open(mSrcDirectoryPath + File.separator + locale
+                    + File.separator + TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME
+                    + TranslationMapStorage.ETAG_FILE_SUFFIX));
+            return etag.isEmpty() ? null : etag;
+        } catch (IOException ignored) {
+            // The ETag file is optional
+            return null;
+        }
+    }
+
+    private @Nullable LocaleData.TranslationMap loadTranslations() {
+        if (mSrcDirectorySnapshot != null) {
+            // Make a check to avoid TranslationMapStorage complaining about directory not existing.
+            if (!mSrcDirectorySnapshot.exists()) {
+                Log.d(TAG, "Translations directory does not exist yet: " + mSrcDirectorySnapshot.getPath());
+                return null;
+            }
+
+            return mSrcDirectorySnapshot.fromSnapshot(mExecutor);
+        }
+
         // Make a check and print a debug log
         boolean dirContainsTranslations = false;
         try {
-            String[] files = manager.list(srcDirectoryPath);
+            String[] files = mAssetManager.list(mSrcDirectoryPath);
             dirContainsTranslations = files.length != 0;
         } catch (IOException ignored) {
         }
         if (!dirContainsTranslations) {
-            Log.d(TAG, "No translations exist in the Assets folder: " + srcDirectoryPath);
-            mTranslations = null;
-            return;
+            Log.d(TAG, "No translations exist in the Assets folder: " + mSrcDirectoryPath);
+            return null;
         }
 
-        TranslationMapStorageAndroid storage = new TranslationMapStorageAndroid(manager,
-                TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
-        mTranslations = storage.fromAssetsDirectory(srcDirectoryPath);
+        return getAssetsStorage().fromAssetsDirectory(mSrcDirectoryPath, mExecutor);
     }
 
-    @Override
-    @Nullable
-    public LocaleData.TranslationMap getTranslations() {
-        return mTranslations;
+    private static synchronized @NonNull Executor getDefaultExecutor() {
+        if (sDefaultExecutor == null) {
+            // The calling thread loads locales too
+            int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                    1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            executor.allowCoreThreadTimeOut(true);
+            sDefaultExecutor = executor;
+        }
+        return sDefaultExecutor;
+    }
+
+    private @NonNull TranslationMapStorageAndroid getAssetsStorage() {
+        return new TranslationMapStorageAndroid(mAssetManager,
+                TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
     }
 }
@@ -0,0 +1,41 @@
+package com.transifex.txnative.cache;
+
+import com.transifex.common.LocaleData;
+
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link TxCache} that can provide the ETags of its translations without loading them.
+ * <p>
+ * The SDK uses the ETags to make conditional requests when fetching translations, so that the
+ * locales that have not changed are not downloaded again. If a cache does not implement this
+ * interface, the ETags are read from the translations returned by {@link #get()}.
+ */
+public interface TxETagCache extends TxCache {
+
+    /**
+     * Returns the ETags of the cached translations, mapped by locale code. Locales without an
+     * ETag are not included.
+     * <p>
+     * Translations that have not been loaded yet should not be loaded by this method.
+     */
+    @NonNull Map<String, String> getETags();
+
+    /**
+     * Updates the cache like {@link #update(LocaleData.TranslationMap)}, but keeps the cached
+     * translations of the provided unchanged locales instead of replacing them.
+     * <p>
+     * The SDK calls this method instead of {@link #update(LocaleData.TranslationMap)} when some
+     * locales have not changed since they were cached, so that they don't have to be read from
+     * the cache. Translations that have not been loaded yet should not be loaded by this method.
+     * Unchanged locales that are not cached are ignored. Like
+     * {@link #update(LocaleData.TranslationMap)}, it's called on a background thread.
+     *
+     * @param translationMap The translations of the locales that have changed.
+     * @param unchangedLocales The locales whose cached translations are kept.
+     */
+    void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales);
+}
@@ -7,10 +7,17 @@ import com.transifex.common.TranslationMapStorage;
 import com.transifex.common.Utils;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -20,14 +27,35 @@ import androidx.annotation.Nullable;
  * in the constructor.
  * <p>
  * Storing the translations happens asynchronously on a background thread after
- * {@link #update(LocaleData.TranslationMap)} is called.
+ * {@link #update(LocaleData.TranslationMap)} is called. Updates that happen within the write delay
+ * are coalesced, so that only the latest translations are written. Only the locales that differ
+ * from the ones on disk are rewritten.
  */
 public class TxFileOutputCacheDecorator extends TxDecoratorCache {
 
     public static final String TAG = TxFileOutputCacheDecorator.class.getSimpleName();
 
+    /**
+     * The default time in milliseconds that the decorator waits after an update before writing the
+     * translations to the disk.
+     */
+    public static final long DEFAULT_WRITE_DELAY_MILLIS = 1000;
+
     private final File mDstDirectory;
     private final Executor mExecutor;
+    private final long mWriteDelayMillis;
+
+    // The translations that are waiting to be written. Guarded by "this".
+    private LocaleData.TranslationMap mPendingTranslationMap;
+    // The locales whose stored files are kept by the pending write. Guarded by "this".
+    private Set<String> mPendingKeptLocales;
+    // Whether a write task has been submitted to the executor. Guarded by "this".
+    private boolean mWriteScheduled;
+
+    private final Object mWriteLock = new Object();
+    // The locales that are known to be on disk, as they were last written. It's null until the
+    // first write, which seeds it from the files that are already on disk. Guarded by mWriteLock.
+    private HashMap<String, LocaleData.LocaleStrings> mWrittenLocales;
 
     /**
      * Creates a new instance with a specific directory for storing the translations to the disk
@@ -38,55 +66,261 @@ public class TxFileOutputCacheDecorator extends TxDecoratorCache {
      * @param internalCache The internal cache.
      */
     public TxFileOutputCacheDecorator(@NonNull File dstDirectory, @NonNull TxCache internalCache) {
-        this(null, dstDirectory, internalCache);
+        this(dstDirectory, internalCache, DEFAULT_WRITE_DELAY_MILLIS);
     }
 
+    /**
+     * Creates a new instance with a specific directory for storing the translations to the disk,
+     * an internal cache and a write delay.
+     *
+     * @param dstDirectory The destination directory to write the translations to when the
+     * {@link #update(LocaleData.TranslationMap)} is called.
+     * @param internalCache The internal cache.
+     * @param writeDelayMillis The time in milliseconds to wait after an update before writing the
+     *                         translations to the disk. Any updates that happen in the meantime
+     *                         are coalesced into a single write. Set to 0 to write as soon as
+     *                         possible.
+     */
+    public TxFileOutputCacheDecorator(@NonNull File dstDirectory, @NonNull TxCache internalCache,
+                                      long writeDelayMillis) {
+        this(null, dstDirectory, internalCache, writeDelayMillis);
+    }
 
     /**
      * Creates a new instance with a specific directory for storing the translations to the disk
      * and an internal cache.
      *
      * @param executor The executor that will run the IO operations; if <code>null</code> is
-     *                 provided, {@link Executors#newSingleThreadExecutor()} is used.
+     *                 provided, {@link Executors#newSingleThreadScheduledExecutor()} is used.
      * @param dstDirectory  The destination directory to write the translations to when the
      *                      {@link #update(LocaleData.TranslationMap)} is called.
      * @param internalCache The internal cache.
      */
     protected TxFileOutputCacheDecorator(@Nullable Executor executor, @NonNull File dstDirectory,
                                          @NonNull TxCache internalCache) {
+        this(executor, dstDirectory, internalCache, DEFAULT_WRITE_DELAY_MILLIS);
+    }
+
+    /**
+     * Creates a new instance with a specific directory for storing the translations to the disk,
+     * an internal cache and a write delay.
+     *
+     * @param executor The executor that will run the IO operations; if <code>null</code> is
+     *                 provided, {@link Executors#newSingleThreadScheduledExecutor()} is used. The
+     *                 write delay is applied only if the executor is a
+     *                 {@link ScheduledExecutorService}; otherwise, the write task is submitted
+     *                 immediately and only the updates that happen before it runs are coalesced.
+     * @param dstDirectory  The destination directory to write the translations to when the
+     *                      {@link #update(LocaleData.TranslationMap)} is called.
+     * @param internalCache The internal cache.
+     * @param writeDelayMillis The time in milliseconds to wait after an update before writing the
+     *                         translations to the disk.
+     */
+    protected TxFileOutputCacheDecorator(@Nullable Executor executor, @NonNull File dstDirectory,
+                                         @NonNull TxCache internalCache, long writeDelayMillis) {
         super(internalCache);
-        mExecutor = (executor != null) ? executor : Executors.newSingleThreadExecutor();
+        mExecutor = (executor != null) ? executor : Executors.newSingleThreadScheduledExecutor();
         mDstDirectory = dstDirectory;
+        mWriteDelayMillis = Math.max(0, writeDelayMillis);
     }
 
     /**
-     * Updates the cache with the provided translations and writes them to the specified directory
-     * after clearing its content, if any.
+     * Updates the cache with the provided translations and schedules writing them to the
+     * specified directory.
      * <p>
      * For the serialization and writing of the translations on disk, {@link TranslationMapStorage}
-     * is used internally. Each translation file uses "txstrings.json" as filename. Unlike
-     * TranslationMapStorage, pre-existing translations are not kept.
+     * is used internally. Each translation file uses "txstrings.json" as filename and is
+     * accompanied by a binary translation file named "txstrings.bin". Unlike
+     * TranslationMapStorage, pre-existing translations are not kept: the directories of locales
+     * that are not part of the provided translations are deleted.
+     * <p>
+     * A locale is rewritten only if its content or ETag differs from what is on disk. The first
+     * write after the instance is created compares the locales against the stored files, for
+     * example from a previous launch, using their manifests and ETags. Each file is replaced
+     * atomically, so an interrupted write leaves the previous translations in place.
      */
     @Override
     public void update(@NonNull final LocaleData.TranslationMap translationMap) {
         super.update(translationMap);
+        scheduleWrite(translationMap, Collections.<String>emptySet());
+    }
 
-        try {
-            mExecutor.execute(new Runnable() {
-                @Override
-                public void run() {
-                    // Delete existing translation files
-                    if (mDstDirectory.isDirectory()) {
-                        Utils.deleteDirectoryContents(mDstDirectory);
-                    }
-                    // Write translation files
-                    TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
-                    HashMap<String, File> files = storage.toDisk(translationMap, mDstDirectory);
+    /**
+     * Updates the cache with the provided translations, keeping the unchanged locales, and
+     * schedules writing them to the specified directory.
+     * <p>
+     * The stored files of the unchanged locales are kept as they are, so their translations are
+     * not read from the cache. Otherwise, the translations are written as described in
+     * {@link #update(LocaleData.TranslationMap)}.
+     */
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        super.update(translationMap, unchangedLocales);
+
+        synchronized (this) {
+            if (mPendingTranslationMap == null) {
+                scheduleWrite(translationMap, new HashSet<>(unchangedLocales));
+                return;
+            }
+
+            // Coalesce with the pending write: the unchanged locales that it would write are
+            // written with the new translations and the ones it would keep are still kept
+            HashSet<String> keptLocales = new HashSet<>();
+            for (String locale : unchangedLocales) {
+                if (mPendingTranslationMap.get(locale) == null
+                        && mPendingKeptLocales.contains(locale)) {
+                    keptLocales.add(locale);
+                }
+            }
+            scheduleWrite(TxDecoratorCache.withUnchangedLocales(translationMap, unchangedLocales,
+                    mPendingTranslationMap), keptLocales);
+        }
+    }
+
+    /**
+     * Schedules writing the provided translations, replacing any pending ones.
+     *
+     * @param translationMap The translations to write.
+     * @param keptLocales The locales whose stored files are kept as they are.
+     */
+    private void scheduleWrite(@NonNull LocaleData.TranslationMap translationMap,
+                               @NonNull Set<String> keptLocales) {
+        synchronized (this) {
+            mPendingTranslationMap = translationMap;
+            mPendingKeptLocales = keptLocales;
+            if (mWriteScheduled) {
+                // The scheduled task will write the latest translations
+                return;
+            }
+            mWriteScheduled = true;
+        }
+
+        Runnable writeTask = new Runnable() {
+            @Override
+            public void run() {
+                LocaleData.TranslationMap pendingTranslationMap;
+                Set<String> pendingKeptLocales;
+                synchronized (TxFileOutputCacheDecorator.this) {
+                    pendingTranslationMap = mPendingTranslationMap;
+                    pendingKeptLocales = mPendingKeptLocales;
+                    mPendingTranslationMap = null;
+                    mPendingKeptLocales = null;
+                    mWriteScheduled = false;
+                }
+                if (pendingTranslationMap != null) {
+                    write(pendingTranslationMap, pendingKeptLocales);
                 }
-            });
+            }
+        };
+
+        try {
+            if (mWriteDelayMillis > 0 && mExecutor instanceof ScheduledExecutorService) {
+                ((ScheduledExecutorService) mExecutor).schedule(writeTask, mWriteDelayMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+            else {
+                mExecutor.execute(writeTask);
+            }
         }
         catch (RejectedExecutionException exception) {
             Log.e(TAG, "Could not store updated translations: " + exception);
+            synchronized (this) {
+                mWriteScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Writes the locales of the provided translations that changed since the last write and
+     * deletes the locales that are neither provided nor kept.
+     */
+    private void write(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> keptLocales) {
+        synchronized (mWriteLock) {
+            Set<String> locales = translationMap.getLocales();
+            TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                    TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+
+            // Delete the files that don't belong to a provided or kept locale
+            File[] files = mDstDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.isDirectory() || !(locales.contains(file.getName())
+                            || keptLocales.contains(file.getName()))) {
+                        Utils.deleteDirectory(file);
+                    }
+                }
+            }
+
+            // Before the first write, the written locales are seeded from the stored files that
+            // match the provided translations
+            if (mWrittenLocales == null) {
+                mWrittenLocales = new HashMap<>(locales.size());
+                for (String locale : locales) {
+                    LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+                    if (localeStrings != null && storage.isOnDisk(mDstDirectory, locale, localeStrings)) {
+                        mWrittenLocales.put(locale, localeStrings);
+                    }
+                }
+            }
+            else {
+                Iterator<Map.Entry<String, LocaleData.LocaleStrings>> iterator =
+                        mWrittenLocales.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    String locale = iterator.next().getKey();
+                    if (!locales.contains(locale) && !keptLocales.contains(locale)) {
+                        iterator.remove();
+                    }
+                }
+            }
+
+            // Collect the locales that changed
+            LocaleData.TranslationMap changedTranslations = new LocaleData.TranslationMap(locales.size());
+            for (String locale : locales) {
+                LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+                if (localeStrings == null) {
+                    continue; // Can't happen. Just to suppress lint
+                }
+                if (!isWritten(locale, localeStrings)) {
+                    changedTranslations.put(locale, localeStrings);
+                }
+            }
+            if (changedTranslations.isEmpty()) {
+                return;
+            }
+
+            // Write translation files
+            HashMap<String, File> writtenFiles = storage.toDisk(changedTranslations, mDstDirectory);
+            for (String locale : changedTranslations.getLocales()) {
+                if (writtenFiles.containsKey(locale)) {
+                    mWrittenLocales.put(locale, changedTranslations.get(locale));
+                }
+                else {
+                    // Retry on the next write
+                    mWrittenLocales.remove(locale);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the provided locale strings are the same as the ones last
+     * written for the provided locale.
+     */
+    private boolean isWritten(@NonNull String locale, @NonNull LocaleData.LocaleStrings localeStrings) {
+        LocaleData.LocaleStrings writtenLocaleStrings = mWrittenLocales.get(locale);
+        if (writtenLocaleStrings == localeStrings) {
+            // Cached translations are not modified, so the same object has the same content
+            return true;
+        }
+        if (writtenLocaleStrings == null) {
+            return false;
+        }
+        // LocaleStrings.equals() does not take the ETag into account
+        String writtenETag = writtenLocaleStrings.getETag();
+        String etag = localeStrings.getETag();
+        if (writtenETag == null ? etag != null : !writtenETag.equals(etag)) {
+            return false;
         }
+        return writtenLocaleStrings.equals(localeStrings);
     }
 }
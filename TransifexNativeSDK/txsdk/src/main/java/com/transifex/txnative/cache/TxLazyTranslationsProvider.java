@@ -0,0 +1,47 @@
+package com.transifex.txnative.cache;
+
+import com.transifex.common.LocaleData;
+
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link TxTranslationsProvider} that can provide the translations of each locale separately,
+ * so that they are loaded only when needed.
+ *
+ * @see TxProviderBasedCache#TxProviderBasedCache(TxTranslationsProvider[], TxCache, boolean)
+ */
+public interface TxLazyTranslationsProvider extends TxTranslationsProvider {
+
+    /**
+     * Returns the locales that the provider has translations for, without loading them.
+     *
+     * @return A set of locale codes or <code>null</code> if an error occurred.
+     */
+    @Nullable
+    Set<String> getLocales();
+
+    /**
+     * Returns the translations of the provided locale.
+     *
+     * @param locale The locale code.
+     *
+     * @return A {@link LocaleData.LocaleStrings} object or <code>null</code> if the locale is not
+     * supported or an error occurred.
+     */
+    @Nullable
+    LocaleData.LocaleStrings getTranslations(@NonNull String locale);
+
+    /**
+     * Returns the ETag of the translations of the provided locale, without loading them.
+     *
+     * @param locale The locale code.
+     *
+     * @return The ETag or <code>null</code> if the locale is not supported, its translations
+     * don't have an ETag or an error occurred.
+     */
+    @Nullable
+    String getETag(@NonNull String locale);
+}
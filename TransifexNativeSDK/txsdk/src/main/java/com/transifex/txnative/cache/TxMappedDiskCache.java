@@ -0,0 +1,230 @@
+package com.transifex.txnative.cache;
+
+import android.util.Log;
+
+import com.transifex.common.LocaleData;
+import com.transifex.common.MappedTranslationBundle;
+import com.transifex.common.TranslationBundle;
+import com.transifex.common.TranslationMapStorage;
+import com.transifex.common.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A cache that memory-maps the binary translation files of a directory instead of loading them on
+ * the heap.
+ * <p>
+ * The directory should contain the translations in the format detailed in
+ * {@link TranslationMapStorage}, including the binary translation files, which are written by
+ * {@link TxFileOutputCacheDecorator} and by the command-line tool's pull command when binary
+ * output is requested. A string is decoded only when {@link #get(String, String)} requests it, so
+ * heap usage is proportional to the strings that are actually displayed. Locales that don't have a
+ * valid binary translation file are loaded from their JSON file on the heap.
+ * <p>
+ * {@link #get()} decodes all translations on every call, so it should be avoided in hot paths.
+ * {@link #getETags()} reads only the ETags, which are stored separately.
+ * <p>
+ * When the cache is updated, the mapped files are released and the provided translations are
+ * used from then on. {@link #update(LocaleData.TranslationMap, Set)} keeps the mappings of the
+ * unchanged locales, so they are not loaded on the heap.
+ * <p>
+ * Example usage:
+ * <pre>
+ * TxCache cache = new TxFileOutputCacheDecorator(
+ *         translationsDirectory,
+ *         new TxReadonlyCacheDecorator(new TxMappedDiskCache(translationsDirectory)));
+ * </pre>
+ */
+public class TxMappedDiskCache implements TxETagCache {
+
+    public static final String TAG = TxMappedDiskCache.class.getSimpleName();
+
+    private static class LocaleEntry {
+        final MappedTranslationBundle bundle;
+        final LocaleData.LocaleStrings localeStrings;
+        final String etag;
+
+        LocaleEntry(@Nullable MappedTranslationBundle bundle,
+                    @Nullable LocaleData.LocaleStrings localeStrings, @Nullable String etag) {
+            this.bundle = bundle;
+            this.localeStrings = localeStrings;
+            this.etag = etag;
+        }
+    }
+
+    private volatile HashMap<String, LocaleEntry> mLocaleEntries;
+    private volatile LocaleData.TranslationMap mTranslationMap;
+
+    /**
+     * Creates a cache that maps the binary translation files of the provided directory.
+     * <p>
+     * The files are mapped synchronously, which is cheap, since their content is not read.
+     *
+     * @param srcDirectory The directory containing translations in the expected format.
+     */
+    public TxMappedDiskCache(@NonNull File srcDirectory) {
+        mLocaleEntries = new HashMap<>();
+
+        String[] localeDirNames = srcDirectory.list();
+        if (localeDirNames == null) {
+            Log.d(TAG, "Translations directory does not exist yet: " + srcDirectory.getPath());
+            return;
+        }
+
+        TranslationMapStorage jsonStorage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        for (String locale : localeDirNames) {
+            File localeDir = new File(srcDirectory, locale);
+            if (!localeDir.isDirectory()) {
+                continue;
+            }
+
+            File jsonFile = new File(localeDir, TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+            String etag = readETag(new File(jsonFile.getPath() + TranslationMapStorage.ETAG_FILE_SUFFIX));
+
+            File binaryFile = new File(localeDir, TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+            if (binaryFile.isFile()) {
+                try {
+                    mLocaleEntries.put(locale, new LocaleEntry(MappedTranslationBundle.open(binaryFile), null, etag));
+                    continue;
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not map file " + binaryFile.getPath() + " : " + e);
+                }
+            }
+
+            LocaleData.LocaleStrings localeStrings = jsonStorage.localeFromDisk(srcDirectory, locale);
+            if (localeStrings != null) {
+                mLocaleEntries.put(locale, new LocaleEntry(null, localeStrings, etag));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unless the cache has been updated, a new object is decoded from the mapped files on each
+     * call.
+     */
+    @NonNull
+    @Override
+    public LocaleData.TranslationMap get() {
+        LocaleData.TranslationMap translationMap = mTranslationMap;
+        if (translationMap != null) {
+            return translationMap;
+        }
+
+        HashMap<String, LocaleEntry> localeEntries = mLocaleEntries;
+        translationMap = new LocaleData.TranslationMap(localeEntries.size());
+        for (Map.Entry<String, LocaleEntry> entry : localeEntries.entrySet()) {
+            LocaleEntry localeEntry = entry.getValue();
+            if (localeEntry.localeStrings != null) {
+                translationMap.put(entry.getKey(), localeEntry.localeStrings);
+                continue;
+            }
+            try {
+                LocaleData.LocaleStrings localeStrings = localeEntry.bundle.toLocaleStrings();
+                localeStrings.setETag(localeEntry.etag);
+                translationMap.put(entry.getKey(), localeStrings);
+            } catch (TranslationBundle.InvalidFormatException e) {
+                Log.e(TAG, "Could not decode translations for locale " + entry.getKey() + " : " + e);
+            }
+        }
+        return translationMap;
+    }
+
+    @Nullable
+    @Override
+    public String get(@NonNull String key, @NonNull String locale) {
+        LocaleData.TranslationMap translationMap = mTranslationMap;
+        if (translationMap != null) {
+            LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+            return (localeStrings != null) ? localeStrings.get(key) : null;
+        }
+
+        LocaleEntry localeEntry = mLocaleEntries.get(locale);
+        if (localeEntry == null) {
+            return null;
+        }
+        if (localeEntry.localeStrings != null) {
+            return localeEntry.localeStrings.get(key);
+        }
+        try {
+            return localeEntry.bundle.get(key);
+        } catch (IndexOutOfBoundsException e) {
+            Log.e(TAG, "Translations file for locale " + locale + " is corrupted: " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap) {
+        mTranslationMap = translationMap;
+        // Release the mappings
+        mLocaleEntries = new HashMap<>(0);
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        LocaleData.TranslationMap currentTranslations = mTranslationMap;
+        if (currentTranslations != null) {
+            update(TxDecoratorCache.withUnchangedLocales(translationMap, unchangedLocales,
+                    currentTranslations));
+            return;
+        }
+
+        // Keep the mappings of the unchanged locales and hold the changed ones on the heap
+        HashMap<String, LocaleEntry> currentLocaleEntries = mLocaleEntries;
+        HashMap<String, LocaleEntry> localeEntries =
+                new HashMap<>(translationMap.getLocales().size() + unchangedLocales.size());
+        for (String locale : unchangedLocales) {
+            LocaleEntry localeEntry = currentLocaleEntries.get(locale);
+            if (localeEntry != null) {
+                localeEntries.put(locale, localeEntry);
+            }
+        }
+        for (String locale : translationMap.getLocales()) {
+            LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+            if (localeStrings != null) {
+                localeEntries.put(locale, new LocaleEntry(null, localeStrings, localeStrings.getETag()));
+            }
+        }
+        mLocaleEntries = localeEntries;
+    }
+
+    @NonNull
+    @Override
+    public Map<String, String> getETags() {
+        LocaleData.TranslationMap translationMap = mTranslationMap;
+        if (translationMap != null) {
+            return translationMap.getETags();
+        }
+
+        HashMap<String, LocaleEntry> localeEntries = mLocaleEntries;
+        HashMap<String, String> etags = new HashMap<>(localeEntries.size());
+        for (Map.Entry<String, LocaleEntry> entry : localeEntries.entrySet()) {
+            if (entry.getValue().etag != null) {
+                etags.put(entry.getKey(), entry.getValue().etag);
+            }
+        }
+        return etags;
+    }
+
+    private static @Nullable String readETag(@NonNull File etagFile) {
+        if (!etagFile.isFile()) {
+            return null;
+        }
+        try {
+            String etag = Utils.readInputStream(new FileInputStream(etagFile));
+            return etag.isEmpty() ? null : etag;
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import androidx.annotation.NonNull;
@@ -9,10 +11,15 @@ import androidx.annotation.Nullable;
 
 /**
  * A cache that holds translations in memory.
+ * <p>
+ * The cache can be read from any thread without locking. Each update publishes a shallow copy of
+ * the provided translation map as a snapshot, which readers see either entirely or not at all.
+ * Adding or removing locales from the provided map after the update does not affect the cache,
+ * but the {@link LocaleData.LocaleStrings} objects are shared, so they should not be modified.
  */
-public class TxMemoryCache implements TxCache {
+public class TxMemoryCache implements TxETagCache {
 
-    private LocaleData.TranslationMap mTranslationMap = new LocaleData.TranslationMap(0);
+    private volatile LocaleData.TranslationMap mTranslationMap = new LocaleData.TranslationMap(0);
 
     @NonNull
     @Override
@@ -23,6 +30,7 @@ public class TxMemoryCache implements TxCache {
     @Nullable
     @Override
     public String get(@NonNull String key, @NonNull String locale) {
+        // Read the snapshot once, so that the lookup is not affected by concurrent updates
         LocaleData.LocaleStrings localeStrings = mTranslationMap.get(locale);
         if (localeStrings == null) {
             return  null;
@@ -32,6 +40,28 @@ public class TxMemoryCache implements TxCache {
 
     @Override
     public void update(@NonNull LocaleData.TranslationMap translationMap) {
-        mTranslationMap = translationMap;
+        // Copy the locale mapping, so that the snapshot can't change after it's published
+        HashMap<String, LocaleData.LocaleStrings> map =
+                new HashMap<>(translationMap.getLocales().size());
+        for (String locale : translationMap.getLocales()) {
+            LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
+            if (localeStrings != null) {
+                map.put(locale, localeStrings);
+            }
+        }
+        mTranslationMap = new LocaleData.TranslationMap(map);
+    }
+
+    @NonNull
+    @Override
+    public Map<String, String> getETags() {
+        return mTranslationMap.getETags();
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        // The returned map is a new one, so it can be published without copying it again
+        mTranslationMap = TxDecoratorCache.withUnchangedLocales(translationMap, unchangedLocales,
+                mTranslationMap);
     }
 }
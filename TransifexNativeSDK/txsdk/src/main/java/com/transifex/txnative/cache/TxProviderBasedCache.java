@@ -2,7 +2,14 @@ package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 /**
  * Composite class that accepts a number of translations providers and an internal cache. When
@@ -17,9 +24,20 @@ import androidx.annotation.NonNull;
  *                 new TxDiskTranslationsProvider(secondTranslationsDirectory)},
  *         new TxMemoryCache());
  * </pre>
+ * <p>
+ * In lazy mode, the translations of a locale are loaded the first time they are needed. See
+ * {@link #TxProviderBasedCache(TxTranslationsProvider[], TxCache, boolean)}.
  */
 public class TxProviderBasedCache extends TxDecoratorCache {
 
+    private final TxTranslationsProvider[] mProviders;
+    // The translations of the providers that don't support lazy loading. Used in lazy mode.
+    private final LocaleData.TranslationMap[] mProviderTranslations;
+    // The locales of each provider that supports lazy loading. Used in lazy mode.
+    private final Set<String>[] mProviderLocales;
+    // The locales that haven't been loaded yet. Null if not in lazy mode.
+    private final Set<String> mPendingLocales;
+
     /**
      * Creates a provider-based cache with the given internal cache and updates it with with the
      * contents of the given translations providers.
@@ -34,13 +52,203 @@ public class TxProviderBasedCache extends TxDecoratorCache {
      * @param internalCache The internal cache to be used.
      */
     public TxProviderBasedCache(@NonNull TxTranslationsProvider[] providers, @NonNull TxCache internalCache) {
+        this(providers, internalCache, false);
+    }
+
+    /**
+     * Creates a provider-based cache with the given internal cache, which is updated with the
+     * contents of the given translations providers either in the constructor or lazily.
+     * <p>
+     * If lazy mode is disabled, this constructor behaves like
+     * {@link #TxProviderBasedCache(TxTranslationsProvider[], TxCache)}.
+     * <p>
+     * In lazy mode, only the available locales are listed in the constructor. The translations of
+     * a locale are loaded the first time {@link #get(String, String)} is called for it. Providers
+     * implementing {@link TxLazyTranslationsProvider} load only the requested locale; the rest are
+     * loaded in the constructor. Loading a locale updates the internal cache with the current
+     * translations plus the locale's translations from each provider, in the given order. Unlike
+     * the eager mode, a provider never removes locales that an earlier provider supplied.
+     * <p>
+     * {@link #get()} and {@link #update(LocaleData.TranslationMap)} load all the pending locales
+     * first, so that they operate on the complete translations. {@link #getETags()} does not load
+     * them: the ETags of the pending locales are provided by the providers. Neither does
+     * {@link #update(LocaleData.TranslationMap, Set)}: the unchanged locales that are pending
+     * remain pending, while the rest are no longer loaded from the providers.
+     *
+     * @param providers An array of translations providers.
+     * @param internalCache The internal cache to be used.
+     * @param lazy <code>true</code> to enable lazy mode.
+     */
+    public TxProviderBasedCache(@NonNull TxTranslationsProvider[] providers, @NonNull TxCache internalCache,
+                                boolean lazy) {
         super(internalCache);
 
-        for (TxTranslationsProvider provider : providers) {
-            LocaleData.TranslationMap translations = provider.getTranslations();
-            if (translations != null && !translations.isEmpty()) {
-                mInternalCache.update(provider.getTranslations());
+        if (!lazy) {
+            mProviders = null;
+            mProviderTranslations = null;
+            mProviderLocales = null;
+            mPendingLocales = null;
+
+            for (TxTranslationsProvider provider : providers) {
+                LocaleData.TranslationMap translations = provider.getTranslations();
+                if (translations != null && !translations.isEmpty()) {
+                    mInternalCache.update(provider.getTranslations());
+                }
+            }
+            return;
+        }
+
+        mProviders = providers.clone();
+        mProviderTranslations = new LocaleData.TranslationMap[providers.length];
+        //noinspection unchecked
+        mProviderLocales = (Set<String>[]) new Set[providers.length];
+        mPendingLocales = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        for (int i = 0; i < mProviders.length; i++) {
+            TxTranslationsProvider provider = mProviders[i];
+            Set<String> locales;
+            if (provider instanceof TxLazyTranslationsProvider) {
+                locales = ((TxLazyTranslationsProvider) provider).getLocales();
+                mProviderLocales[i] = locales;
+            } else {
+                mProviderTranslations[i] = provider.getTranslations();
+                locales = (mProviderTranslations[i] != null) ? mProviderTranslations[i].getLocales() : null;
+            }
+            if (locales != null) {
+                mPendingLocales.addAll(locales);
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public LocaleData.TranslationMap get() {
+        loadAllPendingLocales();
+        return super.get();
+    }
+
+    @Nullable
+    @Override
+    public String get(@NonNull String key, @NonNull String locale) {
+        if (mPendingLocales != null && mPendingLocales.contains(locale)) {
+            loadLocale(locale);
+        }
+        return super.get(key, locale);
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap) {
+        loadAllPendingLocales();
+        super.update(translationMap);
+    }
+
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        if (mPendingLocales == null) {
+            super.update(translationMap, unchangedLocales);
+            return;
+        }
+
+        // Synchronized with loadLocale(), so that a pending locale is not loaded while it's
+        // replaced
+        synchronized (this) {
+            super.update(translationMap, unchangedLocales);
+            // Remove the replaced locales after the internal cache has been updated, for the same
+            // reason as in loadLocale()
+            for (String locale : mPendingLocales.toArray(new String[0])) {
+                if (!unchangedLocales.contains(locale)) {
+                    mPendingLocales.remove(locale);
+                }
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public Map<String, String> getETags() {
+        if (mPendingLocales == null) {
+            return super.getETags();
+        }
+
+        HashMap<String, String> etags = new HashMap<>();
+        for (String locale : mPendingLocales.toArray(new String[0])) {
+            String etag = getProviderETag(locale);
+            if (etag != null) {
+                etags.put(locale, etag);
+            }
+        }
+        // A locale that is loaded concurrently is removed from the pending locales after it's
+        // added to the internal cache, so it's found in at least one of them
+        etags.putAll(super.getETags());
+        return etags;
+    }
+
+    /**
+     * Returns the ETag of the provided locale's translations from the last provider that has
+     * them, since they replace the ones of the earlier providers when the locale is loaded.
+     */
+    private @Nullable String getProviderETag(@NonNull String locale) {
+        for (int i = mProviders.length - 1; i >= 0; i--) {
+            if (mProviderTranslations[i] != null) {
+                LocaleData.LocaleStrings localeStrings = mProviderTranslations[i].get(locale);
+                if (localeStrings != null) {
+                    return localeStrings.getETag();
+                }
+            } else if (mProviderLocales[i] != null && mProviderLocales[i].contains(locale)) {
+                return ((TxLazyTranslationsProvider) mProviders[i]).getETag(locale);
+            }
+        }
+        return null;
+    }
+
+    private void loadAllPendingLocales() {
+        if (mPendingLocales == null || mPendingLocales.isEmpty()) {
+            return;
+        }
+        for (String locale : mPendingLocales.toArray(new String[0])) {
+            loadLocale(locale);
+        }
+    }
+
+    /**
+     * Loads the translations of the provided locale from all providers and updates the internal
+     * cache with them.
+     */
+    private synchronized void loadLocale(@NonNull String locale) {
+        if (!mPendingLocales.contains(locale)) {
+            // Already loaded by another thread
+            return;
+        }
+
+        for (int i = 0; i < mProviders.length; i++) {
+            LocaleData.LocaleStrings localeStrings;
+            if (mProviderTranslations[i] != null) {
+                localeStrings = mProviderTranslations[i].get(locale);
+            } else if (mProviderLocales[i] != null && mProviderLocales[i].contains(locale)) {
+                localeStrings = ((TxLazyTranslationsProvider) mProviders[i]).getTranslations(locale);
+            } else {
+                localeStrings = null;
+            }
+            if (localeStrings == null) {
+                continue;
             }
+
+            // Keep the loaded locales and add the new one
+            LocaleData.TranslationMap currentTranslations = mInternalCache.get();
+            HashMap<String, LocaleData.LocaleStrings> map =
+                    new HashMap<>(currentTranslations.getLocales().size() + 1);
+            for (String loadedLocale : currentTranslations.getLocales()) {
+                LocaleData.LocaleStrings loadedStrings = currentTranslations.get(loadedLocale);
+                if (loadedStrings != null) {
+                    map.put(loadedLocale, loadedStrings);
+                }
+            }
+            map.put(locale, localeStrings);
+            mInternalCache.update(new LocaleData.TranslationMap(map));
         }
+
+        // Remove the locale after the internal cache has been updated, so that other threads don't
+        // skip loading before it's available
+        mPendingLocales.remove(locale);
     }
 }
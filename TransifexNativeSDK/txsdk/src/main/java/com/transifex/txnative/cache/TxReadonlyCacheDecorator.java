@@ -2,6 +2,8 @@ package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
 
+import java.util.Set;
+
 import androidx.annotation.NonNull;
 
 /**
@@ -20,4 +22,12 @@ public class TxReadonlyCacheDecorator extends TxDecoratorCache {
     public void update(@NonNull LocaleData.TranslationMap translationMap) {
         // No-op
     }
+
+    /**
+     * This method is a no-op as this cache decorator is read-only.
+     */
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        // No-op
+    }
 }
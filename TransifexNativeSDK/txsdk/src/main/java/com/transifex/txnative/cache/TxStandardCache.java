@@ -40,6 +40,37 @@ public class TxStandardCache {
     public static TxCache getCache(@NonNull Context context,
                                    @Nullable @TxUpdateFilterCache.TxCacheUpdatePolicy Integer updatePolicy,
                                    @Nullable File cachedTranslationsDirectory) {
+        return getCache(context, updatePolicy, cachedTranslationsDirectory, false);
+    }
+
+    /**
+     * Creates a cache with the configuration explained in {@link TxStandardCache}, optionally
+     * loading the translations of each locale the first time they are needed.
+     * <p>
+     * When lazy loading is enabled, only the translations of the locales that the app displays are
+     * read from disk, instead of the translations of all locales during initialization. See
+     * {@link TxProviderBasedCache#TxProviderBasedCache(TxTranslationsProvider[], TxCache, boolean)}.
+     * The cached translations directory is captured during initialization, so a locale that is
+     * loaded later still gets the translations that existed at that time, as explained in
+     * {@link TxStandardCache}.
+     *
+     * @param context The app's context.
+     * @param updatePolicy The update policy to be used when initializing the internal memory
+     *                     cache with the stored contents from disk. If set to <code>null</code>,
+     *                     {@link TxUpdateFilterCache.TxCacheUpdatePolicy#REPLACE_ALL REPLACE_ALL} is used.
+     * @param cachedTranslationsDirectory The directory where the cache will store new translations
+     *                                    when available and read translations from when initialized.
+     *                                    If set to <code>null</code> it uses a "txnative" folder in
+     *                                    the app's internal cache directory.
+     * @param lazyLoading <code>true</code> to load the translations of each locale when they
+     *                    are first needed.
+     *
+     * @return A TxCache instance.
+     */
+    public static TxCache getCache(@NonNull Context context,
+                                   @Nullable @TxUpdateFilterCache.TxCacheUpdatePolicy Integer updatePolicy,
+                                   @Nullable File cachedTranslationsDirectory,
+                                   boolean lazyLoading) {
 
         if (updatePolicy == null) {
             updatePolicy = TxUpdateFilterCache.TxCacheUpdatePolicy.REPLACE_ALL;
@@ -64,7 +95,8 @@ public class TxStandardCache {
                                 new TxUpdateFilterCache(
                                         updatePolicy,
                                         new TxMemoryCache()
-                                )
+                                ),
+                                lazyLoading
                         )
                 )
         );
@@ -3,13 +3,17 @@ package com.transifex.txnative.cache;
 import android.text.TextUtils;
 
 import com.transifex.common.LocaleData;
+import com.transifex.txnative.Utils;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 
 /**
@@ -106,6 +110,10 @@ public class TxUpdateFilterCache extends TxDecoratorCache {
      * cache's {@link TxCache#update(LocaleData.TranslationMap)} method is called to set them.
      * Depending on the cache's implementation, the actual result may be different to the calculated
      * one.
+     * <p>
+     * When using {@link TxCacheUpdatePolicy#UPDATE_USING_TRANSLATED}, the internal cache's current
+     * translations are not modified. Only the locales whose content changes are copied; the rest
+     * are shared with the new translations, which are set to the internal cache once.
      */
     @Override
     public void update(@NonNull LocaleData.TranslationMap translationMap) {
@@ -113,37 +121,105 @@ public class TxUpdateFilterCache extends TxDecoratorCache {
             super.update(translationMap);
         }
         else if (mPolicy == TxCacheUpdatePolicy.UPDATE_USING_TRANSLATED) {
-            // Make a copy of the internal cache's TranslationMap, in order to apply the updates there
-            LocaleData.TranslationMap updatedTranslations = new LocaleData.TranslationMap(get());
+            // Make a shallow copy of the internal cache's TranslationMap, in order to replace the
+            // updated locales there
+            LocaleData.TranslationMap currentTranslations = get();
+            HashMap<String, LocaleData.LocaleStrings> updatedMap = new HashMap<>(
+                    currentTranslations.getLocales().size() + translationMap.getLocales().size());
+            for (String locale : currentTranslations.getLocales()) {
+                LocaleData.LocaleStrings localeStrings = currentTranslations.get(locale);
+                if (localeStrings != null) {
+                    updatedMap.put(locale, localeStrings);
+                }
+            }
 
-            // For each locale
+            boolean changed = false;
             for (String locale : translationMap.getLocales()) {
                 LocaleData.LocaleStrings localeStrings = translationMap.get(locale);
                 if (localeStrings == null) {
                     continue; // Can't happen. Just to suppress lint
                 }
-                LocaleData.LocaleStrings updatedLocaleStrings = updatedTranslations.get(locale);
-
-                // For each key-value entry of localeStrings
-                for (Map.Entry<String, LocaleData.StringInfo> entry : localeStrings.getMap().entrySet()) {
-                    // Make sure that the new entry contains a translation, otherwise don't process it.
-                    if (entry.getValue() == null || TextUtils.isEmpty(entry.getValue().string)) {
-                        continue;
-                    }
-
-                    // If needed, create new LocaleStrings object and add it to the updated
-                    // translation map
-                    if (updatedLocaleStrings == null) {
-                        updatedLocaleStrings = new LocaleData.LocaleStrings(localeStrings.getMap().size());
-                        updatedTranslations.put(locale, updatedLocaleStrings);
-                    }
-
-                    updatedLocaleStrings.put(entry.getKey(), entry.getValue());
+                LocaleData.LocaleStrings currentLocaleStrings = updatedMap.get(locale);
+                LocaleData.LocaleStrings updatedLocaleStrings =
+                        mergeTranslated(currentLocaleStrings, localeStrings);
+                if (updatedLocaleStrings != currentLocaleStrings) {
+                    updatedMap.put(locale, updatedLocaleStrings);
+                    changed = true;
                 }
+            }
 
-                // Update the internal cache with the updated translations
-                super.update(updatedTranslations);
+            // Update the internal cache with the updated translations
+            if (changed) {
+                super.update(new LocaleData.TranslationMap(updatedMap));
             }
         }
     }
+
+    /**
+     * Updates the internal cache with the provided translations using the update policy specified
+     * in the constructor, keeping the translations of the unchanged locales.
+     * <p>
+     * When using {@link TxCacheUpdatePolicy#UPDATE_USING_TRANSLATED}, the locales that are not
+     * provided are always kept, so this method behaves like
+     * {@link #update(LocaleData.TranslationMap)}.
+     */
+    @Override
+    public void update(@NonNull LocaleData.TranslationMap translationMap, @NonNull Set<String> unchangedLocales) {
+        if (mPolicy == TxCacheUpdatePolicy.UPDATE_USING_TRANSLATED) {
+            update(translationMap);
+        }
+        else {
+            super.update(translationMap, unchangedLocales);
+        }
+    }
+
+    /**
+     * Merges the entries of the new locale strings that have a translation into the current ones.
+     *
+     * @return The current object if nothing changes, a new object with the merged entries if
+     * something changes or <code>null</code> if the current object is <code>null</code> and there
+     * are no translated entries.
+     */
+    @Nullable
+    private static LocaleData.LocaleStrings mergeTranslated(
+            @Nullable LocaleData.LocaleStrings currentLocaleStrings,
+            @NonNull LocaleData.LocaleStrings newLocaleStrings) {
+        HashMap<String, LocaleData.StringInfo> currentMap =
+                (currentLocaleStrings != null) ? currentLocaleStrings.getMap() : null;
+
+        // Find out if any translated entry differs, without allocating
+        boolean changed = currentLocaleStrings != null
+                && !Utils.equals(currentLocaleStrings.getETag(), newLocaleStrings.getETag());
+        for (Map.Entry<String, LocaleData.StringInfo> entry : newLocaleStrings.getMap().entrySet()) {
+            if (changed) {
+                break;
+            }
+            // Make sure that the new entry contains a translation, otherwise don't process it.
+            if (!isTranslated(entry.getValue())) {
+                continue;
+            }
+            changed = currentMap == null || !entry.getValue().equals(currentMap.get(entry.getKey()));
+        }
+        if (!changed) {
+            return currentLocaleStrings;
+        }
+
+        LocaleData.LocaleStrings updatedLocaleStrings = (currentLocaleStrings != null)
+                ? new LocaleData.LocaleStrings(currentLocaleStrings)
+                : new LocaleData.LocaleStrings(newLocaleStrings.getMap().size());
+        for (Map.Entry<String, LocaleData.StringInfo> entry : newLocaleStrings.getMap().entrySet()) {
+            if (isTranslated(entry.getValue())) {
+                updatedLocaleStrings.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Keep the ETag of the new content so that the next fetch can be conditional
+        updatedLocaleStrings.setETag(newLocaleStrings.getETag());
+
+        return updatedLocaleStrings;
+    }
+
+    private static boolean isTranslated(@Nullable LocaleData.StringInfo stringInfo) {
+        return stringInfo != null && !TextUtils.isEmpty(stringInfo.string);
+    }
 }
@@ -0,0 +1,81 @@
+package com.transifex.txnative;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class FetchRequestTrackerTest {
+
+    @Test
+    public void testTryStart_identicalRequestInFlight_skip() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+        FetchRequestTracker.Key key = new FetchRequestTracker.Key("el", null);
+
+        assertThat(tracker.tryStart(key, 0)).isTrue();
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key("el", null), 0)).isFalse();
+    }
+
+    @Test
+    public void testTryStart_differentRequestInFlight_start() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key("el", null), 0)).isTrue();
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key(null, null), 0)).isTrue();
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key("el",
+                new HashSet<>(Arrays.asList("tag1"))), 0)).isTrue();
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key("el",
+                new HashSet<>(Arrays.asList("tag1", "tag2"))), 0)).isTrue();
+    }
+
+    @Test
+    public void testTryStart_sameTagsInDifferentSet_skip() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+        HashSet<String> tags = new HashSet<>(Arrays.asList("tag1", "tag2"));
+
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key(null, tags), 0)).isTrue();
+        // The key is not affected by changes to the provided set
+        tags.add("tag3");
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key(null,
+                new HashSet<>(Arrays.asList("tag2", "tag1"))), 0)).isFalse();
+    }
+
+    @Test
+    public void testTryStart_requestFinished_start() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+        FetchRequestTracker.Key key = new FetchRequestTracker.Key("el", null);
+
+        assertThat(tracker.tryStart(key, 0)).isTrue();
+        tracker.finish(key, true, 10);
+
+        assertThat(tracker.tryStart(key, 10)).isTrue();
+    }
+
+    @Test
+    public void testTryStart_withinMinRefreshInterval_skip() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+        tracker.setMinRefreshInterval(1000);
+        FetchRequestTracker.Key key = new FetchRequestTracker.Key("el", null);
+
+        assertThat(tracker.tryStart(key, 0)).isTrue();
+        tracker.finish(key, true, 100);
+
+        assertThat(tracker.tryStart(key, 1099)).isFalse();
+        assertThat(tracker.tryStart(new FetchRequestTracker.Key("es", null), 1099)).isTrue();
+        assertThat(tracker.tryStart(key, 1100)).isTrue();
+    }
+
+    @Test
+    public void testTryStart_previousRequestFailed_ignoreMinRefreshInterval() {
+        FetchRequestTracker tracker = new FetchRequestTracker();
+        tracker.setMinRefreshInterval(1000);
+        FetchRequestTracker.Key key = new FetchRequestTracker.Key("el", null);
+
+        assertThat(tracker.tryStart(key, 0)).isTrue();
+        tracker.finish(key, false, 100);
+
+        assertThat(tracker.tryStart(key, 200)).isTrue();
+    }
+}
@@ -0,0 +1,72 @@
+package com.transifex.txnative;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class IntObjectMapTest {
+
+    @Test
+    public void testGet_emptyMap_returnNull() {
+        IntObjectMap<String> map = new IntObjectMap<>(0);
+
+        assertThat(map.get(0)).isNull();
+        assertThat(map.get(0x7f0e0001)).isNull();
+        assertThat(map.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testPutGet() {
+        IntObjectMap<String> map = new IntObjectMap<>(0);
+
+        map.put(0, "zero");
+        map.put(0x7f0e0001, "a");
+        map.put(-1, "minus one");
+
+        assertThat(map.get(0)).isEqualTo("zero");
+        assertThat(map.get(0x7f0e0001)).isEqualTo("a");
+        assertThat(map.get(-1)).isEqualTo("minus one");
+        assertThat(map.get(0x7f0e0002)).isNull();
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPut_existingKey_replaceValue() {
+        IntObjectMap<String> map = new IntObjectMap<>(0);
+
+        map.put(0x7f0e0001, "a");
+        map.put(0x7f0e0001, "b");
+
+        assertThat(map.get(0x7f0e0001)).isEqualTo("b");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPut_manyKeys_resizeAndKeepEntries() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(0);
+
+        for (int i = 0; i < 5000; i++) {
+            map.put(0x7f0e0000 + i, i);
+        }
+
+        assertThat(map.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(map.get(0x7f0e0000 + i)).isEqualTo(i);
+        }
+        assertThat(map.get(0x7f0e0000 + 5000)).isNull();
+    }
+
+    @Test
+    public void testClear() {
+        IntObjectMap<String> map = new IntObjectMap<>(0);
+        map.put(0x7f0e0001, "a");
+
+        map.clear();
+
+        assertThat(map.get(0x7f0e0001)).isNull();
+        assertThat(map.size()).isEqualTo(0);
+
+        map.put(0x7f0e0001, "b");
+        assertThat(map.get(0x7f0e0001)).isEqualTo("b");
+    }
+}
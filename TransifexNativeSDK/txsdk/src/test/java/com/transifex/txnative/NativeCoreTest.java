@@ -5,8 +5,11 @@ import android.content.res.Resources;
 import android.os.Build;
 import android.text.Spanned;
 import android.text.style.StyleSpan;
+import android.util.LruCache;
 
+import com.transifex.common.CDSMockHelper;
 import com.transifex.common.LocaleData;
+import com.transifex.common.Plurals;
 import com.transifex.txnative.cache.TxMemoryCache;
 import com.transifex.txnative.test.R;
 
@@ -18,8 +21,11 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
+import androidx.annotation.NonNull;
 import androidx.test.core.app.ApplicationProvider;
+import okhttp3.mockwebserver.RecordedRequest;
 
 import static android.text.Html.FROM_HTML_MODE_LEGACY;
 import static com.google.common.truth.Truth.assertThat;
@@ -271,6 +277,73 @@ public class NativeCoreTest {
         assertThat(string).isEqualTo(androidString);
     }
 
+    @Test
+    @Config(qualifiers = "el-rGR")
+    public void testTranslate_translationCached_returnCachedUntilCleared() {
+        LocaleState localeState = new LocaleState(mockContext,
+                "en",
+                new String[]{"en", "el"},
+                null);
+        TxMemoryCache elMemoryCache = getElMemoryCache();
+        NativeCore nativeCore = new NativeCore(mockContext, localeState, "token", null, elMemoryCache, null);
+        TxResources txResources = new TxResources(mockContext.getResources(), nativeCore);
+
+        CharSequence string = nativeCore.translate(txResources, R.string.tx_test_key);
+        HashMap<String, LocaleData.StringInfo> dic = new HashMap<>();
+        dic.put("tx_test_key", new LocaleData.StringInfo("test ελ tx updated"));
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(1);
+        translationMap.put("el", new LocaleData.LocaleStrings(dic));
+        elMemoryCache.update(translationMap);
+        CharSequence cachedString = nativeCore.translate(txResources, R.string.tx_test_key);
+        nativeCore.clearTranslatedTexts();
+        CharSequence updatedString = nativeCore.translate(txResources, R.string.tx_test_key);
+
+        assertThat(string).isEqualTo("test ελ tx");
+        assertThat(cachedString).isSameInstanceAs(string);
+        assertThat(updatedString).isEqualTo("test ελ tx updated");
+    }
+
+    @Test
+    @Config(qualifiers = "el-rGR")
+    public void testTranslate_cacheUpdatedDirectly_returnUpdatedAfterOnCacheUpdated() {
+        LocaleState localeState = new LocaleState(mockContext,
+                "en",
+                new String[]{"en", "el"},
+                null);
+        TxMemoryCache elMemoryCache = getElMemoryCache();
+        NativeCore nativeCore = new NativeCore(mockContext, localeState, "token", null, elMemoryCache, null);
+        TxResources txResources = new TxResources(mockContext.getResources(), nativeCore);
+
+        nativeCore.translate(txResources, R.string.tx_test_key);
+        HashMap<String, LocaleData.StringInfo> dic = new HashMap<>();
+        dic.put("tx_test_key", new LocaleData.StringInfo("test ελ tx updated"));
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(1);
+        translationMap.put("el", new LocaleData.LocaleStrings(dic));
+        elMemoryCache.update(translationMap);
+        nativeCore.onCacheUpdated();
+        CharSequence updatedString = nativeCore.translate(txResources, R.string.tx_test_key);
+
+        assertThat(updatedString).isEqualTo("test ελ tx updated");
+    }
+
+    @Test
+    public void testGetResourceInfo_returnSameInfo() {
+        LocaleState localeState = new LocaleState(mockContext,
+                "en",
+                new String[]{"en", "el"},
+                null);
+        NativeCore nativeCore = new NativeCore(mockContext, localeState, "token", null, getElMemoryCache(), null);
+        TxResources txResources = new TxResources(mockContext.getResources(), nativeCore);
+
+        NativeCore.ResourceInfo info = nativeCore.getResourceInfo(txResources, R.string.tx_test_key);
+        NativeCore.ResourceInfo androidInfo = nativeCore.getResourceInfo(txResources, android.R.string.cancel);
+
+        assertThat(info.isAndroidResource).isFalse();
+        assertThat(info.entryName).isEqualTo("tx_test_key");
+        assertThat(nativeCore.getResourceInfo(txResources, R.string.tx_test_key)).isSameInstanceAs(info);
+        assertThat(androidInfo.isAndroidResource).isTrue();
+    }
+
     // endregion translate
 
     // region spanned string
@@ -473,6 +546,34 @@ public class NativeCoreTest {
         assertThat(string).isEqualTo("there is a new\nline & multiple   spaces");
     }
 
+    @Test
+    @Config(qualifiers = "en")
+    public void testGetSpannedString_htmlString_renderOnceUntilCacheUpdated() {
+        LocaleState localeState = new LocaleState(mockContext,
+                "en",
+                new String[]{"en", "el"},
+                null);
+        TxMemoryCache dummyCache = getEmptyMemoryCache();
+        NativeCore nativeCore = new NativeCore(mockContext, localeState, "token", null, dummyCache, null);
+        nativeCore.setSupportSpannable(true);
+
+        CharSequence string = nativeCore.getSpannedString(STRING_WITH_TAGS);
+        CharSequence cachedString = nativeCore.getSpannedString(STRING_WITH_TAGS);
+        nativeCore.getSpannedString(STRING_WITHOUT_TAGS);
+
+        assertThat(cachedString).isSameInstanceAs(string);
+        // Strings without tags are not cached
+        assertThat(nativeCore.mRenderedStrings.size()).isEqualTo(STRING_WITH_TAGS.length() + string.length());
+        assertThat(nativeCore.mRenderedStrings.hitCount()).isEqualTo(1);
+        assertThat(nativeCore.mRenderedStrings.missCount()).isEqualTo(1);
+
+        nativeCore.onCacheUpdated();
+        CharSequence renderedAgainString = nativeCore.getSpannedString(STRING_WITH_TAGS);
+
+        assertThat(renderedAgainString).isNotSameInstanceAs(string);
+        assertThat(renderedAgainString.toString()).isEqualTo(string.toString());
+    }
+
     // endregion spanned string
 
     // region get localized quantity string
@@ -599,6 +700,29 @@ public class NativeCoreTest {
         assertThat(quantityStringForALot).isNull();
     }
 
+    @Test
+    @Config(qualifiers = "en")
+    public void testGetLocalizedQuantityString_pluralsCache_parseOnce() {
+        Resources resources = mockContext.getResources();
+        LruCache<String, Plurals> pluralsCache = new LruCache<>(NativeCore.PLURALS_CACHE_SIZE);
+
+        String quantityStringForOne = NativeCore.getLocalizedQuantityString(resources, ICU_STRING, 1, pluralsCache, null);
+        Plurals plurals = pluralsCache.get(ICU_STRING);
+        String quantityStringForALot = NativeCore.getLocalizedQuantityString(resources, ICU_STRING, 20, pluralsCache, null);
+        String invalidQuantityString = NativeCore.getLocalizedQuantityString(resources, ICU_STRING_OTHER_NOT_SPECIFIED, 1, pluralsCache, null);
+        String invalidQuantityString2 = NativeCore.getLocalizedQuantityString(resources, ICU_STRING_OTHER_NOT_SPECIFIED, 1, pluralsCache, null);
+
+        assertThat(quantityStringForOne).isEqualTo("this is one");
+        assertThat(quantityStringForALot).isEqualTo("others!");
+        assertThat(plurals).isNotNull();
+        assertThat(pluralsCache.get(ICU_STRING)).isSameInstanceAs(plurals);
+        assertThat(invalidQuantityString).isNull();
+        assertThat(invalidQuantityString2).isNull();
+        assertThat(pluralsCache.size()).isEqualTo(2);
+        // Each ICU string was parsed once
+        assertThat(pluralsCache.missCount()).isEqualTo(2);
+    }
+
     // endregion get localized quantity string
 
     // region translate quantity string
@@ -779,4 +903,46 @@ public class NativeCoreTest {
     }
 
     // endregion translate quantity string
-}
\ No newline at end of file
+
+    // region fetch translations
+
+    // A cache whose update always fails
+    private static class FailingUpdateCache extends TxMemoryCache {
+
+        @Override
+        public void update(@NonNull LocaleData.TranslationMap translationMap) {
+            throw new RuntimeException("Update failed");
+        }
+    }
+
+    @Test
+    public void testFetchTranslations_cacheUpdateThrows_nextFetchIsNotSkipped() throws InterruptedException {
+        CDSMockHelper cdsMock = new CDSMockHelper();
+        cdsMock.setUpServer();
+        try {
+            cdsMock.getServer().setDispatcher(CDSMockHelper.getElDispatcher());
+            LocaleState localeState = new LocaleState(mockContext,
+                    "en",
+                    new String[]{"en", "el"},
+                    null);
+            NativeCore nativeCore = new NativeCore(mockContext, localeState, "token",
+                    cdsMock.getBaseUrl(), new FailingUpdateCache(), null);
+
+            nativeCore.fetchTranslations("el", null);
+            assertThat(cdsMock.getServer().takeRequest(2, TimeUnit.SECONDS)).isNotNull();
+
+            // The first fetch completes in the background, so fetch again until it's no longer
+            // in progress
+            RecordedRequest secondRequest = null;
+            for (int i = 0; i < 20 && secondRequest == null; i++) {
+                nativeCore.fetchTranslations("el", null);
+                secondRequest = cdsMock.getServer().takeRequest(100, TimeUnit.MILLISECONDS);
+            }
+            assertThat(secondRequest).isNotNull();
+        } finally {
+            cdsMock.teardownServer();
+        }
+    }
+
+    // endregion fetch translations
+}
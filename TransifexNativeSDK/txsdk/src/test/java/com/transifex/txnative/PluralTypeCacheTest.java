@@ -0,0 +1,64 @@
+package com.transifex.txnative;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Build;
+
+import com.transifex.common.Plurals;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class PluralTypeCacheTest {
+
+    private Context mockContext;
+
+    @Before
+    public void setUp() {
+        // inject context provided by Robolectric
+        mockContext = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    @Config(qualifiers = "en")
+    public void testGetPluralType_EN() {
+        PluralTypeCache pluralTypeCache = new PluralTypeCache();
+        Resources resources = mockContext.getResources();
+
+        assertThat(pluralTypeCache.getPluralType(resources, 0)).isEqualTo(Plurals.PluralType.OTHER);
+        assertThat(pluralTypeCache.getPluralType(resources, 1)).isEqualTo(Plurals.PluralType.ONE);
+        assertThat(pluralTypeCache.getPluralType(resources, 2)).isEqualTo(Plurals.PluralType.OTHER);
+        // Cached value
+        assertThat(pluralTypeCache.getPluralType(resources, 1)).isEqualTo(Plurals.PluralType.ONE);
+        // Not cached
+        assertThat(pluralTypeCache.getPluralType(resources, -1)).isEqualTo(Plurals.PluralType.OTHER);
+        assertThat(pluralTypeCache.getPluralType(resources, PluralTypeCache.MAX_CACHED_QUANTITY + 1))
+                .isEqualTo(Plurals.PluralType.OTHER);
+    }
+
+    @Test
+    @Config(qualifiers = "en")
+    public void testGetPluralType_differentLocales_useEachLocaleRules() {
+        // https://unicode-org.github.io/cldr-staging/charts/37/supplemental/language_plural_rules.html#sl
+        PluralTypeCache pluralTypeCache = new PluralTypeCache();
+        Resources enResources = mockContext.getResources();
+        Resources slResources = Utils.getLocalizedResources(mockContext, new Locale("sl"));
+
+        assertThat(pluralTypeCache.getPluralType(enResources, 2)).isEqualTo(Plurals.PluralType.OTHER);
+        assertThat(pluralTypeCache.getPluralType(slResources, 2)).isEqualTo(Plurals.PluralType.TWO);
+        assertThat(pluralTypeCache.getPluralType(slResources, 3)).isEqualTo(Plurals.PluralType.FEW);
+        assertThat(pluralTypeCache.getPluralType(slResources, 102)).isEqualTo(Plurals.PluralType.TWO);
+        assertThat(pluralTypeCache.getPluralType(enResources, 2)).isEqualTo(Plurals.PluralType.OTHER);
+    }
+}
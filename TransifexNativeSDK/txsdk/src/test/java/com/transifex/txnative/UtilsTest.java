@@ -0,0 +1,65 @@
+package com.transifex.txnative;
+
+import android.os.Build;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class UtilsTest {
+
+    @Test
+    public void testUnescapeHTMLEntities_noEntities_returnSameInstance() {
+        String string = "there are no entities here; just text";
+
+        assertThat(Utils.unescapeHTMLEntities(string)).isSameInstanceAs(string);
+        assertThat(Utils.unescapeHTMLEntities("")).isEmpty();
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_noValidEntities_returnSameInstance() {
+        String string = "Tom & Jerry &unknown; &amp &#; &#x; &#xZZ;";
+
+        assertThat(Utils.unescapeHTMLEntities(string)).isSameInstanceAs(string);
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_namedEntities() {
+        String string = "&lt;b&gt;bold&lt;/b&gt; &amp; &quot;quoted&quot; &apos;single&apos;";
+
+        assertThat(Utils.unescapeHTMLEntities(string)).isEqualTo("<b>bold</b> & \"quoted\" 'single'");
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_numericEntities() {
+        String string = "it&#39;s &#x27;here&#X27; &#8364; &#x1F600;";
+
+        assertThat(Utils.unescapeHTMLEntities(string)).isEqualTo("it's 'here' € 😀");
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_invalidNumericEntities_keepAsIs() {
+        String string = "&#0; &#xD800; &#x110000; &#123456789; &#12a;";
+
+        assertThat(Utils.unescapeHTMLEntities(string)).isEqualTo(string);
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_escapedEntity_unescapeOnce() {
+        assertThat(Utils.unescapeHTMLEntities("&amp;lt;")).isEqualTo("&lt;");
+        assertThat(Utils.unescapeHTMLEntities("&amp;amp;")).isEqualTo("&amp;");
+    }
+
+    @Test
+    public void testUnescapeHTMLEntities_entitiesAtBoundaries() {
+        assertThat(Utils.unescapeHTMLEntities("&lt;")).isEqualTo("<");
+        assertThat(Utils.unescapeHTMLEntities("&&lt;;")).isEqualTo("&<;");
+        assertThat(Utils.unescapeHTMLEntities("a &lt; b &")).isEqualTo("a < b &");
+        assertThat(Utils.unescapeHTMLEntities("line\n&amp;  spaces")).isEqualTo("line\n&  spaces");
+    }
+}
@@ -1,14 +1,21 @@
 package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
+import com.transifex.common.StringTestData;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.Collections;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
 public class TxDecoratorCacheTest {
@@ -50,4 +57,55 @@ public class TxDecoratorCacheTest {
         verify(internalCache, times(1)).update(map);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetETags_internalETagCache_doNotGetTranslations() {
+        TxMemoryCache internalCache = mock(TxMemoryCache.class);
+
+        TxDecoratorCache decoratorCache = new TxDecoratorCache(internalCache);
+        decoratorCache.getETags();
+
+        verify(internalCache, times(1)).getETags();
+        verify(internalCache, never()).get();
+    }
+
+    @Test
+    public void testGetETags_internalCacheWithoutETagSupport_readFromTranslations() {
+        LocaleData.TranslationMap map = StringTestData.getElEsTranslationMap();
+        map.get("el").setETag("etag-el");
+        TxCache internalCache = mock(TxCache.class);
+        when(internalCache.get()).thenReturn(map);
+
+        TxDecoratorCache decoratorCache = new TxDecoratorCache(internalCache);
+
+        assertThat(decoratorCache.getETags()).containsExactly("el", "etag-el");
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_internalETagCache_doNotGetTranslations() {
+        TxMemoryCache internalCache = mock(TxMemoryCache.class);
+
+        TxDecoratorCache decoratorCache = new TxDecoratorCache(internalCache);
+        LocaleData.TranslationMap map = new LocaleData.TranslationMap(0);
+        Set<String> unchangedLocales = Collections.singleton("el");
+        decoratorCache.update(map, unchangedLocales);
+
+        verify(internalCache, times(1)).update(map, unchangedLocales);
+        verify(internalCache, never()).get();
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_internalCacheWithoutETagSupport_keepFromTranslations() {
+        TxCache internalCache = mock(TxCache.class);
+        when(internalCache.get()).thenReturn(StringTestData.getElEsTranslationMap());
+
+        TxDecoratorCache decoratorCache = new TxDecoratorCache(internalCache);
+        LocaleData.TranslationMap map = new LocaleData.TranslationMap(1);
+        map.put("de", StringTestData.getEsLocaleStrings());
+        decoratorCache.update(map, Collections.singleton("el"));
+
+        LocaleData.TranslationMap expectedMap = new LocaleData.TranslationMap(2);
+        expectedMap.put("el", StringTestData.getElLocaleStrings());
+        expectedMap.put("de", StringTestData.getEsLocaleStrings());
+        verify(internalCache, times(1)).update(expectedMap);
+    }
+}
@@ -0,0 +1,172 @@
+package com.transifex.txnative.cache;
+
+import com.transifex.common.LocaleData;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.NonNull;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TxDeferredCacheTest {
+
+    // Runs the submitted tasks when runAll() is called
+    private static class ManualExecutor implements Executor {
+        final ArrayList<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+
+    private static LocaleData.TranslationMap getDummyTranslationMap() {
+        HashMap<String, LocaleData.StringInfo> dic1 = new HashMap<>();
+        dic1.put("key1", new LocaleData.StringInfo("val1"));
+        LocaleData.LocaleStrings elStrings = new LocaleData.LocaleStrings(dic1);
+
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(1);
+        translationMap.put("el", elStrings);
+
+        return translationMap;
+    }
+
+    private static LocaleData.TranslationMap getDummyTranslationMap2() {
+        HashMap<String, LocaleData.StringInfo> dic1 = new HashMap<>();
+        dic1.put("key1", new LocaleData.StringInfo("val1 de"));
+        LocaleData.LocaleStrings deStrings = new LocaleData.LocaleStrings(dic1);
+
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(1);
+        translationMap.put("de", deStrings);
+
+        return translationMap;
+    }
+
+    private static TxDeferredCache.CacheFactory getFactory(@NonNull final TxCache cache) {
+        return new TxDeferredCache.CacheFactory() {
+            @NonNull
+            @Override
+            public TxCache createCache() {
+                return cache;
+            }
+        };
+    }
+
+    @Test
+    public void testGet_notReady_returnNull() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        memoryCache.update(getDummyTranslationMap());
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), executor);
+
+        assertThat(cache.isReady()).isFalse();
+        assertThat(cache.awaitReady(0, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(cache.get("key1", "el")).isNull();
+    }
+
+    @Test
+    public void testGet_ready_returnTranslation() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        memoryCache.update(getDummyTranslationMap());
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), executor);
+
+        executor.runAll();
+
+        assertThat(cache.isReady()).isTrue();
+        assertThat(cache.awaitReady(0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(cache.get("key1", "el")).isEqualTo("val1");
+        assertThat(cache.get()).isEqualTo(getDummyTranslationMap());
+    }
+
+    @Test
+    public void testUpdate_notReady_applyWhenReady() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), executor);
+
+        cache.update(getDummyTranslationMap());
+        cache.update(getDummyTranslationMap2());
+        assertThat(memoryCache.get().isEmpty()).isTrue();
+
+        executor.runAll();
+
+        assertThat(cache.get()).isEqualTo(getDummyTranslationMap2());
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_notReady_applyWhenReady() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), executor);
+
+        cache.update(getDummyTranslationMap());
+        cache.update(getDummyTranslationMap2(), Collections.singleton("el"));
+        assertThat(memoryCache.get().isEmpty()).isTrue();
+
+        executor.runAll();
+
+        assertThat(cache.get().getLocales()).containsExactly("el", "de");
+        assertThat(cache.get("key1", "el")).isEqualTo("val1");
+        assertThat(cache.get("key1", "de")).isEqualTo("val1 de");
+    }
+
+    @Test
+    public void testUpdate_ready_updateInternalCache() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), executor);
+        executor.runAll();
+
+        cache.update(getDummyTranslationMap());
+
+        assertThat(memoryCache.get()).isEqualTo(getDummyTranslationMap());
+    }
+
+    @Test
+    public void testAddOnReadyListener_notifyOnceWhenReady() {
+        ManualExecutor executor = new ManualExecutor();
+        TxDeferredCache cache = new TxDeferredCache(getFactory(new TxMemoryCache()), executor);
+        final AtomicInteger callCount = new AtomicInteger();
+        TxDeferredCache.OnReadyListener listener = new TxDeferredCache.OnReadyListener() {
+            @Override
+            public void onReady() {
+                callCount.incrementAndGet();
+            }
+        };
+
+        cache.addOnReadyListener(listener);
+        assertThat(callCount.get()).isEqualTo(0);
+
+        executor.runAll();
+        assertThat(callCount.get()).isEqualTo(1);
+
+        // Already ready: notified immediately
+        cache.addOnReadyListener(listener);
+        assertThat(callCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGet_backgroundThread_blockUntilReady() {
+        TxMemoryCache memoryCache = new TxMemoryCache();
+        memoryCache.update(getDummyTranslationMap());
+        TxDeferredCache cache = new TxDeferredCache(getFactory(memoryCache), null);
+
+        assertThat(cache.get()).isEqualTo(getDummyTranslationMap());
+        assertThat(cache.isReady()).isTrue();
+    }
+}
@@ -75,4 +75,34 @@ public class TxDiskTranslationsProviderFilesTest {
         assertThat(provider.getTranslations()).isNull();
     }
 
+    @Test
+    public void testGetTranslationsOfLocale_dirModifiedAfterCreation_returnOriginalTranslations() {
+        LocaleData.TranslationMap map = getElTranslationMap();
+        // Make the files large enough to be mapped
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longString.append("ελ tx ");
+        }
+        map.get("el").put("long_key", new LocaleData.StringInfo(longString.toString()));
+        map.get("el").setETag("etag-1");
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        storage.toDisk(map, tempDirHelper.getFile());
+
+        TxDiskTranslationsProvider provider = new TxDiskTranslationsProvider(tempDirHelper.getFile());
+
+        LocaleData.TranslationMap newMap = getElTranslationMap();
+        newMap.get("el").put("tx_test_key", new LocaleData.StringInfo("new test ελ tx"));
+        newMap.get("el").setETag("etag-2");
+        newMap.put("es", new LocaleData.LocaleStrings(0));
+        storage.toDisk(newMap, tempDirHelper.getFile());
+
+        assertThat(provider.getLocales()).containsExactly("el");
+        assertThat(provider.getETag("el")).isEqualTo("etag-1");
+        LocaleData.LocaleStrings elStrings = provider.getTranslations("el");
+        assertThat(elStrings).isEqualTo(map.get("el"));
+        assertThat(elStrings.getETag()).isEqualTo("etag-1");
+        assertThat(provider.getTranslations("es")).isNull();
+    }
+
 }
\ No newline at end of file
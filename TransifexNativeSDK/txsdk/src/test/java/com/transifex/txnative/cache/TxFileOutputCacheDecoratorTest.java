@@ -13,6 +13,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -43,6 +50,16 @@ public class TxFileOutputCacheDecoratorTest {
         return translationMap;
     }
 
+    private LocaleData.TranslationMap getDeTranslationMap() {
+        LocaleData.LocaleStrings deStrings = new LocaleData.LocaleStrings(1);
+        deStrings.put("tx_test_key", new LocaleData.StringInfo("test de tx"));
+
+        LocaleData.TranslationMap translationMap = new LocaleData.TranslationMap(1);
+        translationMap.put("de", deStrings);
+
+        return translationMap;
+    }
+
     @Test
     public void testUpdate_normal_writeTranslations() {
         assertThat(tempDir.getFile().mkdirs()).isTrue();
@@ -106,4 +123,185 @@ public class TxFileOutputCacheDecoratorTest {
         assertThat(readMap).isEqualTo(map);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testUpdate_multipleUpdatesBeforeWrite_writeLatestTranslationsOnce() {
+        final ArrayList<Runnable> tasks = new ArrayList<>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                executor, tempDir.getFile(), new TxMemoryCache());
+        fileOutputCache.update(getElTranslationMap());
+        LocaleData.TranslationMap map = getDeTranslationMap();
+        fileOutputCache.update(map);
+
+        assertThat(tasks).hasSize(1);
+        tasks.get(0).run();
+
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.fromDisk(tempDir.getFile())).isEqualTo(map);
+    }
+
+    @Test
+    public void testUpdate_unchangedLocale_doNotRewriteLocale() {
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                MoreExecutors.directExecutor(), tempDir.getFile(), new TxMemoryCache());
+        LocaleData.TranslationMap map = getElTranslationMap();
+        map.put("de", getDeTranslationMap().get("de"));
+        fileOutputCache.update(map);
+
+        // Delete the el file, so that we can tell if it's written again
+        File elStringFile = new File(tempDir.getFile().getPath() + File.separator + "el"
+                + File.separator + TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(elStringFile.delete()).isTrue();
+
+        LocaleData.TranslationMap updatedMap = getElTranslationMap();
+        LocaleData.LocaleStrings deStrings = new LocaleData.LocaleStrings(1);
+        deStrings.put("tx_test_key", new LocaleData.StringInfo("updated test de tx"));
+        updatedMap.put("de", deStrings);
+        fileOutputCache.update(updatedMap);
+
+        assertThat(elStringFile.exists()).isFalse();
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.localeFromDisk(tempDir.getFile(), "de")).isEqualTo(deStrings);
+    }
+
+    @Test
+    public void testUpdate_unchangedLocaleWrittenByPreviousInstance_doNotRewriteLocale() throws IOException {
+        LocaleData.TranslationMap map = getElTranslationMap();
+        map.get("el").setETag("etag");
+        map.put("de", getDeTranslationMap().get("de"));
+        new TxFileOutputCacheDecorator(MoreExecutors.directExecutor(), tempDir.getFile(),
+                new TxMemoryCache()).update(map);
+
+        // Replace the content of the el file, so that we can tell if it's written again. Only the
+        // manifest and the ETag are compared, so the file is not read.
+        File elStringFile = new File(tempDir.getFile().getPath() + File.separator + "el"
+                + File.separator + TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        FileOutputStream outputStream = new FileOutputStream(elStringFile);
+        outputStream.write("marker".getBytes(StandardCharsets.UTF_8));
+        outputStream.close();
+
+        // A new instance, as after a restart, with equal el translations
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                MoreExecutors.directExecutor(), tempDir.getFile(), new TxMemoryCache());
+        LocaleData.TranslationMap updatedMap = getElTranslationMap();
+        updatedMap.get("el").setETag("etag");
+        LocaleData.LocaleStrings deStrings = new LocaleData.LocaleStrings(1);
+        deStrings.put("tx_test_key", new LocaleData.StringInfo("updated test de tx"));
+        updatedMap.put("de", deStrings);
+        fileOutputCache.update(updatedMap);
+
+        assertThat(new String(Files.readAllBytes(elStringFile.toPath()), StandardCharsets.UTF_8))
+                .isEqualTo("marker");
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.localeFromDisk(tempDir.getFile(), "de")).isEqualTo(deStrings);
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_keepFilesOfUnchangedLocales() throws IOException {
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                MoreExecutors.directExecutor(), tempDir.getFile(), new TxMemoryCache());
+        LocaleData.TranslationMap map = getElTranslationMap();
+        map.put("de", getDeTranslationMap().get("de"));
+        fileOutputCache.update(map);
+
+        // Replace the content of the el file, so that we can tell if it's written again
+        File elStringFile = new File(tempDir.getFile().getPath() + File.separator + "el"
+                + File.separator + TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        FileOutputStream outputStream = new FileOutputStream(elStringFile);
+        outputStream.write("marker".getBytes(StandardCharsets.UTF_8));
+        outputStream.close();
+
+        LocaleData.LocaleStrings frStrings = new LocaleData.LocaleStrings(1);
+        frStrings.put("tx_test_key", new LocaleData.StringInfo("test fr tx"));
+        LocaleData.TranslationMap changedMap = new LocaleData.TranslationMap(1);
+        changedMap.put("fr", frStrings);
+        fileOutputCache.update(changedMap, Collections.singleton("el"));
+
+        assertThat(fileOutputCache.get().getLocales()).containsExactly("el", "fr");
+        assertThat(tempDir.getFile().list()).asList().containsExactly("el", "fr");
+        assertThat(new String(Files.readAllBytes(elStringFile.toPath()), StandardCharsets.UTF_8))
+                .isEqualTo("marker");
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.localeFromDisk(tempDir.getFile(), "fr")).isEqualTo(frStrings);
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_pendingUpdate_writeUnchangedLocalesOfPendingUpdate() {
+        final ArrayList<Runnable> tasks = new ArrayList<>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                executor, tempDir.getFile(), new TxMemoryCache());
+        LocaleData.TranslationMap map = getElTranslationMap();
+        map.put("de", getDeTranslationMap().get("de"));
+        fileOutputCache.update(map);
+        LocaleData.LocaleStrings frStrings = new LocaleData.LocaleStrings(1);
+        frStrings.put("tx_test_key", new LocaleData.StringInfo("test fr tx"));
+        LocaleData.TranslationMap changedMap = new LocaleData.TranslationMap(1);
+        changedMap.put("fr", frStrings);
+        fileOutputCache.update(changedMap, Collections.singleton("el"));
+
+        assertThat(tasks).hasSize(1);
+        tasks.get(0).run();
+
+        LocaleData.TranslationMap expectedMap = getElTranslationMap();
+        expectedMap.put("fr", frStrings);
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.fromDisk(tempDir.getFile())).isEqualTo(expectedMap);
+    }
+
+    @Test
+    public void testUpdate_changedETag_rewriteLocale() {
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                MoreExecutors.directExecutor(), tempDir.getFile(), new TxMemoryCache());
+        fileOutputCache.update(getElTranslationMap());
+
+        LocaleData.TranslationMap updatedMap = getElTranslationMap();
+        updatedMap.get("el").setETag("etag");
+        fileOutputCache.update(updatedMap);
+
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        LocaleData.LocaleStrings readStrings = storage.localeFromDisk(tempDir.getFile(), "el");
+        assertThat(readStrings).isNotNull();
+        assertThat(readStrings.getETag()).isEqualTo("etag");
+    }
+
+    @Test
+    public void testUpdate_localeRemoved_deleteLocale() {
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                MoreExecutors.directExecutor(), tempDir.getFile(), new TxMemoryCache());
+        LocaleData.TranslationMap map = getElTranslationMap();
+        map.put("de", getDeTranslationMap().get("de"));
+        fileOutputCache.update(map);
+        assertThat(tempDir.getFile().list()).asList().containsExactly("el", "de");
+
+        fileOutputCache.update(getElTranslationMap());
+
+        assertThat(tempDir.getFile().list()).asList().containsExactly("el");
+    }
+
+    @Test
+    public void testUpdate_writeDelay_writeAfterDelay() throws InterruptedException {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        TxFileOutputCacheDecorator fileOutputCache = new TxFileOutputCacheDecorator(
+                executor, tempDir.getFile(), new TxMemoryCache(), 100);
+        LocaleData.TranslationMap map = getElTranslationMap();
+        fileOutputCache.update(map);
+
+        assertThat(tempDir.getFile().exists()).isFalse();
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        assertThat(storage.fromDisk(tempDir.getFile())).isEqualTo(map);
+    }
+}
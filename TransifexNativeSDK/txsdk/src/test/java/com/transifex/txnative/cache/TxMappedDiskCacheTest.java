@@ -0,0 +1,131 @@
+package com.transifex.txnative.cache;
+
+import android.os.Build;
+
+import com.transifex.common.LocaleData;
+import com.transifex.common.StringTestData;
+import com.transifex.common.TempDirHelper;
+import com.transifex.common.TranslationMapStorage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.Collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+public class TxMappedDiskCacheTest {
+
+    TempDirHelper tempDirHelper = null;
+
+    @Before
+    public void setUp() {
+        tempDirHelper = new TempDirHelper();
+        tempDirHelper.setUp();
+    }
+
+    @After
+    public void Teardown() {
+        if (tempDirHelper != null) {
+            tempDirHelper.tearDown();
+        }
+    }
+
+    @Test
+    public void testGet_binaryFiles_getTranslations() {
+        LocaleData.TranslationMap map = StringTestData.getElEsTranslationMap();
+        map.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        storage.toDisk(map, tempDirHelper.getFile());
+
+        TxMappedDiskCache cache = new TxMappedDiskCache(tempDirHelper.getFile());
+
+        assertThat(cache.get("test_key", "el")).isEqualTo("Καλημέρα");
+        assertThat(cache.get("test_key", "es")).isEqualTo("Buenos días");
+        assertThat(cache.get("test_key3", "es")).isEqualTo("");
+        assertThat(cache.get("missing_key", "el")).isNull();
+        assertThat(cache.get("test_key", "fr")).isNull();
+
+        assertThat(cache.get()).isEqualTo(map);
+        assertThat(cache.get().get("el").getETag()).isEqualTo("\"el-etag\"");
+    }
+
+    @Test
+    public void testGet_jsonFilesOnly_getTranslations() {
+        LocaleData.TranslationMap map = StringTestData.getElEsTranslationMap();
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME);
+        storage.toDisk(map, tempDirHelper.getFile());
+
+        TxMappedDiskCache cache = new TxMappedDiskCache(tempDirHelper.getFile());
+
+        assertThat(cache.get("test_key", "el")).isEqualTo("Καλημέρα");
+        assertThat(cache.get()).isEqualTo(map);
+    }
+
+    @Test
+    public void testGetETags_binaryFiles_readStoredETags() {
+        LocaleData.TranslationMap map = StringTestData.getElEsTranslationMap();
+        map.get("el").setETag("\"el-etag\"");
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        storage.toDisk(map, tempDirHelper.getFile());
+
+        TxMappedDiskCache cache = new TxMappedDiskCache(tempDirHelper.getFile());
+
+        assertThat(cache.getETags()).containsExactly("el", "\"el-etag\"");
+    }
+
+    @Test
+    public void testGet_dirDoesNotExist_returnEmpty() {
+        TxMappedDiskCache cache = new TxMappedDiskCache(new File(tempDirHelper.getFile(), "missing"));
+
+        assertThat(cache.get().isEmpty()).isTrue();
+        assertThat(cache.get("test_key", "el")).isNull();
+    }
+
+    @Test
+    public void testUpdate_useNewTranslations() {
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        storage.toDisk(StringTestData.getElTranslationMap(), tempDirHelper.getFile());
+        TxMappedDiskCache cache = new TxMappedDiskCache(tempDirHelper.getFile());
+
+        LocaleData.TranslationMap newMap = new LocaleData.TranslationMap(1);
+        newMap.put("es", StringTestData.getEsLocaleStrings());
+        cache.update(newMap);
+
+        assertThat(cache.get("test_key", "el")).isNull();
+        assertThat(cache.get("test_key", "es")).isEqualTo("Buenos días");
+        assertThat(cache.get()).isSameInstanceAs(newMap);
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_keepMappedLocales() {
+        TranslationMapStorage storage = new TranslationMapStorage(TranslationMapStorage.DEFAULT_TRANSLATION_FILENAME,
+                TranslationMapStorage.DEFAULT_BINARY_TRANSLATION_FILENAME);
+        LocaleData.TranslationMap translationMap = StringTestData.getElEsTranslationMap();
+        translationMap.get("es").setETag("etag-es");
+        storage.toDisk(translationMap, tempDirHelper.getFile());
+        TxMappedDiskCache cache = new TxMappedDiskCache(tempDirHelper.getFile());
+
+        LocaleData.LocaleStrings elStrings = new LocaleData.LocaleStrings(1);
+        elStrings.put("test_key", new LocaleData.StringInfo("Καλησπέρα"));
+        elStrings.setETag("etag-el");
+        LocaleData.TranslationMap newMap = new LocaleData.TranslationMap(1);
+        newMap.put("el", elStrings);
+        cache.update(newMap, Collections.singleton("es"));
+
+        assertThat(cache.get("test_key", "el")).isEqualTo("Καλησπέρα");
+        assertThat(cache.get("test_key", "es")).isEqualTo("Buenos días");
+        assertThat(cache.getETags()).containsExactly("el", "etag-el", "es", "etag-es");
+        assertThat(cache.get().getLocales()).containsExactly("el", "es");
+    }
+}
@@ -4,7 +4,10 @@ import com.transifex.common.LocaleData;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -79,6 +82,41 @@ public class TxMemoryCacheTest {
         assertThat(cache.get()).isEqualTo(getDummyTranslationMap());
     }
 
+    @Test
+    public void testUpdate_providedMapChangedAfterUpdate_cacheNotAffected() {
+        TxMemoryCache cache = new TxMemoryCache();
+        LocaleData.TranslationMap translationMap = getDummyTranslationMap();
+        cache.update(translationMap);
+
+        translationMap.put("de", getDummyTranslationMap2().get("de"));
+
+        assertThat(cache.get().getLocales()).containsExactly("el", "es");
+        assertThat(cache.get("key1", "de")).isNull();
+    }
+
+    @Test
+    public void testUpdateWithUnchangedLocales_keepUnchangedLocales() {
+        TxMemoryCache cache = new TxMemoryCache();
+        LocaleData.TranslationMap translationMap = getDummyTranslationMap();
+        cache.update(translationMap);
+
+        cache.update(getDummyTranslationMap2(), new HashSet<>(Arrays.asList("el", "fr")));
+
+        assertThat(cache.get().getLocales()).containsExactly("el", "de");
+        assertThat(cache.get().get("el")).isSameInstanceAs(translationMap.get("el"));
+        assertThat(cache.get("key1", "de")).isEqualTo("val1 de");
+    }
+
+    @Test
+    public void testGetETags_normal() {
+        TxMemoryCache cache = new TxMemoryCache();
+        LocaleData.TranslationMap translationMap = getDummyTranslationMap();
+        translationMap.get("es").setETag("etag-es");
+        cache.update(translationMap);
+
+        assertThat(cache.getETags()).containsExactly("es", "etag-es");
+    }
+
     @Test
     public void testGetAll_emptyCache_returnEmptyMap() {
         TxMemoryCache cache = new TxMemoryCache();
@@ -86,4 +124,38 @@ public class TxMemoryCacheTest {
         assertThat(cache.get()).isNotNull();
         assertThat(cache.get().getLocales()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGet_concurrentUpdates_readConsistentSnapshots() throws InterruptedException {
+        final TxMemoryCache cache = new TxMemoryCache();
+        cache.update(getDummyTranslationMap());
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final AtomicBoolean done = new AtomicBoolean(false);
+
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!done.get()) {
+                    LocaleData.TranslationMap snapshot = cache.get();
+                    // Each snapshot contains either "el" and "es" or only "de"
+                    boolean isFirst = snapshot.get("el") != null && snapshot.get("es") != null
+                            && snapshot.get("de") == null;
+                    boolean isSecond = snapshot.get("de") != null && snapshot.get("el") == null;
+                    if (!isFirst && !isSecond) {
+                        failed.set(true);
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 10000; i++) {
+            cache.update((i % 2 == 0) ? getDummyTranslationMap2() : getDummyTranslationMap());
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(failed.get()).isFalse();
+        assertThat(cache.get("key1", "el")).isEqualTo("val1");
+    }
+}
@@ -1,6 +1,7 @@
 package com.transifex.txnative.cache;
 
 import com.transifex.common.LocaleData;
+import com.transifex.common.StringTestData;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -8,6 +9,14 @@ import org.mockito.InOrder;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+
+import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
@@ -69,4 +78,157 @@ public class TxProviderBasedCacheTest {
         orderVerifier.verify(internalCache, times(1)).update(getElTranslationMap2());
         orderVerifier.verifyNoMoreInteractions();
     }
-}
\ No newline at end of file
+
+    private static class CountingLazyProvider implements TxLazyTranslationsProvider {
+
+        final LocaleData.TranslationMap translations;
+        final ArrayList<String> loadedLocales = new ArrayList<>();
+
+        CountingLazyProvider(LocaleData.TranslationMap translations) {
+            this.translations = translations;
+        }
+
+        @Override
+        public Set<String> getLocales() {
+            return new HashSet<>(translations.getLocales());
+        }
+
+        @Override
+        public LocaleData.LocaleStrings getTranslations(@NonNull String locale) {
+            loadedLocales.add(locale);
+            return translations.get(locale);
+        }
+
+        @Override
+        public String getETag(@NonNull String locale) {
+            LocaleData.LocaleStrings localeStrings = translations.get(locale);
+            return (localeStrings != null) ? localeStrings.getETag() : null;
+        }
+
+        @Override
+        public LocaleData.TranslationMap getTranslations() {
+            throw new AssertionError("Translations should be loaded lazily");
+        }
+    }
+
+    @Test
+    public void testLazy_get_loadOnlyRequestedLocale() {
+        CountingLazyProvider provider = new CountingLazyProvider(StringTestData.getElEsTranslationMap());
+        TxMemoryCache internalCache = new TxMemoryCache();
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider}, internalCache, true);
+
+        assertThat(provider.loadedLocales).isEmpty();
+        assertThat(internalCache.get().isEmpty()).isTrue();
+
+        assertThat(cache.get("test_key", "el")).isEqualTo("Καλημέρα");
+        assertThat(cache.get("test_key3", "el")).isEqualTo("");
+        assertThat(cache.get("test_key", "fr")).isNull();
+
+        assertThat(provider.loadedLocales).containsExactly("el");
+        assertThat(internalCache.get().getLocales()).containsExactly("el");
+    }
+
+    @Test
+    public void testLazy_twoProviders_laterProviderOverridesLocale() {
+        LocaleData.TranslationMap map2 = getElTranslationMap2();
+        CountingLazyProvider provider1 = new CountingLazyProvider(StringTestData.getElEsTranslationMap());
+        CountingLazyProvider provider2 = new CountingLazyProvider(map2);
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider1, provider2}, new TxMemoryCache(), true);
+
+        assertThat(cache.get("tx_test_key", "el")).isEqualTo("test ελ tx 2");
+        assertThat(cache.get("test_key", "es")).isEqualTo("Buenos días");
+
+        assertThat(provider1.loadedLocales).containsExactly("el", "es");
+        assertThat(provider2.loadedLocales).containsExactly("el");
+    }
+
+    @Test
+    public void testLazy_nonLazyProvider_loadedPerLocale() {
+        TxTranslationsProvider provider1 = new TxTranslationsProvider() {
+
+            @Override
+            public LocaleData.TranslationMap getTranslations() {
+                return getElTranslationMap1();
+            }
+        };
+        CountingLazyProvider provider2 = new CountingLazyProvider(StringTestData.getEsTranslationMap());
+        TxMemoryCache internalCache = new TxMemoryCache();
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider1, provider2}, internalCache, true);
+
+        assertThat(internalCache.get().isEmpty()).isTrue();
+        assertThat(cache.get("tx_test_key", "el")).isEqualTo("test ελ tx");
+        assertThat(internalCache.get().getLocales()).containsExactly("el");
+    }
+
+    @Test
+    public void testLazy_getAll_loadAllLocales() {
+        CountingLazyProvider provider = new CountingLazyProvider(StringTestData.getElEsTranslationMap());
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider}, new TxMemoryCache(), true);
+
+        assertThat(cache.get()).isEqualTo(StringTestData.getElEsTranslationMap());
+        assertThat(provider.loadedLocales).containsExactly("el", "es");
+
+        // Locales are not loaded again
+        cache.get("test_key", "el");
+        assertThat(provider.loadedLocales).hasSize(2);
+    }
+
+    @Test
+    public void testLazy_getETags_doNotLoadPendingLocales() {
+        LocaleData.TranslationMap firstTranslations = StringTestData.getElEsTranslationMap();
+        firstTranslations.get("el").setETag("etag-el-1");
+        firstTranslations.get("es").setETag("etag-es-1");
+        LocaleData.TranslationMap secondTranslations = StringTestData.getElTranslationMap();
+        secondTranslations.get("el").setETag("etag-el-2");
+        CountingLazyProvider firstProvider = new CountingLazyProvider(firstTranslations);
+        CountingLazyProvider secondProvider = new CountingLazyProvider(secondTranslations);
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{firstProvider, secondProvider}, new TxMemoryCache(), true);
+
+        assertThat(cache.getETags()).containsExactly("el", "etag-el-2", "es", "etag-es-1");
+        assertThat(firstProvider.loadedLocales).isEmpty();
+        assertThat(secondProvider.loadedLocales).isEmpty();
+
+        // The ETags of the loaded locales are provided by the internal cache
+        cache.get("test_key", "el");
+        assertThat(cache.getETags()).containsExactly("el", "etag-el-2", "es", "etag-es-1");
+    }
+
+    @Test
+    public void testLazy_updateWithUnchangedLocales_doNotLoadPendingLocales() {
+        CountingLazyProvider provider = new CountingLazyProvider(StringTestData.getElEsTranslationMap());
+        TxMemoryCache internalCache = new TxMemoryCache();
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider}, internalCache, true);
+
+        cache.update(getElTranslationMap1(), Collections.singleton("es"));
+
+        assertThat(provider.loadedLocales).isEmpty();
+        assertThat(internalCache.get()).isEqualTo(getElTranslationMap1());
+        // The updated locale is no longer loaded from the provider, while the unchanged one is
+        assertThat(cache.get("tx_test_key", "el")).isEqualTo("test ελ tx");
+        assertThat(cache.get("test_key", "es")).isEqualTo("Buenos días");
+        assertThat(provider.loadedLocales).containsExactly("es");
+    }
+
+    @Test
+    public void testLazy_update_loadPendingLocalesFirst() {
+        CountingLazyProvider provider = new CountingLazyProvider(StringTestData.getElEsTranslationMap());
+        TxMemoryCache internalCache = new TxMemoryCache();
+        TxProviderBasedCache cache = new TxProviderBasedCache(
+                new TxTranslationsProvider[]{provider}, internalCache, true);
+
+        LocaleData.TranslationMap newMap = getElTranslationMap1();
+        cache.update(newMap);
+
+        assertThat(provider.loadedLocales).containsExactly("el", "es");
+        assertThat(internalCache.get()).isEqualTo(newMap);
+        // The loaded locales don't override the update
+        assertThat(cache.get("test_key", "el")).isNull();
+        assertThat(cache.get("tx_test_key", "el")).isEqualTo("test ελ tx");
+    }
+}
@@ -9,6 +9,8 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
+import androidx.annotation.NonNull;
+
 import static com.google.common.truth.Truth.assertThat;
 
 // We need roboelectric to emulate TextUtils
@@ -126,4 +128,78 @@ public class TxUpdateFilterCacheTest {
         assertThat(updateFilterCache.get("a", "el")).isEqualTo("a");
         assertThat(updateFilterCache.get("d", "el")).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdate_updateUsingTranslatedPolicyMultipleLocales_copyChangedLocalesAndUpdateOnce() {
+        int policy = TxUpdateFilterCache.TxCacheUpdatePolicy.UPDATE_USING_TRANSLATED;
+        LocaleData.TranslationMap currentTranslations = getTranslations1();
+        LocaleData.LocaleStrings esStrings = new LocaleData.LocaleStrings(1);
+        esStrings.put("a", new LocaleData.StringInfo("a es"));
+        currentTranslations.put("es", esStrings);
+        final int[] updateCount = {0};
+        TxMemoryCache internalCache = new TxMemoryCache() {
+            @Override
+            public void update(@NonNull LocaleData.TranslationMap translationMap) {
+                updateCount[0]++;
+                super.update(translationMap);
+            }
+        };
+        internalCache.update(currentTranslations);
+        TxUpdateFilterCache updateFilterCache = new TxUpdateFilterCache(policy, internalCache);
+
+        LocaleData.TranslationMap newTranslations = getTranslations2();
+        LocaleData.LocaleStrings deStrings = new LocaleData.LocaleStrings(1);
+        deStrings.put("a", new LocaleData.StringInfo("a de"));
+        newTranslations.put("de", deStrings);
+        updateFilterCache.update(newTranslations);
+
+        assertThat(updateCount[0]).isEqualTo(2);
+        assertThat(updateFilterCache.get().get("el")).isEqualTo(
+                getTranslationsForUpdateUsingTranslatedGroundTruth().get("el"));
+        assertThat(updateFilterCache.get().get("de")).isEqualTo(deStrings);
+        // The locale that was not updated is shared
+        assertThat(updateFilterCache.get().get("es")).isSameInstanceAs(esStrings);
+        // The previous snapshot is not modified
+        assertThat(currentTranslations).isEqualTo(getTranslations1WithEs(esStrings));
+    }
+
+    @Test
+    public void testUpdate_updateUsingTranslatedPolicyNoChanges_doNotUpdateInternalCache() {
+        int policy = TxUpdateFilterCache.TxCacheUpdatePolicy.UPDATE_USING_TRANSLATED;
+        final int[] updateCount = {0};
+        TxMemoryCache internalCache = new TxMemoryCache() {
+            @Override
+            public void update(@NonNull LocaleData.TranslationMap translationMap) {
+                updateCount[0]++;
+                super.update(translationMap);
+            }
+        };
+        internalCache.update(getTranslations1());
+        TxUpdateFilterCache updateFilterCache = new TxUpdateFilterCache(policy, internalCache);
+
+        updateFilterCache.update(getTranslations1());
+
+        assertThat(updateCount[0]).isEqualTo(1);
+        assertThat(updateFilterCache.get()).isEqualTo(getTranslations1());
+    }
+
+    @Test
+    public void testUpdate_updateUsingTranslatedPolicyNewETag_keepETag() {
+        int policy = TxUpdateFilterCache.TxCacheUpdatePolicy.UPDATE_USING_TRANSLATED;
+        TxMemoryCache internalCache = new TxMemoryCache();
+        internalCache.update(getTranslations1());
+        TxUpdateFilterCache updateFilterCache = new TxUpdateFilterCache(policy, internalCache);
+
+        LocaleData.TranslationMap newTranslations = getTranslations1();
+        newTranslations.get("el").setETag("etag");
+        updateFilterCache.update(newTranslations);
+
+        assertThat(updateFilterCache.get().get("el").getETag()).isEqualTo("etag");
+    }
+
+    private LocaleData.TranslationMap getTranslations1WithEs(LocaleData.LocaleStrings esStrings) {
+        LocaleData.TranslationMap map = getTranslations1();
+        map.put("es", esStrings);
+        return map;
+    }
+}